@@ -0,0 +1,136 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Hasan Demirtaş
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package io.github.portlek.rgb.benchmarks;
+
+import io.github.portlek.rgb.AnimatedGradient;
+import io.github.portlek.rgb.ColorManager;
+import io.github.portlek.rgb.Gradient;
+import io.github.portlek.rgb.TextColor;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * a class that contains the benchmarks of animating a gradient every tick.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AnimatedGradientBenchmark {
+
+  /**
+   * the frame count.
+   */
+  @Param({"20", "100"})
+  public int frames;
+
+  /**
+   * the text.
+   */
+  @Param({"Welcome to the server", "A considerably longer scoreboard title that is animated every single tick"})
+  public String text;
+
+  /**
+   * the animated gradient.
+   */
+  private AnimatedGradient animated;
+
+  /**
+   * the end color.
+   */
+  private TextColor end;
+
+  /**
+   * the start color.
+   */
+  private TextColor start;
+
+  /**
+   * the tick.
+   */
+  private int tick;
+
+  /**
+   * mixes the colors.
+   *
+   * @param from the from to mix.
+   * @param to the to to mix.
+   * @param ratio the ratio to mix.
+   *
+   * @return packed rgb.
+   */
+  private static int mix(final TextColor from, final TextColor to, final float ratio) {
+    final var red = (int) (from.getRed() + (to.getRed() - from.getRed()) * ratio);
+    final var green = (int) (from.getGreen() + (to.getGreen() - from.getGreen()) * ratio);
+    final var blue = (int) (from.getBlue() + (to.getBlue() - from.getBlue()) * ratio);
+    return red << 16 | green << 8 | blue;
+  }
+
+  /**
+   * obtains the bukkit text of the current frame from the frame cache.
+   *
+   * @return bukkit text.
+   */
+  @Benchmark
+  public String cached() {
+    return this.animated.frame(this.tick++).toBukkitText();
+  }
+
+  /**
+   * recomputes the bukkit text of the current frame with {@link Gradient#asGradient(TextColor, String, TextColor)}.
+   *
+   * @return bukkit text.
+   */
+  @Benchmark
+  public String recomputed() {
+    final var frame = this.tick++ % this.frames;
+    final var ratio = (float) frame / this.frames;
+    final var from = TextColor.ofRgb(AnimatedGradientBenchmark.mix(this.start, this.end, ratio));
+    final var to = TextColor.ofRgb(AnimatedGradientBenchmark.mix(this.end, this.start, ratio));
+    return ColorManager.getDefault().convertToBukkitFormat(Gradient.asGradient(from, this.text, to), true);
+  }
+
+  /**
+   * prepares the colors and the animated gradient.
+   */
+  @Setup
+  public void setup() {
+    this.start = TextColor.of("#FF5555");
+    this.end = TextColor.of("#5555FF");
+    this.animated = AnimatedGradient.of(this.text, AnimatedGradient.Mode.SHIFT, this.frames, this.start, this.end);
+  }
+}
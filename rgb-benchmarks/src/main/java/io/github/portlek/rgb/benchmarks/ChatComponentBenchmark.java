@@ -0,0 +1,157 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Hasan Demirtaş
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package io.github.portlek.rgb.benchmarks;
+
+import io.github.portlek.rgb.ChatComponent;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * a class that contains the benchmarks of the chat component parsers and serializers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChatComponentBenchmark {
+
+  /**
+   * the corpus.
+   */
+  @Param
+  public Corpus corpus;
+
+  /**
+   * the buffer.
+   */
+  private ByteBuffer buffer;
+
+  /**
+   * the components.
+   */
+  private ChatComponent[] components;
+
+  /**
+   * the jsons.
+   */
+  private String[] jsons;
+
+  /**
+   * the texts.
+   */
+  private String[] texts;
+
+  /**
+   * creates a component from every text of the corpus.
+   *
+   * @param blackhole the blackhole to consume.
+   */
+  @Benchmark
+  public void fromColoredText(final Blackhole blackhole) {
+    for (final var text : this.texts) {
+      blackhole.consume(ChatComponent.fromColoredText(text));
+    }
+  }
+
+  /**
+   * parses the json of every text of the corpus.
+   *
+   * @param blackhole the blackhole to consume.
+   */
+  @Benchmark
+  public void fromString(final Blackhole blackhole) {
+    for (final var json : this.jsons) {
+      blackhole.consume(ChatComponent.fromString(json));
+    }
+  }
+
+  /**
+   * prepares the texts, the components and their jsons.
+   */
+  @Setup
+  public void setup() {
+    this.texts = this.corpus.getTexts();
+    this.components = new ChatComponent[this.texts.length];
+    this.jsons = new String[this.texts.length];
+    var size = 0;
+    for (var index = 0; index < this.texts.length; index++) {
+      this.components[index] = ChatComponent.fromColoredText(this.texts[index]);
+      this.jsons[index] = this.components[index].toString();
+      size = Math.max(size, this.components[index].utf8Length(true));
+    }
+    this.buffer = ByteBuffer.allocateDirect(size);
+  }
+
+  /**
+   * renders every component of the corpus as legacy text.
+   *
+   * @param blackhole the blackhole to consume.
+   */
+  @Benchmark
+  public void toLegacyText(final Blackhole blackhole) {
+    for (final var component : this.components) {
+      blackhole.consume(component.toLegacyText());
+    }
+  }
+
+  /**
+   * serializes every component of the corpus to json.
+   *
+   * @param blackhole the blackhole to consume.
+   */
+  @Benchmark
+  public void toString(final Blackhole blackhole) {
+    for (final var component : this.components) {
+      blackhole.consume(component.toString());
+    }
+  }
+
+  /**
+   * encodes every component of the corpus as length prefixed utf-8 json into a direct buffer.
+   *
+   * @param blackhole the blackhole to consume.
+   */
+  @Benchmark
+  public void toUtf8(final Blackhole blackhole) {
+    for (final var component : this.components) {
+      this.buffer.clear();
+      blackhole.consume(component.toUtf8(this.buffer, true));
+    }
+  }
+}
@@ -0,0 +1,98 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Hasan Demirtaş
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package io.github.portlek.rgb.benchmarks;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * an enum class that contains the input corpora of the benchmarks.
+ */
+public enum Corpus {
+  /**
+   * the short chat messages.
+   */
+  SHORT_CHAT(
+    "&7[&aMember&7] &fSteve&7: hello everyone!",
+    "&#55ff55Welcome back, &lAlex&r&#55ff55!",
+    "{#ffaa00}[Shop] {#ffffff}You bought 16x Diamond for &e$1,200",
+    "#<ff5555>[!] &cYou can not do that here.",
+    "&x&f&f&5&5&f&f[Party] &fNotch&7: gg",
+    "<#00aaff>[Discord]</#55ffff> &7jeb_&f: see you tomorrow",
+    "plain message without any color at all"),
+  /**
+   * the long item lore lines.
+   */
+  LONG_LORE(
+    "&8&m                                                  ",
+    "&7Damage: &c+12 &8(&#ff5555+4 from enchantments&8)",
+    "&7Strength: &c+30 &7Crit Damage: &9+45% &7Attack Speed: &e+10%",
+    "&7Gear Score: &d512 &8(&#aa55ff+32&8) &7Reforge: &#55ffffLegendary Sharp",
+    "&9Sharpness V &7Increases melee damage dealt by &a25%&7. &9Critical VI &7Increases critical damage by &a60%&7.",
+    "&6Item Ability: Shadow Step &e&lRIGHT CLICK &7Teleport behind your target and gain &f+40 &c\u2741 Strength",
+    "{#ff0000>}&lLEGENDARY SWORD OF THE ANCIENT DRAGON KING{#ffaa00<}",
+    "&8&m                                                  "),
+  /**
+   * the gradient heavy server list messages.
+   */
+  GRADIENT_MOTD(
+    "<gradient:#ff0000:#0000ff>Welcome to the Example Network</gradient> &7| <#ffaa00>Season 4 is live!</#ff5555>",
+    "{#00ffaa>}Survival{#00aaff<} &8\u2022 {#ffaa00>}Skyblock{#ff5500<} &8\u2022 {#aa00ff>}Minigames{#ff00aa<}",
+    "<$#ff0000>Iridescent Weekend Sale<$#00ff00> &f- &#ffff55up to 50% off",
+    "<#55ff55>Now supporting 1.8 - 1.17</#5555ff> <gradient:#ffffff:#aaaaaa>play.example.net</gradient>"),
+  /**
+   * the legacy only messages.
+   */
+  LEGACY_ONLY(
+    "&aWelcome &b&lSteve&r&a to the server!",
+    "&7[&cAdmin&7] &fNotch&7: &eServer restarts in &c5 &eminutes.",
+    "&6&lSALE &r&7- &aAll ranks &c50% &aoff this weekend!",
+    "\u00a79Blue \u00a7aGreen \u00a7cRed \u00a7kmagic\u00a7r \u00a7nunderlined \u00a7mstruck \u00a7oitalic",
+    "&8\u00bb &7Type &f/help &7for a list of commands.");
+
+  /**
+   * the texts.
+   */
+  @NotNull
+  private final String[] texts;
+
+  /**
+   * ctor.
+   *
+   * @param texts the texts.
+   */
+  Corpus(@NotNull final String... texts) {
+    this.texts = texts;
+  }
+
+  /**
+   * obtains the texts.
+   *
+   * @return a copy of the texts.
+   */
+  @NotNull
+  public String[] getTexts() {
+    return this.texts.clone();
+  }
+}
@@ -0,0 +1,114 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Hasan Demirtaş
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package io.github.portlek.rgb.benchmarks;
+
+import io.github.portlek.rgb.Gradient;
+import io.github.portlek.rgb.gradients.CMIGradient;
+import io.github.portlek.rgb.gradients.HtmlGradient;
+import io.github.portlek.rgb.gradients.IridescentGradient;
+import io.github.portlek.rgb.gradients.KyoriGradient;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * a class that contains the benchmarks of each gradient.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GradientBenchmark {
+
+  /**
+   * the corpus.
+   */
+  @Param
+  public Corpus corpus;
+
+  /**
+   * the gradient name.
+   */
+  @Param({"cmi", "html", "iridescent", "kyori"})
+  public String gradient;
+
+  /**
+   * the instance.
+   */
+  private Gradient instance;
+
+  /**
+   * the texts.
+   */
+  private String[] texts;
+
+  /**
+   * applies the gradient to every text of the corpus.
+   *
+   * @param blackhole the blackhole to consume.
+   */
+  @Benchmark
+  public void apply(final Blackhole blackhole) {
+    for (final var text : this.texts) {
+      blackhole.consume(this.instance.apply(text, false));
+    }
+  }
+
+  /**
+   * prepares the gradient and the texts.
+   */
+  @Setup
+  public void setup() {
+    this.texts = this.corpus.getTexts();
+    switch (this.gradient) {
+      case "cmi":
+        this.instance = CMIGradient.INSTANCE;
+        break;
+      case "html":
+        this.instance = HtmlGradient.INSTANCE;
+        break;
+      case "iridescent":
+        this.instance = IridescentGradient.INSTANCE;
+        break;
+      case "kyori":
+        this.instance = KyoriGradient.INSTANCE;
+        break;
+      default:
+        throw new IllegalArgumentException("Unknown gradient " + this.gradient);
+    }
+  }
+}
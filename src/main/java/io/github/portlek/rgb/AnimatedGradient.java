@@ -0,0 +1,430 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Hasan Demirtaş
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package io.github.portlek.rgb;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import lombok.Getter;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * a class that represents animated gradients.
+ * <p>
+ * the frames are computed lazily, the first time they are requested, and kept as one packed rgb per character. a frame
+ * renders its legacy text, bukkit text and chat component once and caches them, so animating a title every tick is a
+ * lookup after the first cycle.
+ */
+public final class AnimatedGradient {
+
+  /**
+   * the frame cache.
+   */
+  @NotNull
+  private final AtomicReferenceArray<Frame> cache;
+
+  /**
+   * the code points of the text.
+   */
+  @NotNull
+  private final int[] codePoints;
+
+  /**
+   * the frame count.
+   */
+  @Getter
+  private final int frames;
+
+  /**
+   * the mode.
+   */
+  @NotNull
+  @Getter
+  private final Mode mode;
+
+  /**
+   * the color stops as packed rgb.
+   */
+  @NotNull
+  private final int[] stops;
+
+  /**
+   * the style of the characters, its color is ignored.
+   */
+  @NotNull
+  @Getter
+  private final Style style;
+
+  /**
+   * the text.
+   */
+  @NotNull
+  @Getter
+  private final String text;
+
+  /**
+   * ctor.
+   *
+   * @param text the text.
+   * @param mode the mode.
+   * @param frames the frames.
+   * @param stops the stops.
+   * @param style the style.
+   */
+  private AnimatedGradient(@NotNull final String text, @NotNull final Mode mode, final int frames,
+                           @NotNull final int[] stops, @NotNull final Style style) {
+    this.cache = new AtomicReferenceArray<>(frames);
+    this.codePoints = text.codePoints().toArray();
+    this.frames = frames;
+    this.mode = mode;
+    this.stops = stops;
+    this.style = style.withColor(null);
+    this.text = text;
+  }
+
+  /**
+   * creates an animated gradient.
+   *
+   * @param text the text to create.
+   * @param mode the mode to create.
+   * @param frames the frame count to create.
+   * @param stops the color stops to create.
+   *
+   * @return a newly created animated gradient.
+   *
+   * @throws IllegalArgumentException if the frame count is not positive or there is no color stop.
+   */
+  @NotNull
+  public static AnimatedGradient of(@NotNull final String text, @NotNull final Mode mode, final int frames,
+                                    @NotNull final TextColor... stops) {
+    if (frames < 1) {
+      throw new IllegalArgumentException("The frame count must be positive, got " + frames);
+    }
+    if (stops.length == 0) {
+      throw new IllegalArgumentException("An animated gradient needs at least one color stop");
+    }
+    final var rgb = new int[stops.length];
+    for (var index = 0; index < stops.length; index++) {
+      rgb[index] = stops[index].rgb();
+    }
+    return new AnimatedGradient(text, mode, frames, rgb, Style.EMPTY);
+  }
+
+  /**
+   * appends the color in bukkit format.
+   *
+   * @param builder the builder to append.
+   * @param rgb the rgb to append.
+   */
+  private static void appendBukkit(@NotNull final StringBuilder builder, final int rgb) {
+    final var hexCode = TextColor.ofRgb(rgb).getHexCode();
+    builder.append('\u00a7').append('x');
+    for (var index = 1; index < hexCode.length(); index++) {
+      builder.append('\u00a7').append(hexCode.charAt(index));
+    }
+  }
+
+  /**
+   * interpolates the channel.
+   *
+   * @param from the from to interpolate.
+   * @param to the to to interpolate.
+   * @param shift the shift of the channel.
+   * @param ratio the ratio to interpolate.
+   *
+   * @return interpolated channel at its position.
+   */
+  private static int channel(final int from, final int to, final int shift, final float ratio) {
+    final var start = from >> shift & 0xFF;
+    final var end = to >> shift & 0xFF;
+    return (int) (start + (end - start) * ratio) << shift;
+  }
+
+  /**
+   * samples the palette.
+   *
+   * @param palette the palette to sample.
+   * @param position the position to sample, between {@code 0} and {@code 1}.
+   *
+   * @return packed rgb.
+   */
+  private static int sample(@NotNull final int[] palette, final float position) {
+    if (palette.length == 1) {
+      return palette[0];
+    }
+    final var scaled = position * (palette.length - 1);
+    final var index = Math.min((int) scaled, palette.length - 2);
+    final var ratio = scaled - index;
+    final var from = palette[index];
+    final var to = palette[index + 1];
+    return AnimatedGradient.channel(from, to, 16, ratio) |
+      AnimatedGradient.channel(from, to, 8, ratio) |
+      AnimatedGradient.channel(from, to, 0, ratio);
+  }
+
+  /**
+   * folds the position so it goes from {@code 0} to {@code 1} and back.
+   *
+   * @param position the position to fold, between {@code 0} and {@code 1}.
+   *
+   * @return folded position.
+   */
+  private static float triangle(final float position) {
+    return 1.0f - Math.abs(2.0f * position - 1.0f);
+  }
+
+  /**
+   * obtains the frame of the tick.
+   *
+   * @param tick the tick to obtain, any value is wrapped into the frame count.
+   *
+   * @return frame.
+   */
+  @NotNull
+  public Frame frame(final int tick) {
+    final var index = Math.floorMod(tick, this.frames);
+    final var frame = this.cache.get(index);
+    if (frame != null) {
+      return frame;
+    }
+    this.cache.compareAndSet(index, null, new Frame(this, this.colors(index)));
+    return this.cache.get(index);
+  }
+
+  /**
+   * obtains the color stops.
+   *
+   * @return color stops.
+   */
+  @NotNull
+  public TextColor[] getStops() {
+    final var stops = new TextColor[this.stops.length];
+    for (var index = 0; index < stops.length; index++) {
+      stops[index] = TextColor.ofRgb(this.stops[index]);
+    }
+    return stops;
+  }
+
+  /**
+   * creates a copy of the animated gradient with the style.
+   *
+   * @param style the style to create, its color is ignored.
+   *
+   * @return a new animated gradient with an empty frame cache.
+   */
+  @NotNull
+  public AnimatedGradient withStyle(@NotNull final Style style) {
+    return new AnimatedGradient(this.text, this.mode, this.frames, this.stops, style);
+  }
+
+  /**
+   * computes the colors of the frame.
+   *
+   * @param frame the frame to compute.
+   *
+   * @return packed rgb of each character.
+   */
+  @NotNull
+  private int[] colors(final int frame) {
+    final var length = this.codePoints.length;
+    final var colors = new int[length];
+    final var time = (float) frame / this.frames;
+    if (this.mode == Mode.PULSE) {
+      final var rgb = AnimatedGradient.sample(this.stops, AnimatedGradient.triangle(time));
+      Arrays.fill(colors, rgb);
+      return colors;
+    }
+    final int[] palette;
+    if (this.mode == Mode.SHIFT) {
+      palette = Arrays.copyOf(this.stops, this.stops.length + 1);
+      palette[this.stops.length] = this.stops[0];
+    } else {
+      palette = this.stops;
+    }
+    for (var index = 0; index < length; index++) {
+      var position = (float) index / length - time;
+      position -= (float) Math.floor(position);
+      if (this.mode == Mode.WAVE) {
+        position = AnimatedGradient.triangle(position);
+      }
+      colors[index] = AnimatedGradient.sample(palette, position);
+    }
+    return colors;
+  }
+
+  /**
+   * an enum that contains animation modes.
+   */
+  public enum Mode {
+    /**
+     * every character has the same color, which goes from the first stop to the last one and back.
+     */
+    PULSE,
+    /**
+     * the gradient scrolls along the text and wraps around from the last stop to the first one.
+     */
+    SHIFT,
+    /**
+     * the gradient goes from the first stop to the last one and back along the text and scrolls.
+     */
+    WAVE
+  }
+
+  /**
+   * a class that represents frames of animated gradients.
+   */
+  public static final class Frame {
+
+    /**
+     * the packed rgb of each character.
+     */
+    @NotNull
+    private final int[] colors;
+
+    /**
+     * the gradient.
+     */
+    @NotNull
+    private final AnimatedGradient gradient;
+
+    /**
+     * the bukkit text, cached once it is rendered.
+     */
+    @Nullable
+    private volatile String bukkitText;
+
+    /**
+     * the component, cached once it is rendered.
+     */
+    @Nullable
+    private volatile ChatComponent component;
+
+    /**
+     * the legacy text, cached once it is rendered.
+     */
+    @Nullable
+    private volatile String legacyText;
+
+    /**
+     * ctor.
+     *
+     * @param gradient the gradient.
+     * @param colors the colors.
+     */
+    private Frame(@NotNull final AnimatedGradient gradient, @NotNull final int[] colors) {
+      this.colors = colors;
+      this.gradient = gradient;
+    }
+
+    /**
+     * obtains the color of the character.
+     *
+     * @param index the index of the character to obtain, in code points.
+     *
+     * @return color.
+     */
+    @NotNull
+    public TextColor getColor(final int index) {
+      return TextColor.ofRgb(this.colors[index]);
+    }
+
+    /**
+     * renders the frame with hex codes in bukkit format.
+     *
+     * @return bukkit text.
+     */
+    @NotNull
+    public String toBukkitText() {
+      var bukkitText = this.bukkitText;
+      if (bukkitText == null) {
+        final var codePoints = this.gradient.codePoints;
+        final var decorations = Style.legacyCodes(this.gradient.style.legacyKey());
+        final var builder = new StringBuilder(codePoints.length * (16 + decorations.length()));
+        for (var index = 0; index < codePoints.length; index++) {
+          if (index == 0 || this.colors[index] != this.colors[index - 1]) {
+            AnimatedGradient.appendBukkit(builder, this.colors[index]);
+            builder.append(decorations);
+          }
+          builder.appendCodePoint(codePoints[index]);
+        }
+        bukkitText = builder.toString();
+        this.bukkitText = bukkitText;
+      }
+      return bukkitText;
+    }
+
+    /**
+     * renders the frame as a frozen chat component.
+     *
+     * @return chat component, each run of the same color is an extra of it.
+     */
+    @NotNull
+    public ChatComponent toComponent() {
+      var component = this.component;
+      if (component == null) {
+        final var codePoints = this.gradient.codePoints;
+        final var extra = new ArrayList<ChatComponent>();
+        var start = 0;
+        for (var index = 1; index <= codePoints.length; index++) {
+          if (index == codePoints.length || this.colors[index] != this.colors[start]) {
+            extra.add(new ChatComponent(new String(codePoints, start, index - start))
+              .withStyle(this.gradient.style.withColor(TextColor.ofRgb(this.colors[start]))));
+            start = index;
+          }
+        }
+        component = new ChatComponent("").withExtra(extra.isEmpty() ? null : extra).freeze();
+        this.component = component;
+      }
+      return component;
+    }
+
+    /**
+     * renders the frame with the closest legacy colors.
+     *
+     * @return legacy text.
+     */
+    @NotNull
+    public String toLegacyText() {
+      var legacyText = this.legacyText;
+      if (legacyText == null) {
+        final var codePoints = this.gradient.codePoints;
+        final var builder = new StringBuilder(codePoints.length * 3);
+        var previousKey = -1;
+        for (var index = 0; index < codePoints.length; index++) {
+          final var key = this.gradient.style.withColor(TextColor.ofRgb(this.colors[index])).legacyKey();
+          if (key != previousKey) {
+            builder.append(Style.legacyCodes(key));
+            previousKey = key;
+          }
+          builder.appendCodePoint(codePoints[index]);
+        }
+        legacyText = builder.toString();
+        this.legacyText = legacyText;
+      }
+      return legacyText;
+    }
+  }
+}
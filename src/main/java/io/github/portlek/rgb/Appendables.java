@@ -0,0 +1,67 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Hasan Demirtaş
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package io.github.portlek.rgb;
+
+import java.io.IOException;
+import java.util.function.Consumer;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * a class that contains utility methods to write into appendables.
+ */
+final class Appendables {
+
+  /**
+   * ctor.
+   */
+  private Appendables() {
+  }
+
+  /**
+   * writes into the appendable.
+   * <p>
+   * a {@link StringBuilder} is written directly, any other appendable receives the output in a single append call.
+   *
+   * @param appendable the appendable to write.
+   * @param writer the writer to write.
+   *
+   * @return written char count.
+   *
+   * @throws IOException if the appendable fails.
+   */
+  static int write(@NotNull final Appendable appendable, @NotNull final Consumer<StringBuilder> writer)
+    throws IOException {
+    if (appendable instanceof StringBuilder) {
+      final var builder = (StringBuilder) appendable;
+      final var start = builder.length();
+      writer.accept(builder);
+      return builder.length() - start;
+    }
+    final var builder = new StringBuilder();
+    writer.accept(builder);
+    appendable.append(builder);
+    return builder.length();
+  }
+}
@@ -0,0 +1,98 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Hasan Demirtaş
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package io.github.portlek.rgb;
+
+import java.util.List;
+import lombok.Getter;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * a class that represents the result of {@link ColorManager#convertAll(List, ConversionTarget)}.
+ *
+ * @param <T> type of the converted values.
+ */
+@Getter
+public final class BatchResult<T> {
+
+  /**
+   * the distinct text count.
+   */
+  private final int distinct;
+
+  /**
+   * the elapsed time in nanoseconds.
+   */
+  private final long elapsedNanos;
+
+  /**
+   * the converted values in the order of the texts.
+   */
+  @NotNull
+  private final List<T> results;
+
+  /**
+   * the task count, {@code 1} if the batch has been converted on the calling thread.
+   */
+  private final int tasks;
+
+  /**
+   * ctor.
+   *
+   * @param results the results.
+   * @param distinct the distinct.
+   * @param tasks the tasks.
+   * @param elapsedNanos the elapsed nanos.
+   */
+  BatchResult(@NotNull final List<T> results, final int distinct, final int tasks, final long elapsedNanos) {
+    this.distinct = distinct;
+    this.elapsedNanos = elapsedNanos;
+    this.results = results;
+    this.tasks = tasks;
+  }
+
+  /**
+   * obtains the texts that have been converted once and shared with their duplicates.
+   *
+   * @return duplicate text count.
+   */
+  public int getDuplicates() {
+    return this.results.size() - this.distinct;
+  }
+
+  /**
+   * obtains the text count.
+   *
+   * @return text count.
+   */
+  public int getSize() {
+    return this.results.size();
+  }
+
+  @Override
+  public String toString() {
+    return "BatchResult{size=" + this.results.size() + ", distinct=" + this.distinct + ", tasks=" + this.tasks +
+      ", elapsedNanos=" + this.elapsedNanos + "}";
+  }
+}
@@ -25,29 +25,38 @@
 
 package io.github.portlek.rgb;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
-import java.util.logging.Level;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
 import lombok.Getter;
 import lombok.extern.java.Log;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
-import org.json.simple.JSONObject;
-import org.json.simple.parser.JSONParser;
-import org.json.simple.parser.ParseException;
 
 /**
  * a class that represents char components.
  */
 @Log
-@SuppressWarnings("unchecked")
 public final class ChatComponent {
 
+  /**
+   * the char count of a document chunk that is parsed on its own.
+   */
+  private static final int DOCUMENT_CHUNK = 8192;
+
   /**
    * the empty text.
    */
@@ -58,12 +67,6 @@ public final class ChatComponent {
    */
   private static final String EMPTY_TRANSLATABLE = "{\"translate\":\"\"}";
 
-  /**
-   * the bold.
-   */
-  @Nullable
-  private Boolean bold;
-
   /**
    * the click action.
    */
@@ -78,13 +81,6 @@ public final class ChatComponent {
   @Getter
   private String clickValue;
 
-  /**
-   * the color.
-   */
-  @Nullable
-  @Getter
-  private TextColor color;
-
   /**
    * the extra.
    */
@@ -105,35 +101,57 @@ public final class ChatComponent {
   private Object hoverValue;
 
   /**
-   * the italic.
+   * the style.
+   */
+  @NotNull
+  private Style style = Style.EMPTY;
+
+  /**
+   * the text.
    */
   @Nullable
-  private Boolean italic;
+  @Getter
+  private String text;
 
   /**
-   * the obfucated.
+   * the flat text, cached once the component is frozen.
    */
   @Nullable
-  private Boolean obfuscated;
+  private String flatText;
 
   /**
-   * the strikethrough.
+   * the frozen.
+   */
+  private boolean frozen;
+
+  /**
+   * the hash code, cached once the component is frozen.
+   */
+  private int hash;
+
+  /**
+   * the json, cached once the component is frozen.
    */
   @Nullable
-  private Boolean strikethrough;
+  private String json;
 
   /**
-   * the text.
+   * the json with legacy colors, cached once the component is frozen.
    */
   @Nullable
-  @Getter
-  private String text;
+  private String legacyJson;
+
+  /**
+   * the legacy text, cached once the component is frozen.
+   */
+  @Nullable
+  private String legacyText;
 
   /**
-   * the underlined.
+   * the raw text, cached once the component is frozen.
    */
   @Nullable
-  private Boolean underlined;
+  private String rawText;
 
   /**
    * ctor.
@@ -159,86 +177,140 @@ public final class ChatComponent {
    */
   @NotNull
   public static ChatComponent fromColoredText(@NotNull final String originalText) {
-    final var text = ColorManager.getDefault().applyFormats(Legacy.color(originalText), false);
-    final var components = new ArrayList<ChatComponent>();
-    var builder = new StringBuilder();
-    var component = new ChatComponent();
-    for (var i = 0; i < text.length(); i++) {
-      var c = text.charAt(i);
-      if (c == '\u00a7') {
-        i++;
-        if (i >= text.length()) {
-          break;
-        }
-        c = text.charAt(i);
-        if (c >= 'A' && c <= 'Z') {
-          c = (char) (c + ' ');
-        }
-        final var format = ChatFormat.getByCharOrNull(c);
-        if (format != null) {
-          if (builder.length() > 0) {
-            component.withText(builder.toString());
-            components.add(component);
-            component = component.copyFormatting();
-            builder = new StringBuilder();
-          }
-          switch (format) {
-            case BOLD:
-              component.withBold(true);
-              break;
-            case ITALIC:
-              component.withItalic(true);
-              break;
-            case UNDERLINE:
-              component.withUnderlined(true);
-              break;
-            case STRIKETHROUGH:
-              component.withStrikethrough(true);
-              break;
-            case OBFUSCATED:
-              component.withObfuscated(true);
-              break;
-            case RESET:
-              component = new ChatComponent();
-              component.withColor(TextColor.of(ChatFormat.WHITE));
-              break;
-            default:
-              component = new ChatComponent();
-              component.withColor(TextColor.of(format));
-              break;
-          }
+    return ChatComponent.fromColoredText(originalText, ColorManager.getDefault());
+  }
+
+  /**
+   * creates a chat component from colored text.
+   *
+   * @param originalText the original text to create.
+   * @param manager the manager to create.
+   *
+   * @return a newly created chat component from colored text.
+   */
+  @NotNull
+  public static ChatComponent fromColoredText(@NotNull final String originalText,
+                                              @NotNull final ColorManager manager) {
+    return new ChatComponent("").withExtra(manager.parseColored(originalText));
+  }
+
+  /**
+   * creates a chat component from a large colored document.
+   *
+   * @param originalText the original text to create.
+   * @param manager the manager to create.
+   *
+   * @return a newly created chat component from colored text, equal to
+   *   {@link #fromColoredText(String, ColorManager)}.
+   *
+   * @see #fromColoredDocument(String, ColorManager, ForkJoinPool)
+   */
+  @NotNull
+  public static ChatComponent fromColoredDocument(@NotNull final String originalText,
+                                                  @NotNull final ColorManager manager) {
+    return ChatComponent.fromColoredDocument(originalText, manager, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * creates a chat component from a large colored document.
+   * <p>
+   * the document is split into chunks at the line breaks and every chunk is colorized, formatted and parsed in a single
+   * pass on the pool. a gradient may span many lines though, so if a chunk does not stand on its own, such as when a
+   * gradient is still open at its end, or the stages of the manager can not be fused, the formats are applied to the
+   * whole document at once first and only the parsing of the formatted chunks is spread across the pool.
+   * <p>
+   * the style that is active at the end of a chunk is carried into the components of the next one until its first
+   * color, and the texts that a split has cut in two are joined again, so the components are the same as the ones that
+   * are parsed sequentially.
+   *
+   * @param originalText the original text to create.
+   * @param manager the manager to create.
+   * @param pool the pool to parse the chunks across.
+   *
+   * @return a newly created chat component from colored text, equal to
+   *   {@link #fromColoredText(String, ColorManager)}.
+   */
+  @NotNull
+  public static ChatComponent fromColoredDocument(@NotNull final String originalText,
+                                                  @NotNull final ColorManager manager,
+                                                  @NotNull final ForkJoinPool pool) {
+    if (originalText.length() < ChatComponent.DOCUMENT_CHUNK * 2 || pool.getParallelism() < 2) {
+      return ChatComponent.fromColoredText(originalText, manager);
+    }
+    final var lexer = manager.coloredLexer();
+    if (lexer != null) {
+      final var splits = ChatComponent.splitDocument(originalText);
+      if (splits.length > 2) {
+        final var starts = new ChatComponent[splits.length - 1];
+        @SuppressWarnings("unchecked") final var chunks = (List<ChatComponent>[]) new List<?>[splits.length - 1];
+        pool.invoke(new ParseTask(originalText, lexer, splits, starts, chunks, 0, chunks.length));
+        if (Arrays.stream(chunks).allMatch(Objects::nonNull)) {
+          return ChatComponent.joinDocument(starts, chunks);
         }
-      } else if (c == '#') {
-        try {
-          final var hex = text.substring(i, i + 7);
-          Integer.parseInt(hex.substring(1), 16);
-          final TextColor color;
-          if (ColorManager.containsLegacyCode(text, i)) {
-            color = TextColor.of(hex, ChatFormat.getByCharOrNull(text.charAt(i + 8)));
-            i += 8;
-          } else {
-            color = TextColor.of(hex);
-            i += 6;
-          }
-          if (builder.length() > 0) {
-            component.withText(builder.toString());
-            components.add(component);
-            builder = new StringBuilder();
-          }
-          component = new ChatComponent();
-          component.withColor(color);
-        } catch (final Exception e) {
-          builder.append(c);
+      }
+    }
+    final var text = lexer == null
+      ? manager.applyFormats(Legacy.color(originalText), false)
+      : lexer.apply(Legacy.color(originalText), false);
+    final var splits = ChatComponent.splitDocument(text);
+    if (splits.length == 2) {
+      final var components = new ArrayList<ChatComponent>();
+      ChatComponent.parse(text, new ChatComponent(), components);
+      return new ChatComponent("").withExtra(components);
+    }
+    final var starts = new ChatComponent[splits.length - 1];
+    @SuppressWarnings("unchecked") final var chunks = (List<ChatComponent>[]) new List<?>[splits.length - 1];
+    pool.invoke(new ParseTask(text, null, splits, starts, chunks, 0, chunks.length));
+    return ChatComponent.joinDocument(starts, chunks);
+  }
+
+  /**
+   * joins the components of the chunks of a document.
+   *
+   * @param starts the components that the chunks have started with.
+   * @param chunks the chunks to join.
+   *
+   * @return a newly created chat component from the chunks.
+   */
+  @NotNull
+  private static ChatComponent joinDocument(@NotNull final ChatComponent[] starts,
+                                            @NotNull final List<ChatComponent>[] chunks) {
+    final var components = new ArrayList<ChatComponent>(chunks[0]);
+    for (var index = 1; index < chunks.length; index++) {
+      final var previous = components.get(components.size() - 1);
+      final var chunk = chunks[index];
+      final var start = starts[index];
+      final var continued = chunk.get(0) == start && start.style.isEmpty();
+      for (final var component : chunk) {
+        if (component.style.getColor() != null) {
+          break;
         }
+        component.style = component.style.inherit(previous.style);
+      }
+      if (continued) {
+        previous.text = previous.text + start.text;
+        components.addAll(chunk.subList(1, chunk.size()));
       } else {
-        builder.append(c);
+        components.addAll(chunk);
       }
     }
-    component.withText(builder.toString());
-    components.add(component);
     return new ChatComponent("").withExtra(components);
   }
 
+  /**
+   * creates a chat component from colored text without turning the text into a string first.
+   *
+   * @param originalText the original text to create.
+   * @param manager the manager to create.
+   *
+   * @return a newly created chat component from colored text.
+   */
+  @NotNull
+  static ChatComponent fromColoredSequence(@NotNull final CharSequence originalText,
+                                           @NotNull final ColorManager manager) {
+    return new ChatComponent("").withExtra(manager.parseColored(originalText));
+  }
+
   /**
    * parses the json and converts it into chat component.
    *
@@ -248,49 +320,13 @@ public final class ChatComponent {
    */
   @NotNull
   public static ChatComponent fromString(@NotNull final String json) {
-    try {
-      if (json.startsWith("\"") && json.endsWith("\"") && json.length() > 1) {
-        return new ChatComponent(json.substring(1, json.length() - 1));
-      }
-      final var jsonObject = (JSONObject) new JSONParser().parse(json);
-      final var component = new ChatComponent()
-        .withText((String) jsonObject.get("text"))
-        .withBold(ChatComponent.getBoolean(jsonObject, "bold"))
-        .withItalic(ChatComponent.getBoolean(jsonObject, "italic"))
-        .withUnderlined(ChatComponent.getBoolean(jsonObject, "underlined"))
-        .withStrikethrough(ChatComponent.getBoolean(jsonObject, "strikethrough"))
-        .withObfuscated(ChatComponent.getBoolean(jsonObject, "obfuscated"))
-        .withColor(TextColor.getByText((String) jsonObject.get("color")));
-      if (jsonObject.containsKey("clickEvent")) {
-        final var clickEvent = (JSONObject) jsonObject.get("clickEvent");
-        final var action = (String) clickEvent.get("action");
-        final var value = clickEvent.get("value").toString();
-        component.withClick(ClickAction.valueOf(action.toUpperCase(Locale.ROOT)), value);
-      }
-      if (jsonObject.containsKey("hoverEvent")) {
-        final var hoverEvent = (JSONObject) jsonObject.get("hoverEvent");
-        final var action = (String) hoverEvent.get("action");
-        final var value = (String) hoverEvent.get("value");
-        component.withHover(HoverAction.valueOf(action.toUpperCase(Locale.ROOT)), value);
-      }
-      if (jsonObject.containsKey("extra")) {
-        final var list = (List<Object>) jsonObject.get("extra");
-        for (final var extra : list) {
-          var string = extra.toString();
-          if (!string.startsWith("{")) {
-            string = "\"" + string + "\"";
-          }
-          component.addExtra(ChatComponent.fromString(string));
-        }
-      }
-      return component;
-    } catch (final ParseException e) {
-      ChatComponent.log.warning("Failed to parse json object: " + json);
-      return ChatComponent.fromColoredText(json);
-    } catch (final Exception e) {
-      ChatComponent.log.log(Level.SEVERE, "Failed to read component: " + json, e);
+    final var reader = new JsonReader(json);
+    final var component = ChatComponent.read(reader);
+    if (component == null || !reader.finish()) {
+      ChatComponent.log.warning("Failed to parse json object: " + json + " (" + reader.getError() + ")");
       return ChatComponent.fromColoredText(json);
     }
+    return component;
   }
 
   /**
@@ -309,19 +345,277 @@ public final class ChatComponent {
   }
 
   /**
-   * gets boolean value from json.
+   * parses the formatted text into the components.
+   *
+   * @param text the text to parse.
+   * @param style the style to start with, it is also the component that takes the first characters.
+   * @param components the components to add.
+   *
+   * @return the last component which has been added.
+   */
+  @NotNull
+  static ChatComponent parse(@NotNull final CharSequence text, @NotNull final ChatComponent style,
+                             @NotNull final List<ChatComponent> components) {
+    final var parser = new ComponentParser(style, components);
+    parser.push(text, 0, text.length());
+    return parser.finish();
+  }
+
+  /**
+   * splits the formatted document into chunks right after the line breaks.
+   * <p>
+   * a line break is a split only if it is not the code char of a {@code \u00a7}, which is the case when an even count
+   * of {@code \u00a7}s comes before it.
+   *
+   * @param text the text to split.
+   *
+   * @return the starts of the chunks and the length of the text.
+   */
+  @NotNull
+  private static int[] splitDocument(@NotNull final String text) {
+    final var splits = new ArrayList<Integer>();
+    splits.add(0);
+    var index = ChatComponent.DOCUMENT_CHUNK;
+    while (index < text.length()) {
+      final var lineBreak = text.indexOf('\n', index);
+      if (lineBreak == -1 || lineBreak + 1 >= text.length()) {
+        break;
+      }
+      var codes = 0;
+      for (var code = lineBreak - 1; code >= 0 && text.charAt(code) == '\u00a7'; code--) {
+        codes++;
+      }
+      if ((codes & 1) == 0) {
+        splits.add(lineBreak + 1);
+        index = lineBreak + 1 + ChatComponent.DOCUMENT_CHUNK;
+      } else {
+        index = lineBreak + 1;
+      }
+    }
+    splits.add(text.length());
+    final var array = new int[splits.size()];
+    for (var position = 0; position < array.length; position++) {
+      array[position] = splits.get(position);
+    }
+    return array;
+  }
+
+  /**
+   * adds the component to the extras, merging it into the last one when both have the same style.
+   *
+   * @param extra the extra to add.
+   * @param component the component to add.
+   */
+  private static void addMerged(@NotNull final List<ChatComponent> extra, @NotNull final ChatComponent component) {
+    if (!extra.isEmpty()) {
+      final var last = extra.get(extra.size() - 1);
+      if (last.canMerge(component)) {
+        final var merged = last.copy();
+        merged.text = last.text + component.text;
+        extra.set(extra.size() - 1, merged);
+        return;
+      }
+    }
+    extra.add(component);
+  }
+
+  /**
+   * reads a component.
+   *
+   * @param reader the reader to read.
+   *
+   * @return component or null if the input is malformed.
+   */
+  @Nullable
+  private static ChatComponent read(@NotNull final JsonReader reader) {
+    switch (reader.peek()) {
+      case BEGIN_OBJECT:
+        return ChatComponent.readObject(reader);
+      case BEGIN_ARRAY:
+        final var component = new ChatComponent("");
+        reader.beginArray();
+        while (reader.hasNext()) {
+          final var extra = ChatComponent.read(reader);
+          if (extra == null) {
+            return null;
+          }
+          component.addExtra(extra);
+        }
+        reader.endArray();
+        return component;
+      case STRING:
+      case NUMBER:
+      case BOOLEAN:
+        return new ChatComponent(reader.nextScalar());
+      default:
+        reader.fail("Expected a component");
+        return null;
+    }
+  }
+
+  /**
+   * reads the click event into the component.
+   *
+   * @param reader the reader to read.
+   * @param component the component to read.
+   */
+  private static void readClick(@NotNull final JsonReader reader, @NotNull final ChatComponent component) {
+    ClickAction action = null;
+    String value = null;
+    reader.beginObject();
+    while (reader.hasNext()) {
+      final var name = reader.nextName();
+      if ("action".equals(name)) {
+        action = ClickAction.getByName(reader.nextScalar());
+      } else if ("value".equals(name)) {
+        value = reader.nextScalar();
+      } else {
+        reader.skipValue();
+      }
+    }
+    reader.endObject();
+    if (action != null) {
+      component.withClick(action, value);
+    }
+  }
+
+  /**
+   * reads the hover event into the component.
+   *
+   * @param reader the reader to read.
+   * @param component the component to read.
+   */
+  private static void readHover(@NotNull final JsonReader reader, @NotNull final ChatComponent component) {
+    HoverAction action = null;
+    Object value = null;
+    reader.beginObject();
+    while (reader.hasNext()) {
+      final var name = reader.nextName();
+      if ("action".equals(name)) {
+        action = HoverAction.getByName(reader.nextScalar());
+      } else if ("value".equals(name) || "contents".equals(name)) {
+        final var token = reader.peek();
+        if (token == JsonReader.Token.STRING || token == JsonReader.Token.NULL) {
+          value = reader.nextScalar();
+        } else if (action == HoverAction.SHOW_TEXT) {
+          value = ChatComponent.read(reader);
+        } else {
+          value = reader.nextValue();
+        }
+      } else {
+        reader.skipValue();
+      }
+    }
+    reader.endObject();
+    if (action != null) {
+      if (action == HoverAction.SHOW_TEXT && (value instanceof Map<?, ?> || value instanceof List<?>)) {
+        value = ChatComponent.read(new JsonReader(JsonWriter.toJson(value)));
+      }
+      component.withHover(action, value);
+    }
+  }
+
+  /**
+   * reads an object component.
    *
-   * @param jsonObject the json object to get.
-   * @param key the key to get.
+   * @param reader the reader to read.
    *
-   * @return boolean value at key or null.
+   * @return component or null if the input is malformed.
    */
   @Nullable
-  private static Boolean getBoolean(@NotNull final JSONObject jsonObject, @NotNull final String key) {
-    if (jsonObject.containsKey(key)) {
-      return Boolean.parseBoolean(String.valueOf(jsonObject.get(key)));
+  private static ChatComponent readObject(@NotNull final JsonReader reader) {
+    final var component = new ChatComponent();
+    reader.beginObject();
+    while (reader.hasNext()) {
+      final var name = reader.nextName();
+      if (name == null) {
+        return null;
+      }
+      switch (name) {
+        case "text":
+          component.withText(reader.nextScalar());
+          break;
+        case "color":
+          component.withColor(TextColor.getByTextOrNull(reader.nextScalar()));
+          break;
+        case "bold":
+          component.withBold(reader.nextBoolean());
+          break;
+        case "italic":
+          component.withItalic(reader.nextBoolean());
+          break;
+        case "underlined":
+          component.withUnderlined(reader.nextBoolean());
+          break;
+        case "strikethrough":
+          component.withStrikethrough(reader.nextBoolean());
+          break;
+        case "obfuscated":
+          component.withObfuscated(reader.nextBoolean());
+          break;
+        case "clickEvent":
+          ChatComponent.readClick(reader, component);
+          break;
+        case "hoverEvent":
+          ChatComponent.readHover(reader, component);
+          break;
+        case "extra":
+          if (reader.beginArray()) {
+            while (reader.hasNext()) {
+              final var extra = ChatComponent.read(reader);
+              if (extra == null) {
+                return null;
+              }
+              component.addExtra(extra);
+            }
+            reader.endArray();
+          }
+          break;
+        default:
+          reader.skipValue();
+          break;
+      }
+    }
+    reader.endObject();
+    if (reader.isFailed()) {
+      return null;
+    }
+    return component;
+  }
+
+  /**
+   * moves the bytes of the buffer towards its start.
+   *
+   * @param buffer the buffer to move.
+   * @param from the from to move.
+   * @param to the to to move, it must be less than from.
+   * @param length the length to move.
+   */
+  private static void move(@NotNull final ByteBuffer buffer, final int from, final int to, final int length) {
+    if (buffer.hasArray()) {
+      final var offset = buffer.arrayOffset();
+      System.arraycopy(buffer.array(), offset + from, buffer.array(), offset + to, length);
+      return;
+    }
+    for (var index = 0; index < length; index++) {
+      buffer.put(to + index, buffer.get(from + index));
+    }
+  }
+
+  /**
+   * writes the decoration if it is set.
+   *
+   * @param writer the writer to write.
+   * @param name the name to write.
+   * @param value the value to write.
+   *
+   * @throws IOException if the appendable fails.
+   */
+  private static void writeDecoration(@NotNull final JsonWriter writer, @NotNull final String name,
+                                      @Nullable final Boolean value) throws IOException {
+    if (value != null) {
+      writer.name(name).value(value.booleanValue());
     }
-    return null;
   }
 
   /**
@@ -333,75 +627,296 @@ public final class ChatComponent {
    */
   @NotNull
   public ChatComponent addExtra(@NotNull final ChatComponent extra) {
-    if (this.extra == null) {
-      this.extra = new ArrayList<>();
+    final var component = this.mutable();
+    if (component.extra == null) {
+      component.extra = new ArrayList<>();
     }
-    this.extra.add(extra);
-    return this;
+    component.extra.add(extra);
+    return component;
   }
 
   @Override
   @NotNull
   public ChatComponent clone() {
-    final var component = new ChatComponent(this.text)
-      .withBold(this.bold)
-      .withColor(this.color)
-      .withItalic(this.italic)
-      .withObfuscated(this.obfuscated)
-      .withStrikethrough(this.strikethrough)
-      .withUnderlined(this.underlined);
-    if (this.hoverAction != null) {
-      component.withHover(this.hoverAction, this.hoverValue);
-    }
-    if (this.clickAction != null) {
-      component.withClick(this.clickAction, this.clickValue);
+    final var component = this.copy();
+    if (component.extra != null) {
+      final var extra = component.extra;
+      for (var index = 0; index < extra.size(); index++) {
+        final var child = extra.get(index);
+        if (!child.frozen) {
+          extra.set(index, child.clone());
+        }
+      }
     }
-    this.getExtra().stream()
-      .map(ChatComponent::clone)
-      .forEach(component::addExtra);
     return component;
   }
 
   @Override
-  public String toString() {
-    final var json = new JSONObject();
-    if (this.text != null) {
-      json.put("text", this.text);
+  public boolean equals(final Object obj) {
+    if (this == obj) {
+      return true;
     }
-    if (this.color != null) {
-      json.put("color", this.color.toString());
+    if (!(obj instanceof ChatComponent)) {
+      return false;
     }
-    if (this.bold != null) {
-      json.put("bold", this.bold);
+    final var component = (ChatComponent) obj;
+    if (this.frozen && component.frozen && this.hashCode() != component.hashCode()) {
+      return false;
     }
-    if (this.italic != null) {
-      json.put("italic", this.italic);
+    return Objects.equals(this.text, component.text) &&
+      this.style.equals(component.style) &&
+      this.clickAction == component.clickAction &&
+      Objects.equals(this.clickValue, component.clickValue) &&
+      this.hoverAction == component.hoverAction &&
+      Objects.equals(this.hoverValue, component.hoverValue) &&
+      this.getExtra().equals(component.getExtra());
+  }
+
+  @Override
+  public int hashCode() {
+    if (this.frozen && this.hash != 0) {
+      return this.hash;
     }
-    if (this.underlined != null) {
-      json.put("underlined", this.underlined);
+    var result = Objects.hash(this.text, this.style, this.clickAction, this.clickValue, this.hoverAction,
+      this.hoverValue);
+    result = 31 * result + this.getExtra().hashCode();
+    if (this.frozen) {
+      this.hash = result;
     }
-    if (this.strikethrough != null) {
-      json.put("strikethrough", this.strikethrough);
+    return result;
+  }
+
+  /**
+   * freezes the component, its extras and its hover component.
+   * <p>
+   * a frozen component can be shared across threads and as an extra of other components, it computes its json,
+   * legacy text, flat text and hash code once and caches them. the {@code with} methods of a frozen component do not
+   * change it, they return a copy that is not frozen and shares the frozen extras instead.
+   *
+   * @return {@code this} for builder chain.
+   */
+  @NotNull
+  public ChatComponent freeze() {
+    if (this.frozen) {
+      return this;
+    }
+    if (this.extra != null) {
+      final var extra = new ArrayList<ChatComponent>(this.extra.size());
+      for (final var component : this.extra) {
+        extra.add(component.freeze());
+      }
+      this.extra = Collections.unmodifiableList(extra);
     }
-    if (this.obfuscated != null) {
-      json.put("obfuscated", this.obfuscated);
+    if (this.hoverValue instanceof ChatComponent) {
+      ((ChatComponent) this.hoverValue).freeze();
     }
-    if (this.clickAction != null) {
-      final var click = new JSONObject();
-      click.put("action", this.clickAction.toString().toLowerCase(Locale.ROOT));
-      click.put("value", this.clickValue);
-      json.put("clickEvent", click);
+    this.frozen = true;
+    return this;
+  }
+
+  /**
+   * checks if the component is frozen.
+   *
+   * @return {@code true} if the component is frozen.
+   */
+  public boolean isFrozen() {
+    return this.frozen;
+  }
+
+  /**
+   * optimizes the component tree.
+   * <p>
+   * adjacent extras with the same style are merged, extras without text are removed, wrappers with a single extra
+   * are collapsed into it and style fields that are already inherited from the parents are dropped. the component
+   * itself is not changed.
+   *
+   * @return report that contains the optimized component.
+   */
+  @NotNull
+  public OptimizationReport optimize() {
+    final var optimized = this.optimize(null);
+    final var json = this.toString();
+    final var optimizedJson = optimized.toString();
+    return new OptimizationReport(optimized, this.countNodes(), optimized.countNodes(), Utf8.length(json),
+      Utf8.length(optimizedJson));
+  }
+
+  @Override
+  public String toString() {
+    if (this.json != null) {
+      return this.json;
+    }
+    final var builder = new StringBuilder();
+    try {
+      this.toJson(builder);
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    final var json = builder.toString();
+    if (this.frozen) {
+      this.json = json;
+    }
+    return json;
+  }
+
+  /**
+   * writes the component as json into the appendable in a single depth-first pass.
+   *
+   * @param appendable the appendable to write.
+   *
+   * @throws IOException if the appendable fails.
+   */
+  public void toJson(@NotNull final Appendable appendable) throws IOException {
+    this.write(new JsonWriter(appendable));
+  }
+
+  /**
+   * writes the component as json for the color depth into the appendable in a single depth-first pass.
+   *
+   * @param appendable the appendable to write.
+   * @param depth the depth to write.
+   *
+   * @throws IOException if the appendable fails.
+   */
+  public void toJson(@NotNull final Appendable appendable, @NotNull final ColorDepth depth) throws IOException {
+    this.write(new JsonWriter(appendable, depth));
+  }
+
+  /**
+   * writes the rgb and the legacy json of the component in a single depth-first pass.
+   * <p>
+   * useful to broadcast a component to clients with both color depths, the tree is walked once and only the colors
+   * differ between the outputs.
+   *
+   * @param rgb the appendable to write the rgb json.
+   * @param legacy the appendable to write the legacy json.
+   *
+   * @throws IOException if one of the appendables fails.
+   */
+  public void toJson(@NotNull final Appendable rgb, @NotNull final Appendable legacy) throws IOException {
+    this.write(JsonWriter.dual(rgb, legacy));
+  }
+
+  /**
+   * writes the component as utf-8 encoded json into the buffer, without creating the json string.
+   * <p>
+   * the bytes are the same as {@code toString().getBytes(StandardCharsets.UTF_8)}, the buffer may be a heap or a
+   * direct one. {@link #utf8Length(boolean)} gives the exact size to allocate. frozen components encode their cached
+   * json, so a frozen component can be encoded once and the buffer sliced for every recipient. the length prefixed
+   * json is written after room for the longest prefix and moved back, if the buffer is too small for that the json is
+   * measured first so a buffer of exactly {@code utf8Length(true)} bytes is enough.
+   *
+   * @param buffer the buffer to write.
+   * @param lengthPrefixed {@code true} to put the byte length of the json as a var int before it.
+   *
+   * @return written byte count, including the length prefix.
+   *
+   * @throws BufferOverflowException if the buffer does not have enough space, the position is not changed then.
+   */
+  public int toUtf8(@NotNull final ByteBuffer buffer, final boolean lengthPrefixed) {
+    final var start = buffer.position();
+    try {
+      if (this.frozen) {
+        final var json = this.toString();
+        if (lengthPrefixed) {
+          Utf8.writeVarInt(buffer, Utf8.length(json));
+        }
+        new Utf8(buffer).append(json).finish();
+        return buffer.position() - start;
+      }
+      if (!lengthPrefixed) {
+        return this.writeUtf8(buffer);
+      }
+      final int length;
+      if (buffer.remaining() >= Utf8.MAX_VAR_INT_SIZE) {
+        buffer.position(start + Utf8.MAX_VAR_INT_SIZE);
+        length = this.tryWriteUtf8(buffer);
+      } else {
+        length = -1;
+      }
+      if (length < 0) {
+        final var measured = this.utf8Length(false);
+        buffer.position(start);
+        if (buffer.remaining() < Utf8.varIntSize(measured) + measured) {
+          throw new BufferOverflowException();
+        }
+        Utf8.writeVarInt(buffer, measured);
+        this.writeUtf8(buffer);
+        return buffer.position() - start;
+      }
+      buffer.position(start);
+      Utf8.writeVarInt(buffer, length);
+      final var target = buffer.position();
+      if (target < start + Utf8.MAX_VAR_INT_SIZE) {
+        ChatComponent.move(buffer, start + Utf8.MAX_VAR_INT_SIZE, target, length);
+      }
+      buffer.position(target + length);
+      return buffer.position() - start;
+    } catch (final BufferOverflowException e) {
+      buffer.position(start);
+      throw e;
+    } catch (final IOException e) {
+      buffer.position(start);
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * writes the json as utf-8 into the buffer.
+   *
+   * @param buffer the buffer to write.
+   *
+   * @return written byte count.
+   *
+   * @throws IOException if the writer fails.
+   */
+  private int writeUtf8(@NotNull final ByteBuffer buffer) throws IOException {
+    final var utf8 = new Utf8(buffer);
+    this.write(new JsonWriter(utf8));
+    return utf8.finish();
+  }
+
+  /**
+   * writes the json as utf-8 into the buffer if it fits.
+   *
+   * @param buffer the buffer to write.
+   *
+   * @return written byte count, or {@code -1} if the buffer does not have enough space.
+   *
+   * @throws IOException if the writer fails.
+   */
+  private int tryWriteUtf8(@NotNull final ByteBuffer buffer) throws IOException {
+    try {
+      return this.writeUtf8(buffer);
+    } catch (final BufferOverflowException e) {
+      return -1;
     }
-    if (this.hoverAction != null) {
-      final var hover = new JSONObject();
-      hover.put("action", this.hoverAction.toString().toLowerCase(Locale.ROOT));
-      hover.put("value", this.hoverValue);
-      json.put("hoverEvent", hover);
+  }
+
+  /**
+   * calculates the byte count of {@link #toUtf8(ByteBuffer, boolean)}.
+   *
+   * @param lengthPrefixed {@code true} to include the var int length prefix.
+   *
+   * @return utf-8 byte count of the json.
+   */
+  public int utf8Length(final boolean lengthPrefixed) {
+    final int length;
+    if (this.frozen) {
+      length = Utf8.length(this.toString());
+    } else {
+      final var utf8 = new Utf8(null);
+      try {
+        this.write(new JsonWriter(utf8));
+      } catch (final IOException e) {
+        throw new UncheckedIOException(e);
+      }
+      length = utf8.finish();
     }
-    if (this.extra != null) {
-      json.put("extra", this.extra);
+    if (lengthPrefixed) {
+      return Utf8.varIntSize(length) + length;
     }
-    return json.toString();
+    return length;
   }
 
   /**
@@ -411,13 +926,9 @@ public final class ChatComponent {
    */
   @NotNull
   public ChatComponent copyFormatting() {
-    return new ChatComponent()
-      .withBold(this.bold)
-      .withColor(this.color)
-      .withItalic(this.italic)
-      .withObfuscated(this.obfuscated)
-      .withStrikethrough(this.strikethrough)
-      .withUnderlined(this.underlined);
+    final var component = new ChatComponent();
+    component.style = this.style;
+    return component;
   }
 
   /**
@@ -427,7 +938,17 @@ public final class ChatComponent {
    */
   @Nullable
   public Boolean getBold() {
-    return this.bold;
+    return this.style.getBold();
+  }
+
+  /**
+   * obtains the color.
+   *
+   * @return color or null.
+   */
+  @Nullable
+  public TextColor getColor() {
+    return this.style.getColor();
   }
 
   /**
@@ -463,7 +984,7 @@ public final class ChatComponent {
    */
   @Nullable
   public Boolean getItalic() {
-    return this.italic;
+    return this.style.getItalic();
   }
 
   /**
@@ -473,7 +994,7 @@ public final class ChatComponent {
    */
   @Nullable
   public Boolean getObfuscated() {
-    return this.obfuscated;
+    return this.style.getObfuscated();
   }
 
   /**
@@ -483,7 +1004,17 @@ public final class ChatComponent {
    */
   @Nullable
   public Boolean getStrikethrough() {
-    return this.strikethrough;
+    return this.style.getStrikethrough();
+  }
+
+  /**
+   * obtains the style.
+   *
+   * @return style.
+   */
+  @NotNull
+  public Style getStyle() {
+    return this.style;
   }
 
   /**
@@ -493,7 +1024,7 @@ public final class ChatComponent {
    */
   @Nullable
   public Boolean getUnderlined() {
-    return this.underlined;
+    return this.style.getUnderlined();
   }
 
   /**
@@ -502,7 +1033,7 @@ public final class ChatComponent {
    * @return bold.
    */
   public boolean isBold() {
-    return this.bold != null && this.bold;
+    return this.style.is(Style.BOLD);
   }
 
   /**
@@ -511,7 +1042,7 @@ public final class ChatComponent {
    * @return italic.
    */
   public boolean isItalic() {
-    return this.italic != null && this.italic;
+    return this.style.is(Style.ITALIC);
   }
 
   /**
@@ -520,7 +1051,7 @@ public final class ChatComponent {
    * @return obfuscated.
    */
   public boolean isObfuscated() {
-    return this.obfuscated != null && this.obfuscated;
+    return this.style.is(Style.OBFUSCATED);
   }
 
   /**
@@ -529,7 +1060,7 @@ public final class ChatComponent {
    * @return strikethrough.
    */
   public boolean isStrikethrough() {
-    return this.strikethrough != null && this.strikethrough;
+    return this.style.is(Style.STRIKETHROUGH);
   }
 
   /**
@@ -538,7 +1069,7 @@ public final class ChatComponent {
    * @return underlined.
    */
   public boolean isUnderlined() {
-    return this.underlined != null && this.underlined;
+    return this.style.is(Style.UNDERLINED);
   }
 
   /**
@@ -548,18 +1079,33 @@ public final class ChatComponent {
    */
   @NotNull
   public String toFlatText() {
+    if (this.flatText != null) {
+      return this.flatText;
+    }
     final var builder = new StringBuilder();
-    if (this.color != null) {
-      builder.append(this.color.getHexCode());
+    this.appendFlat(builder);
+    final var flatText = builder.toString();
+    if (this.frozen) {
+      this.flatText = flatText;
     }
-    this.putFormats(builder);
-    if (this.text != null) {
-      builder.append(this.text);
+    return flatText;
+  }
+
+  /**
+   * converts the components into a flat text and writes it into the appendable.
+   *
+   * @param appendable the appendable to write.
+   *
+   * @return written char count.
+   *
+   * @throws IOException if the appendable fails.
+   */
+  public int toFlatText(@NotNull final Appendable appendable) throws IOException {
+    if (this.flatText != null) {
+      appendable.append(this.flatText);
+      return this.flatText.length();
     }
-    this.getExtra().stream()
-      .map(ChatComponent::toFlatText)
-      .forEach(builder::append);
-    return builder.toString();
+    return Appendables.write(appendable, this::appendFlat);
   }
 
   /**
@@ -569,9 +1115,33 @@ public final class ChatComponent {
    */
   @NotNull
   public String toLegacyText() {
+    if (this.legacyText != null) {
+      return this.legacyText;
+    }
     final var builder = new StringBuilder();
-    this.append(builder, "");
-    return builder.toString();
+    this.append(builder, 0);
+    final var legacyText = builder.toString();
+    if (this.frozen) {
+      this.legacyText = legacyText;
+    }
+    return legacyText;
+  }
+
+  /**
+   * converts the component to legacy text and writes it into the appendable.
+   *
+   * @param appendable the appendable to write.
+   *
+   * @return written char count.
+   *
+   * @throws IOException if the appendable fails.
+   */
+  public int toLegacyText(@NotNull final Appendable appendable) throws IOException {
+    if (this.legacyText != null) {
+      appendable.append(this.legacyText);
+      return this.legacyText.length();
+    }
+    return Appendables.write(appendable, builder -> this.append(builder, 0));
   }
 
   /**
@@ -581,14 +1151,23 @@ public final class ChatComponent {
    */
   @NotNull
   public String toRawText() {
+    if (this.rawText != null) {
+      return this.rawText;
+    }
     final var builder = new StringBuilder();
     if (this.text != null) {
       builder.append(this.text);
     }
-    this.getExtra().stream()
-      .filter(extra -> extra.text != null)
-      .map(extra -> extra.text).forEach(builder::append);
-    return builder.toString();
+    for (final var component : this.getExtra()) {
+      if (component.text != null) {
+        builder.append(component.text);
+      }
+    }
+    final var rawText = builder.toString();
+    if (this.frozen) {
+      this.rawText = rawText;
+    }
+    return rawText;
   }
 
   /**
@@ -612,10 +1191,48 @@ public final class ChatComponent {
         return ChatComponent.EMPTY_TEXT;
       }
     }
-    if (!rgbSupported) {
-      this.convertColorsToLegacy();
+    return this.toString(rgbSupported ? ColorDepth.RGB : ColorDepth.LEGACY);
+  }
+
+  /**
+   * converts component to string for the color depth.
+   * <p>
+   * the colors are downsampled while the json is written, the component and its colors are not changed, so the same
+   * component can be serialized for different clients at the same time. a frozen component writes both variants in
+   * a single pass the first time one of them is requested and caches them.
+   *
+   * @param depth the depth to convert.
+   *
+   * @return string.
+   */
+  @NotNull
+  public String toString(@NotNull final ColorDepth depth) {
+    final var cached = depth == ColorDepth.RGB ? this.json : this.legacyJson;
+    if (cached != null) {
+      return cached;
+    }
+    if (!this.frozen) {
+      if (depth == ColorDepth.RGB) {
+        return this.toString();
+      }
+      final var builder = new StringBuilder();
+      try {
+        this.toJson(builder, depth);
+      } catch (final IOException e) {
+        throw new UncheckedIOException(e);
+      }
+      return builder.toString();
+    }
+    final var rgb = new StringBuilder();
+    final var legacy = new StringBuilder();
+    try {
+      this.toJson(rgb, legacy);
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
     }
-    return this.toString();
+    this.json = rgb.toString();
+    this.legacyJson = legacy.toString();
+    return depth == ColorDepth.RGB ? this.json : this.legacyJson;
   }
 
   /**
@@ -627,8 +1244,9 @@ public final class ChatComponent {
    */
   @NotNull
   public ChatComponent withBold(@Nullable final Boolean bold) {
-    this.bold = bold;
-    return this;
+    final var component = this.mutable();
+    component.style = component.style.withBold(bold);
+    return component;
   }
 
   /**
@@ -641,9 +1259,10 @@ public final class ChatComponent {
    */
   @NotNull
   public ChatComponent withClick(@Nullable final ClickAction action, @Nullable final String value) {
-    this.clickAction = action;
-    this.clickValue = value;
-    return this;
+    final var component = this.mutable();
+    component.clickAction = action;
+    component.clickValue = value;
+    return component;
   }
 
   /**
@@ -715,8 +1334,9 @@ public final class ChatComponent {
    */
   @NotNull
   public ChatComponent withColor(@Nullable final TextColor color) {
-    this.color = color;
-    return this;
+    final var component = this.mutable();
+    component.style = component.style.withColor(color);
+    return component;
   }
 
   /**
@@ -728,8 +1348,9 @@ public final class ChatComponent {
    */
   @NotNull
   public ChatComponent withExtra(@Nullable final List<ChatComponent> components) {
-    this.extra = components;
-    return this;
+    final var component = this.mutable();
+    component.extra = components;
+    return component;
   }
 
   /**
@@ -742,9 +1363,10 @@ public final class ChatComponent {
    */
   @NotNull
   public ChatComponent withHover(@Nullable final HoverAction action, @Nullable final Object value) {
-    this.hoverAction = action;
-    this.hoverValue = value;
-    return this;
+    final var component = this.mutable();
+    component.hoverAction = action;
+    component.hoverValue = value;
+    return component;
   }
 
   /**
@@ -807,8 +1429,9 @@ public final class ChatComponent {
    */
   @NotNull
   public ChatComponent withItalic(@Nullable final Boolean italic) {
-    this.italic = italic;
-    return this;
+    final var component = this.mutable();
+    component.style = component.style.withItalic(italic);
+    return component;
   }
 
   /**
@@ -820,8 +1443,9 @@ public final class ChatComponent {
    */
   @NotNull
   public ChatComponent withObfuscated(@Nullable final Boolean obfuscated) {
-    this.obfuscated = obfuscated;
-    return this;
+    final var component = this.mutable();
+    component.style = component.style.withObfuscated(obfuscated);
+    return component;
   }
 
   /**
@@ -833,8 +1457,23 @@ public final class ChatComponent {
    */
   @NotNull
   public ChatComponent withStrikethrough(@Nullable final Boolean strikethrough) {
-    this.strikethrough = strikethrough;
-    return this;
+    final var component = this.mutable();
+    component.style = component.style.withStrikethrough(strikethrough);
+    return component;
+  }
+
+  /**
+   * sets the style.
+   *
+   * @param style the style to set.
+   *
+   * @return {@code this} for builder chain.
+   */
+  @NotNull
+  public ChatComponent withStyle(@NotNull final Style style) {
+    final var component = this.mutable();
+    component.style = style;
+    return component;
   }
 
   /**
@@ -846,8 +1485,9 @@ public final class ChatComponent {
    */
   @NotNull
   public ChatComponent withText(@Nullable final String text) {
-    this.text = text;
-    return this;
+    final var component = this.mutable();
+    component.text = text;
+    return component;
   }
 
   /**
@@ -859,87 +1499,317 @@ public final class ChatComponent {
    */
   @NotNull
   public ChatComponent withUnderlined(@Nullable final Boolean underlined) {
-    this.underlined = underlined;
-    return this;
+    final var component = this.mutable();
+    component.style = component.style.withUnderlined(underlined);
+    return component;
   }
 
   /**
    * adds text to the builder.
    *
    * @param builder the builder to append.
-   * @param previousFormatting the previous formatting to append.
+   * @param previousKey the legacy key of the previous formatting.
    *
-   * @return appended text.
+   * @return legacy key of the last formatting.
    */
-  @NotNull
-  private String append(@NotNull final StringBuilder builder, @NotNull final String previousFormatting) {
-    var formatting = previousFormatting;
+  int append(@NotNull final StringBuilder builder, final int previousKey) {
+    return this.append(builder, previousKey, Style.EMPTY);
+  }
+
+  /**
+   * adds text to the builder.
+   *
+   * @param builder the builder to append.
+   * @param previousKey the legacy key of the previous formatting.
+   * @param inherited the style inherited from the parents.
+   *
+   * @return legacy key of the last formatting.
+   */
+  private int append(@NotNull final StringBuilder builder, final int previousKey, @NotNull final Style inherited) {
+    final var style = this.style.inherit(inherited);
+    var legacyKey = previousKey;
     if (this.text != null) {
-      formatting = this.getFormatting();
-      if (!formatting.equals(previousFormatting)) {
-        builder.append(formatting);
+      legacyKey = style.legacyKey();
+      if (!Style.sameCodes(previousKey, legacyKey)) {
+        if (Style.needsReset(previousKey, legacyKey)) {
+          builder.append(ChatFormat.RESET.getChatFormat());
+        }
+        builder.append(Style.legacyCodes(legacyKey));
       }
       builder.append(this.text);
     }
-    for (final var component : this.getExtra()) {
-      formatting = component.append(builder, formatting);
+    if (this.extra != null) {
+      for (final var component : this.extra) {
+        legacyKey = component.append(builder, legacyKey, style);
+      }
+    }
+    return legacyKey;
+  }
+
+  /**
+   * adds the flat text to the builder.
+   *
+   * @param builder the builder to append.
+   */
+  private void appendFlat(@NotNull final StringBuilder builder) {
+    final var color = this.style.getColor();
+    if (color != null) {
+      builder.append(color.getHexCode());
+    }
+    builder.append(Style.legacyCodes(this.style.legacyKey() & Style.DECORATIONS));
+    if (this.text != null) {
+      builder.append(this.text);
+    }
+    if (this.extra != null) {
+      for (final var component : this.extra) {
+        if (component.flatText != null) {
+          builder.append(component.flatText);
+        } else {
+          component.appendFlat(builder);
+        }
+      }
     }
-    return formatting;
   }
 
   /**
-   * converts colors to legacy.
+   * copies the component without its extras.
+   *
+   * @return a component that is not frozen and shares the extras.
    */
-  private void convertColorsToLegacy() {
-    if (this.color != null) {
-      this.color.setReturnLegacy(true);
+  @NotNull
+  private ChatComponent copy() {
+    final var component = new ChatComponent(this.text);
+    component.clickAction = this.clickAction;
+    component.clickValue = this.clickValue;
+    component.hoverAction = this.hoverAction;
+    component.hoverValue = this.hoverValue;
+    component.style = this.style;
+    if (this.extra != null) {
+      component.extra = new ArrayList<>(this.extra);
     }
-    this.getExtra().forEach(ChatComponent::convertColorsToLegacy);
+    return component;
+  }
+
+  /**
+   * checks if the component can be merged with the other one into a single text.
+   *
+   * @param other the other to check.
+   *
+   * @return {@code true} if both components are plain texts with the same style.
+   */
+  private boolean canMerge(@NotNull final ChatComponent other) {
+    return this.text != null && other.text != null && this.extra == null && other.extra == null &&
+      this.hasSameStyle(other);
+  }
+
+  /**
+   * counts the components in the tree, including the hover components.
+   *
+   * @return component count.
+   */
+  private int countNodes() {
+    var count = 1;
     if (this.hoverValue instanceof ChatComponent) {
-      ((ChatComponent) this.hoverValue).convertColorsToLegacy();
+      count += ((ChatComponent) this.hoverValue).countNodes();
+    }
+    for (final var component : this.getExtra()) {
+      count += component.countNodes();
+    }
+    return count;
+  }
+
+  /**
+   * removes the style fields that are equal to the inherited ones.
+   *
+   * @param inherited the inherited to remove.
+   */
+  private void dropInherited(@Nullable final ChatComponent inherited) {
+    if (inherited == null) {
+      return;
+    }
+    this.style = this.style.withoutInherited(inherited.style);
+    if (inherited.clickAction != null && inherited.clickAction == this.clickAction &&
+      Objects.equals(inherited.clickValue, this.clickValue)) {
+      this.clickAction = null;
+      this.clickValue = null;
+    }
+    if (inherited.hoverAction != null && inherited.hoverAction == this.hoverAction &&
+      Objects.equals(inherited.hoverValue, this.hoverValue)) {
+      this.hoverAction = null;
+      this.hoverValue = null;
     }
   }
 
   /**
-   * obtains the formatting.
+   * checks if the component has any style field.
    *
-   * @return formatting.
+   * @return {@code true} if the component has any style field.
+   */
+  private boolean hasStyle() {
+    return !this.style.isEmpty() || this.clickAction != null || this.hoverAction != null;
+  }
+
+  /**
+   * checks if the components have the same style fields.
+   *
+   * @param other the other to check.
+   *
+   * @return {@code true} if the components have the same style fields.
+   */
+  private boolean hasSameStyle(@NotNull final ChatComponent other) {
+    return this.style.equals(other.style) &&
+      this.clickAction == other.clickAction &&
+      Objects.equals(this.clickValue, other.clickValue) &&
+      this.hoverAction == other.hoverAction &&
+      Objects.equals(this.hoverValue, other.hoverValue);
+  }
+
+  /**
+   * merges the style fields of the component over the inherited ones.
+   *
+   * @param inherited the inherited to merge.
+   *
+   * @return effective style of the component.
    */
   @NotNull
-  private String getFormatting() {
-    final var builder = new StringBuilder();
-    if (this.color != null) {
-      if (this.color.getLegacyColor() == ChatFormat.WHITE) {
-        builder.append(ChatFormat.RESET.getChatFormat());
+  private ChatComponent inherit(@Nullable final ChatComponent inherited) {
+    if (inherited == null || !inherited.hasStyle()) {
+      return this;
+    }
+    if (!this.hasStyle()) {
+      return inherited;
+    }
+    final var style = new ChatComponent();
+    style.overlay(inherited);
+    style.overlay(this);
+    return style;
+  }
+
+  /**
+   * checks if the component renders nothing.
+   *
+   * @return {@code true} if the component has neither text nor extras.
+   */
+  private boolean isEmpty() {
+    return (this.text == null || this.text.isEmpty()) && (this.extra == null || this.extra.isEmpty());
+  }
+
+  /**
+   * optimizes the component.
+   *
+   * @param inherited the style inherited from the parents.
+   *
+   * @return optimized copy of the component.
+   */
+  @NotNull
+  private ChatComponent optimize(@Nullable final ChatComponent inherited) {
+    final var component = this.copy();
+    component.dropInherited(inherited);
+    if (component.hoverValue instanceof ChatComponent) {
+      component.hoverValue = ((ChatComponent) component.hoverValue).optimize(null);
+    }
+    if (component.extra == null) {
+      return component;
+    }
+    final var style = component.inherit(inherited);
+    final var extra = new ArrayList<ChatComponent>(component.extra.size());
+    for (final var child : component.extra) {
+      final var optimized = child.optimize(style);
+      if (optimized.isEmpty()) {
+        continue;
+      }
+      if ((optimized.text == null || optimized.text.isEmpty()) && !optimized.hasStyle()) {
+        for (final var grandChild : optimized.extra) {
+          ChatComponent.addMerged(extra, grandChild);
+        }
       } else {
-        builder.append(this.color.getLegacyColor().getChatFormat());
+        ChatComponent.addMerged(extra, optimized);
       }
     }
-    this.putFormats(builder);
-    return builder.toString();
+    component.extra = extra.isEmpty() ? null : extra;
+    if ((component.text == null || component.text.isEmpty()) && extra.size() == 1) {
+      final var collapsed = new ChatComponent();
+      collapsed.overlay(component);
+      collapsed.overlay(extra.get(0));
+      collapsed.text = extra.get(0).text;
+      collapsed.extra = extra.get(0).extra;
+      collapsed.dropInherited(inherited);
+      return collapsed;
+    }
+    return component;
+  }
+
+  /**
+   * copies the style fields that are set on the other component.
+   *
+   * @param other the other to copy.
+   */
+  private void overlay(@NotNull final ChatComponent other) {
+    this.style = other.style.inherit(this.style);
+    if (other.clickAction != null) {
+      this.clickAction = other.clickAction;
+      this.clickValue = other.clickValue;
+    }
+    if (other.hoverAction != null) {
+      this.hoverAction = other.hoverAction;
+      this.hoverValue = other.hoverValue;
+    }
+  }
+
+  /**
+   * obtains the component to change.
+   *
+   * @return {@code this} or a copy if the component is frozen.
+   */
+  @NotNull
+  private ChatComponent mutable() {
+    if (this.frozen) {
+      return this.copy();
+    }
+    return this;
   }
 
   /**
-   * puts the formats into the builder.
+   * writes the component.
+   *
+   * @param writer the writer to write.
    *
-   * @param builder the builder to put.
+   * @throws IOException if the appendable fails.
    */
-  private void putFormats(@NotNull final StringBuilder builder) {
-    if (this.isBold()) {
-      builder.append(ChatFormat.BOLD.getChatFormat());
+  void write(@NotNull final JsonWriter writer) throws IOException {
+    writer.beginObject();
+    if (this.text != null) {
+      writer.name("text").value(this.text);
     }
-    if (this.isItalic()) {
-      builder.append(ChatFormat.ITALIC.getChatFormat());
+    final var color = this.style.getColor();
+    if (color != null) {
+      writer.name("color").color(color);
     }
-    if (this.isUnderlined()) {
-      builder.append(ChatFormat.UNDERLINE.getChatFormat());
+    ChatComponent.writeDecoration(writer, "bold", this.style.getBold());
+    ChatComponent.writeDecoration(writer, "italic", this.style.getItalic());
+    ChatComponent.writeDecoration(writer, "underlined", this.style.getUnderlined());
+    ChatComponent.writeDecoration(writer, "strikethrough", this.style.getStrikethrough());
+    ChatComponent.writeDecoration(writer, "obfuscated", this.style.getObfuscated());
+    if (this.clickAction != null) {
+      writer.name("clickEvent").beginObject()
+        .name("action").value(this.clickAction.toString().toLowerCase(Locale.ROOT))
+        .name("value").value(this.clickValue)
+        .endObject();
     }
-    if (this.isStrikethrough()) {
-      builder.append(ChatFormat.STRIKETHROUGH.getChatFormat());
+    if (this.hoverAction != null) {
+      writer.name("hoverEvent").beginObject()
+        .name("action").value(this.hoverAction.toString().toLowerCase(Locale.ROOT))
+        .name("value").value(this.hoverValue)
+        .endObject();
     }
-    if (this.isObfuscated()) {
-      builder.append(ChatFormat.OBFUSCATED.getChatFormat());
+    if (this.extra != null && !this.extra.isEmpty()) {
+      writer.name("extra").beginArray();
+      for (final var component : this.extra) {
+        component.write(writer);
+      }
+      writer.endArray();
     }
+    writer.endObject();
   }
 
   /**
@@ -965,7 +1835,24 @@ public final class ChatComponent {
     /**
      * the copy to clipboard.
      */
-    COPY_TO_CLIPBOARD
+    COPY_TO_CLIPBOARD;
+
+    /**
+     * gets the click action by name.
+     *
+     * @param name the name to get.
+     *
+     * @return click action or null.
+     */
+    @Nullable
+    public static ClickAction getByName(@Nullable final String name) {
+      for (final var action : ClickAction.values()) {
+        if (action.name().equalsIgnoreCase(name)) {
+          return action;
+        }
+      }
+      return null;
+    }
   }
 
   /**
@@ -985,6 +1872,23 @@ public final class ChatComponent {
      */
     SHOW_ENTITY;
 
+    /**
+     * gets the hover action by name.
+     *
+     * @param name the name to get.
+     *
+     * @return hover action or null.
+     */
+    @Nullable
+    public static HoverAction getByName(@Nullable final String name) {
+      for (final var action : HoverAction.values()) {
+        if (action.name().equalsIgnoreCase(name)) {
+          return action;
+        }
+      }
+      return null;
+    }
+
     /**
      * gets the hover action from type.
      *
@@ -999,4 +1903,103 @@ public final class ChatComponent {
         .findFirst();
     }
   }
+
+  /**
+   * a class that represents tasks which parse a range of the chunks of a document.
+   */
+  private static final class ParseTask extends RecursiveAction {
+
+    /**
+     * the serial version uid.
+     */
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * the chunks.
+     */
+    @NotNull
+    private final List<ChatComponent>[] chunks;
+
+    /**
+     * the end.
+     */
+    private final int end;
+
+    /**
+     * the lexer which colorizes, formats and parses the chunks, {@code null} if the text has been formatted.
+     */
+    @Nullable
+    private final Lexer lexer;
+
+    /**
+     * the splits.
+     */
+    @NotNull
+    private final int[] splits;
+
+    /**
+     * the start.
+     */
+    private final int start;
+
+    /**
+     * the components that the chunks have started with.
+     */
+    @NotNull
+    private final ChatComponent[] starts;
+
+    /**
+     * the text.
+     */
+    @NotNull
+    private final String text;
+
+    /**
+     * ctor.
+     *
+     * @param text the text.
+     * @param lexer the lexer.
+     * @param splits the splits.
+     * @param starts the starts.
+     * @param chunks the chunks.
+     * @param start the start.
+     * @param end the end.
+     */
+    private ParseTask(@NotNull final String text, @Nullable final Lexer lexer, @NotNull final int[] splits,
+                      @NotNull final ChatComponent[] starts, @NotNull final List<ChatComponent>[] chunks,
+                      final int start, final int end) {
+      this.text = text;
+      this.lexer = lexer;
+      this.splits = splits;
+      this.starts = starts;
+      this.chunks = chunks;
+      this.start = start;
+      this.end = end;
+    }
+
+    @Override
+    protected void compute() {
+      if (this.end - this.start == 1) {
+        final var style = new ChatComponent();
+        final var components = new ArrayList<ChatComponent>();
+        final var chunk = this.text.substring(this.splits[this.start], this.splits[this.start + 1]);
+        if (this.lexer == null) {
+          ChatComponent.parse(chunk, style, components);
+        } else {
+          final var parser = new ComponentParser(style, components);
+          if (!this.lexer.parseChunk(chunk, parser)) {
+            return;
+          }
+          parser.finish();
+        }
+        this.starts[this.start] = style;
+        this.chunks[this.start] = components;
+        return;
+      }
+      final var middle = this.start + this.end >>> 1;
+      ForkJoinTask.invokeAll(
+        new ParseTask(this.text, this.lexer, this.splits, this.starts, this.chunks, this.start, middle),
+        new ParseTask(this.text, this.lexer, this.splits, this.starts, this.chunks, middle, this.end));
+    }
+  }
 }
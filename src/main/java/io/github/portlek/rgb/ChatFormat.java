@@ -129,6 +129,17 @@ public enum ChatFormat {
    */
   public static final ChatFormat[] VALUES = ChatFormat.values();
 
+  /**
+   * the formats by character.
+   */
+  private static final ChatFormat[] BY_CHAR = new ChatFormat[128];
+
+  /**
+   * the optional formats by character.
+   */
+  @SuppressWarnings("unchecked")
+  private static final Optional<ChatFormat>[] OPTIONALS_BY_CHAR = (Optional<ChatFormat>[]) new Optional<?>[128];
+
   /**
    * the character.
    */
@@ -172,6 +183,14 @@ public enum ChatFormat {
   @Getter
   private int red;
 
+  static {
+    Arrays.fill(ChatFormat.OPTIONALS_BY_CHAR, Optional.empty());
+    for (final var format : ChatFormat.VALUES) {
+      ChatFormat.BY_CHAR[format.character] = format;
+      ChatFormat.OPTIONALS_BY_CHAR[format.character] = Optional.of(format);
+    }
+  }
+
   /**
    * ctor.
    *
@@ -211,9 +230,14 @@ public enum ChatFormat {
    */
   @NotNull
   public static Optional<ChatFormat> fromRGBExact(final int red, final int green, final int blue) {
-    return Arrays.stream(ChatFormat.VALUES)
-      .filter(format -> format.red == red && format.green == green && format.blue == blue)
-      .findFirst();
+    if ((red | green | blue) >>> 8 != 0) {
+      return Optional.empty();
+    }
+    final var format = ChatFormat.fromRGBExactOrNull(red << 16 | green << 8 | blue);
+    if (format == null) {
+      return Optional.empty();
+    }
+    return ChatFormat.OPTIONALS_BY_CHAR[format.character];
   }
 
   /**
@@ -225,9 +249,10 @@ public enum ChatFormat {
    */
   @NotNull
   public static Optional<ChatFormat> getByChar(final char character) {
-    return Arrays.stream(ChatFormat.VALUES)
-      .filter(format -> format.character == character)
-      .findFirst();
+    if (character >= ChatFormat.OPTIONALS_BY_CHAR.length) {
+      return Optional.empty();
+    }
+    return ChatFormat.OPTIONALS_BY_CHAR[character];
   }
 
   /**
@@ -239,7 +264,10 @@ public enum ChatFormat {
    */
   @Nullable
   public static ChatFormat getByCharOrNull(final char character) {
-    return ChatFormat.getByChar(character).orElse(null);
+    if (character >= ChatFormat.BY_CHAR.length) {
+      return null;
+    }
+    return ChatFormat.BY_CHAR[character];
   }
 
   /**
@@ -272,10 +300,28 @@ public enum ChatFormat {
     if (last.length() <= 0) {
       return ChatFormat.WHITE;
     }
-    final var c = last.toCharArray()[1];
-    return Arrays.stream(ChatFormat.VALUES)
-      .filter(e -> e.character == c)
-      .findFirst()
-      .orElse(ChatFormat.WHITE);
+    final var format = ChatFormat.getByCharOrNull(last.charAt(1));
+    if (format == null) {
+      return ChatFormat.WHITE;
+    }
+    return format;
+  }
+
+  /**
+   * gets chat format by rgb.
+   *
+   * @param rgb the packed rgb to get.
+   *
+   * @return chat format whose color is exactly the rgb.
+   */
+  @Nullable
+  static ChatFormat fromRGBExactOrNull(final int rgb) {
+    for (var index = 0; index < 16; index++) {
+      final var format = ChatFormat.VALUES[index];
+      if ((format.red << 16 | format.green << 8 | format.blue) == rgb) {
+        return format;
+      }
+    }
+    return null;
   }
 }
@@ -33,35 +33,69 @@ import io.github.portlek.rgb.gradients.CMIGradient;
 import io.github.portlek.rgb.gradients.HtmlGradient;
 import io.github.portlek.rgb.gradients.IridescentGradient;
 import io.github.portlek.rgb.gradients.KyoriGradient;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.lang.management.ManagementFactory;
 import java.util.ArrayList;
-import java.util.Collection;
-import java.util.regex.Pattern;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.UnaryOperator;
+import javax.management.JMException;
+import javax.management.ObjectName;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * a class that represent color managers.
+ * <p>
+ * the registered formatters and gradients are kept in an immutable pipeline. registrations publish a new pipeline with
+ * a compare-and-set, so the conversions never lock and always see a complete pipeline even while stages are being
+ * registered from another thread.
  */
 public final class ColorManager {
 
+  /**
+   * the pipeline handle.
+   */
+  private static final VarHandle PIPELINE;
+
+  static {
+    try {
+      PIPELINE = MethodHandles.lookup().findVarHandle(ColorManager.class, "pipeline", Pipeline.class);
+    } catch (final ReflectiveOperationException e) {
+      throw new ExceptionInInitializerError(e);
+    }
+  }
+
   /**
    * the default.
    */
   private static final ColorManager DEFAULT = ColorManager.createDefault();
 
   /**
-   * the default pattern.
+   * the default parallel threshold.
    */
-  private static final Pattern DEFAULT_PATTERN = Pattern.compile("#[0-9a-fA-F]{6}");
+  private static final int DEFAULT_PARALLEL_THRESHOLD = 256;
 
   /**
-   * the formatters.
+   * the distinct text count of a batch to convert it in parallel.
    */
-  private final Collection<Formatter> formatters = new ArrayList<>();
+  private volatile int parallelThreshold = ColorManager.DEFAULT_PARALLEL_THRESHOLD;
 
   /**
-   * the gradients.
+   * the pipeline.
+   * <p>
+   * the public methods read it once and pass that snapshot down, so a conversion never mixes the stages of two
+   * pipelines even if a stage is registered while it runs.
    */
-  private final Collection<Gradient> gradients = new ArrayList<>();
+  @NotNull
+  private volatile Pipeline pipeline = Pipeline.EMPTY;
 
   /**
    * checks if the text contains legacy code.
@@ -72,10 +106,22 @@ public final class ColorManager {
    * @return {@code true} if the text contains legacy code.
    */
   public static boolean containsLegacyCode(@NotNull final String text, final int code) {
+    return ColorManager.containsLegacyCode((CharSequence) text, code);
+  }
+
+  /**
+   * checks if the text contains legacy code.
+   *
+   * @param text the text to check.
+   * @param code the code to check.
+   *
+   * @return {@code true} if the text contains legacy code.
+   */
+  static boolean containsLegacyCode(@NotNull final CharSequence text, final int code) {
     if (text.length() - code < 9 || text.charAt(code + 7) != '|') {
       return false;
     }
-    return ChatFormat.getByChar(text.charAt(code + 8)).isPresent();
+    return ChatFormat.getByCharOrNull(text.charAt(code + 8)) != null;
   }
 
   /**
@@ -116,14 +162,71 @@ public final class ColorManager {
    */
   @NotNull
   public String applyFormats(@NotNull final String text, final boolean ignorePlaceholders) {
-    var replaced = text;
-    for (final var formatter : this.formatters) {
-      replaced = formatter.apply(replaced);
+    return ColorManager.cachedFormats(this.pipeline, text, ignorePlaceholders);
+  }
+
+  /**
+   * applies the formats of the pipeline to the text through the render cache of the pipeline.
+   *
+   * @param pipeline the pipeline to apply.
+   * @param text the text to apply.
+   * @param ignorePlaceholders the ignore placeholders.
+   *
+   * @return formatted text.
+   */
+  @NotNull
+  private static String cachedFormats(@NotNull final Pipeline pipeline, @NotNull final String text,
+                                      final boolean ignorePlaceholders) {
+    final var cache = pipeline.cache;
+    if (cache == null) {
+      return ColorManager.applyFormats(pipeline, text, ignorePlaceholders);
     }
-    for (final var pattern : this.gradients) {
-      replaced = pattern.apply(replaced, ignorePlaceholders);
+    final var kind = ignorePlaceholders
+      ? RenderCache.APPLY_FORMATS_IGNORING_PLACEHOLDERS
+      : RenderCache.APPLY_FORMATS;
+    var applied = cache.get(pipeline.generation, text, kind);
+    if (applied == null) {
+      applied = ColorManager.applyFormats(pipeline, text, ignorePlaceholders);
+      cache.put(pipeline.generation, text, kind, applied);
     }
-    return replaced;
+    return applied;
+  }
+
+  /**
+   * applies the formats of the pipeline to the text.
+   *
+   * @param pipeline the pipeline to apply.
+   * @param text the text to apply.
+   * @param ignorePlaceholders the ignore placeholders.
+   *
+   * @return formatted text.
+   */
+  @NotNull
+  private static String applyFormats(@NotNull final Pipeline pipeline, @NotNull final String text,
+                                     final boolean ignorePlaceholders) {
+    final var lexer = pipeline.lexer;
+    if (lexer != null && pipeline.metrics == null) {
+      return lexer.apply(text, ignorePlaceholders);
+    }
+    return ColorManager.applyInSequence(pipeline, text, ignorePlaceholders);
+  }
+
+  /**
+   * applies the formats to the text and writes it into the appendable.
+   *
+   * @param text the text to apply.
+   * @param ignorePlaceholders the ignore placeholders.
+   * @param appendable the appendable to write.
+   *
+   * @return written char count.
+   *
+   * @throws IOException if the appendable fails.
+   */
+  public int applyFormats(@NotNull final CharSequence text, final boolean ignorePlaceholders,
+                          @NotNull final Appendable appendable) throws IOException {
+    final var pipeline = this.pipeline;
+    return Appendables.write(appendable,
+      builder -> ColorManager.appendFormats(pipeline, text, ignorePlaceholders, builder));
   }
 
   /**
@@ -135,11 +238,603 @@ public final class ColorManager {
    */
   @NotNull
   public String convertRGBtoLegacy(@NotNull final String text) {
-    if (!text.contains("#")) {
-      return Legacy.color(text);
+    return ColorManager.cachedRGBtoLegacy(this.pipeline, text);
+  }
+
+  /**
+   * converts rgb to legacy with the pipeline through the render cache of the pipeline.
+   *
+   * @param pipeline the pipeline to convert.
+   * @param text the text to convert.
+   *
+   * @return converted text.
+   */
+  @NotNull
+  private static String cachedRGBtoLegacy(@NotNull final Pipeline pipeline, @NotNull final String text) {
+    final var cache = pipeline.cache;
+    if (cache == null) {
+      return ColorManager.convertRGBtoLegacy(pipeline, text);
+    }
+    var converted = cache.get(pipeline.generation, text, RenderCache.RGB_TO_LEGACY);
+    if (converted == null) {
+      converted = ColorManager.convertRGBtoLegacy(pipeline, text);
+      cache.put(pipeline.generation, text, RenderCache.RGB_TO_LEGACY, converted);
+    }
+    return converted;
+  }
+
+  /**
+   * converts rgb to legacy with the pipeline.
+   *
+   * @param pipeline the pipeline to convert.
+   * @param text the text to convert.
+   *
+   * @return converted text.
+   */
+  @NotNull
+  private static String convertRGBtoLegacy(@NotNull final Pipeline pipeline, @NotNull final String text) {
+    final var metrics = pipeline.metrics;
+    final var start = metrics == null ? 0L : System.nanoTime();
+    final String converted;
+    if (text.contains("#")) {
+      final var builder = new StringBuilder(text.length());
+      ColorManager.appendRGBtoLegacy(pipeline, text, builder);
+      converted = builder.toString();
+    } else {
+      converted = Legacy.color(text);
+    }
+    if (metrics != null) {
+      ColorManager.record(metrics.convertRGBtoLegacy(), text, converted, start);
+    }
+    return converted;
+  }
+
+  /**
+   * converts rgb to legacy and writes it into the appendable.
+   *
+   * @param text the text to convert.
+   * @param appendable the appendable to write.
+   *
+   * @return written char count.
+   *
+   * @throws IOException if the appendable fails.
+   */
+  public int convertRGBtoLegacy(@NotNull final CharSequence text, @NotNull final Appendable appendable)
+    throws IOException {
+    final var pipeline = this.pipeline;
+    if (pipeline.metrics != null || pipeline.cache != null) {
+      final var converted = ColorManager.cachedRGBtoLegacy(pipeline, text.toString());
+      appendable.append(converted);
+      return converted.length();
+    }
+    return Appendables.write(appendable, builder -> ColorManager.appendRGBtoLegacy(pipeline, text, builder));
+  }
+
+  /**
+   * converts the text to bukkit format.
+   *
+   * @param text the text to convert.
+   * @param rgbSupported the rgb supported to convert.
+   *
+   * @return converted text.
+   */
+  @NotNull
+  public String convertToBukkitFormat(@NotNull final String text, final boolean rgbSupported) {
+    return ColorManager.cachedBukkitFormat(this.pipeline, text, rgbSupported);
+  }
+
+  /**
+   * converts the text to bukkit format with the pipeline through the render cache of the pipeline.
+   *
+   * @param pipeline the pipeline to convert.
+   * @param text the text to convert.
+   * @param rgbSupported the rgb supported to convert.
+   *
+   * @return converted text.
+   */
+  @NotNull
+  private static String cachedBukkitFormat(@NotNull final Pipeline pipeline, @NotNull final String text,
+                                           final boolean rgbSupported) {
+    final var cache = pipeline.cache;
+    if (cache == null) {
+      return ColorManager.convertToBukkitFormat(pipeline, text, rgbSupported);
+    }
+    final var kind = rgbSupported ? RenderCache.BUKKIT_FORMAT_RGB : RenderCache.BUKKIT_FORMAT;
+    var converted = cache.get(pipeline.generation, text, kind);
+    if (converted == null) {
+      converted = ColorManager.convertToBukkitFormat(pipeline, text, rgbSupported);
+      cache.put(pipeline.generation, text, kind, converted);
+    }
+    return converted;
+  }
+
+  /**
+   * converts the text to bukkit format with the pipeline.
+   *
+   * @param pipeline the pipeline to convert.
+   * @param text the text to convert.
+   * @param rgbSupported the rgb supported to convert.
+   *
+   * @return converted text.
+   */
+  @NotNull
+  private static String convertToBukkitFormat(@NotNull final Pipeline pipeline, @NotNull final String text,
+                                              final boolean rgbSupported) {
+    final var metrics = pipeline.metrics;
+    final var start = metrics == null ? 0L : System.nanoTime();
+    final String converted;
+    if (rgbSupported) {
+      converted = ColorManager.convertHexToBukkit(ColorManager.applyFormats(pipeline, text, false));
+    } else {
+      converted = new ChatComponent("").withExtra(ColorManager.parseColored(pipeline, text)).toLegacyText();
+    }
+    if (metrics != null) {
+      ColorManager.record(metrics.convertToBukkitFormat(), text, converted, start);
+    }
+    return converted;
+  }
+
+  /**
+   * converts the text to bukkit format and writes it into the appendable.
+   *
+   * @param text the text to convert.
+   * @param rgbSupported the rgb supported to convert.
+   * @param appendable the appendable to write.
+   *
+   * @return written char count.
+   *
+   * @throws IOException if the appendable fails.
+   */
+  public int convertToBukkitFormat(@NotNull final CharSequence text, final boolean rgbSupported,
+                                   @NotNull final Appendable appendable) throws IOException {
+    final var pipeline = this.pipeline;
+    if (pipeline.metrics != null || pipeline.cache != null) {
+      final var converted = ColorManager.cachedBukkitFormat(pipeline, text.toString(), rgbSupported);
+      appendable.append(converted);
+      return converted.length();
+    }
+    if (!rgbSupported) {
+      return new ChatComponent("").withExtra(ColorManager.parseColored(pipeline, text)).toLegacyText(appendable);
+    }
+    return Appendables.write(appendable, builder -> {
+      final var applied = new StringBuilder(text.length() + 16);
+      ColorManager.appendFormats(pipeline, text, false, applied);
+      ColorManager.convertHexToBukkit(applied, builder);
+    });
+  }
+
+  /**
+   * converts the texts in a batch.
+   * <p>
+   * equal texts are converted once, batches that have at least {@link #withParallelThreshold(int)} distinct texts are
+   * split across the common fork join pool. the results keep the order of the texts either way.
+   *
+   * @param texts the texts to convert.
+   * @param target the target to convert.
+   * @param <T> type of the converted values.
+   *
+   * @return converted values and the batch stats.
+   */
+  @NotNull
+  public <T> BatchResult<T> convertAll(@NotNull final List<String> texts, @NotNull final ConversionTarget<T> target) {
+    return this.convertAll(texts, target, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * converts the texts in a batch.
+   *
+   * @param texts the texts to convert.
+   * @param target the target to convert.
+   * @param pool the pool to split the large batches across.
+   * @param <T> type of the converted values.
+   *
+   * @return converted values and the batch stats.
+   *
+   * @see #convertAll(List, ConversionTarget)
+   */
+  @NotNull
+  public <T> BatchResult<T> convertAll(@NotNull final List<String> texts, @NotNull final ConversionTarget<T> target,
+                                       @NotNull final ForkJoinPool pool) {
+    final var start = System.nanoTime();
+    final var size = texts.size();
+    final var indexes = new int[size];
+    final var distinct = new ArrayList<String>();
+    final var seen = new HashMap<String, Integer>(size * 4 / 3 + 1);
+    for (var index = 0; index < size; index++) {
+      final var text = texts.get(index);
+      final var previous = seen.putIfAbsent(text, distinct.size());
+      if (previous == null) {
+        indexes[index] = distinct.size();
+        distinct.add(text);
+      } else {
+        indexes[index] = previous;
+      }
+    }
+    final var converted = new Object[distinct.size()];
+    final int tasks;
+    if (distinct.size() >= this.parallelThreshold && pool.getParallelism() > 1) {
+      final var chunk = Math.max(ColorManager.DEFAULT_PARALLEL_THRESHOLD / 4,
+        distinct.size() / (pool.getParallelism() * 4) + 1);
+      tasks = pool.invoke(new BatchTask<>(this, target, distinct, converted, 0, distinct.size(), chunk));
+    } else {
+      final var scratch = new StringBuilder();
+      for (var index = 0; index < converted.length; index++) {
+        converted[index] = target.convert(this, distinct.get(index), scratch);
+      }
+      tasks = 1;
+    }
+    final var results = new Object[size];
+    for (var index = 0; index < size; index++) {
+      results[index] = converted[indexes[index]];
+    }
+    @SuppressWarnings("unchecked") final var list = (List<T>) Collections.unmodifiableList(Arrays.asList(results));
+    return new BatchResult<>(list, distinct.size(), tasks, System.nanoTime() - start);
+  }
+
+  /**
+   * obtains the metrics.
+   *
+   * @return metrics or empty if the metrics are disabled.
+   */
+  @NotNull
+  public Optional<ColorManagerMetrics> getMetrics() {
+    return Optional.ofNullable(this.pipeline.metrics);
+  }
+
+  /**
+   * obtains the render cache.
+   *
+   * @return render cache or empty if the render cache is disabled.
+   */
+  @NotNull
+  public Optional<RenderCache> getRenderCache() {
+    return Optional.ofNullable(this.pipeline.cache);
+  }
+
+  /**
+   * registers the metrics to the platform mbean server.
+   * <p>
+   * the registered mbean reads the current metrics on every call, so it keeps up with the stages that are registered
+   * later. while the metrics are disabled, it reports zeros.
+   *
+   * @param name the name to register, it is used as the name key of the object name.
+   *
+   * @return object name of the registered mbean.
+   *
+   * @throws IllegalStateException if the metrics are disabled or the registration fails.
+   */
+  @NotNull
+  public ObjectName registerMetrics(@NotNull final String name) {
+    if (this.pipeline.metrics == null) {
+      throw new IllegalStateException("The metrics are disabled, see withMetrics(boolean)");
+    }
+    try {
+      final var objectName = new ObjectName("io.github.portlek.rgb:type=ColorManager,name=" + ObjectName.quote(name));
+      ManagementFactory.getPlatformMBeanServer().registerMBean(new MetricsView(this), objectName);
+      return objectName;
+    } catch (final JMException e) {
+      throw new IllegalStateException("Could not register the metrics of " + name, e);
+    }
+  }
+
+  /**
+   * compiles the text into a message which can be rendered many times with different placeholder values.
+   *
+   * @param text the text to compile.
+   *
+   * @return compiled message.
+   */
+  @NotNull
+  public CompiledMessage compile(@NotNull final String text) {
+    return CompiledMessage.compile(this, text);
+  }
+
+  /**
+   * converts the hex codes in the formatted text to bukkit format.
+   *
+   * @param text the text to convert.
+   *
+   * @return converted text.
+   */
+  @NotNull
+  static String convertHexToBukkit(@NotNull final String text) {
+    if (text.indexOf('#') == -1) {
+      return text;
+    }
+    final var builder = new StringBuilder(text.length() + 32);
+    ColorManager.convertHexToBukkit(text, builder);
+    return builder.toString();
+  }
+
+  /**
+   * converts the hex codes in the formatted text to bukkit format.
+   *
+   * @param text the text to convert.
+   * @param builder the builder to append.
+   */
+  static void convertHexToBukkit(@NotNull final CharSequence text, @NotNull final StringBuilder builder) {
+    final var length = text.length();
+    var last = 0;
+    for (var index = 0; index + 6 < length; index++) {
+      if (text.charAt(index) != '#' || !ColorManager.isHexCode(text, index + 1)) {
+        continue;
+      }
+      builder.append(text, last, index).append('\u00a7').append('x');
+      for (var i = index + 1; i <= index + 6; i++) {
+        builder.append('\u00a7').append(text.charAt(i));
+      }
+      last = index + 7;
+      index += 6;
+    }
+    builder.append(text, last, length);
+  }
+
+  /**
+   * copies the stages and adds the stage to the end.
+   *
+   * @param stages the stages to copy.
+   * @param stage the stage to add.
+   * @param <T> type of the stages.
+   *
+   * @return a new array of the stages.
+   */
+  @NotNull
+  private static <T> T[] add(@NotNull final T[] stages, @NotNull final T stage) {
+    final var added = Arrays.copyOf(stages, stages.length + 1);
+    added[stages.length] = stage;
+    return added;
+  }
+
+  /**
+   * copies the stages without the stage.
+   *
+   * @param stages the stages to copy.
+   * @param stage the stage to remove.
+   * @param <T> type of the stages.
+   *
+   * @return a new array of the stages, or the stages themselves if the stage is not registered.
+   */
+  @NotNull
+  private static <T> T[] remove(@NotNull final T[] stages, @NotNull final T stage) {
+    final var removed = Arrays.copyOf(stages, stages.length);
+    var length = 0;
+    for (final var current : stages) {
+      if (!current.equals(stage)) {
+        removed[length++] = current;
+      }
+    }
+    return length == stages.length ? stages : Arrays.copyOf(removed, length);
+  }
+
+  /**
+   * records an invocation.
+   *
+   * @param counter the counter to record.
+   * @param text the text to record.
+   * @param converted the converted text to record.
+   * @param start the start time to record.
+   */
+  private static void record(@NotNull final ColorManagerMetrics.Counter counter, @NotNull final String text,
+                             @NotNull final String converted, final long start) {
+    final var nanos = System.nanoTime() - start;
+    counter.record(text.length(), converted.length(), text != converted && !text.equals(converted), nanos);
+  }
+
+  /**
+   * checks if the six characters at the index are hex digits.
+   *
+   * @param text the text to check.
+   * @param index the index to check.
+   *
+   * @return {@code true} if the characters are hex digits.
+   */
+  private static boolean isHexCode(@NotNull final CharSequence text, final int index) {
+    for (var i = index; i < index + 6; i++) {
+      final var c = text.charAt(i);
+      if ((c < '0' || c > '9') && (c < 'a' || c > 'f') && (c < 'A' || c > 'F')) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * obtains the lexer that parses colored text in a single pass.
+   *
+   * @return the lexer of the stages, or {@code null} if the stages can not be fused or the metrics or the render cache
+   *   have to see every conversion.
+   */
+  @Nullable
+  Lexer coloredLexer() {
+    final var pipeline = this.pipeline;
+    return pipeline.metrics == null && pipeline.cache == null ? pipeline.lexer : null;
+  }
+
+  /**
+   * obtains the generation of the stages.
+   *
+   * @return an object which is the same until a stage is registered or unregistered.
+   */
+  @NotNull
+  Object generation() {
+    return this.pipeline.generation;
+  }
+
+  /**
+   * applies the formats of the pipeline to the text and appends it to the builder.
+   *
+   * @param pipeline the pipeline to apply.
+   * @param text the text to apply.
+   * @param ignorePlaceholders the ignore placeholders.
+   * @param builder the builder to append.
+   */
+  private static void appendFormats(@NotNull final Pipeline pipeline, @NotNull final CharSequence text,
+                                    final boolean ignorePlaceholders, @NotNull final StringBuilder builder) {
+    final var lexer = pipeline.lexer;
+    if (lexer != null && pipeline.metrics == null) {
+      lexer.apply(text, ignorePlaceholders, builder);
+    } else {
+      builder.append(ColorManager.cachedFormats(pipeline, text.toString(), ignorePlaceholders));
+    }
+  }
+
+  /**
+   * colorizes the legacy codes of the text, applies the formats to it and parses it into components.
+   * <p>
+   * when the stages are fused, the text is read once and the output goes straight into the components, no colorized or
+   * formatted text is built in between.
+   *
+   * @param text the text to parse.
+   *
+   * @return parsed components, same as the ones of {@code applyFormats(Legacy.color(text), false)}.
+   */
+  @NotNull
+  List<ChatComponent> parseColored(@NotNull final CharSequence text) {
+    return ColorManager.parseColored(this.pipeline, text);
+  }
+
+  /**
+   * colorizes the legacy codes of the text, applies the formats of the pipeline to it and parses it into components.
+   *
+   * @param pipeline the pipeline to parse.
+   * @param text the text to parse.
+   *
+   * @return parsed components.
+   */
+  @NotNull
+  private static List<ChatComponent> parseColored(@NotNull final Pipeline pipeline, @NotNull final CharSequence text) {
+    final var lexer = pipeline.lexer;
+    final var components = new ArrayList<ChatComponent>();
+    if (lexer != null && pipeline.metrics == null && pipeline.cache == null) {
+      final var parser = new ComponentParser(new ChatComponent(), components);
+      if (lexer.parse(text, parser)) {
+        parser.finish();
+        return components;
+      }
+      components.clear();
     }
-    final var applied = this.applyFormats(text, false);
-    final var builder = new StringBuilder();
+    ChatComponent.parse(ColorManager.cachedFormats(pipeline, Legacy.color(text.toString()), false), new ChatComponent(),
+      components);
+    return components;
+  }
+
+  /**
+   * applies only the gradients to the text.
+   *
+   * @param text the text to apply.
+   * @param ignorePlaceholders the ignore placeholders.
+   *
+   * @return formatted text.
+   */
+  @NotNull
+  String applyGradients(@NotNull final String text, final boolean ignorePlaceholders) {
+    return ColorManager.applyGradients(this.pipeline, text, ignorePlaceholders);
+  }
+
+  /**
+   * applies only the gradients of the pipeline to the text.
+   *
+   * @param pipeline the pipeline to apply.
+   * @param text the text to apply.
+   * @param ignorePlaceholders the ignore placeholders.
+   *
+   * @return formatted text.
+   */
+  @NotNull
+  private static String applyGradients(@NotNull final Pipeline pipeline, @NotNull final String text,
+                                       final boolean ignorePlaceholders) {
+    final var triggers = pipeline.triggers;
+    final var offset = pipeline.formatters.length;
+    var mask = triggers.scan(text, offset);
+    if (mask == 0L) {
+      return text;
+    }
+    var replaced = text;
+    for (var index = 0; index < pipeline.gradients.length; index++) {
+      if (Triggers.contains(mask, offset + index)) {
+        final var applied = pipeline.gradients[index].apply(replaced, ignorePlaceholders);
+        if (applied != replaced) {
+          mask = triggers.scan(applied, offset + index + 1);
+          replaced = applied;
+        }
+      }
+    }
+    return replaced;
+  }
+
+  /**
+   * applies the formatters and the gradients one after another.
+   * <p>
+   * the text is scanned for the triggers once and a stage is applied only if one of its triggers occurs. after a stage
+   * has changed the text, the changed text is scanned again for the remaining stages.
+   *
+   * @param pipeline the pipeline to apply.
+   * @param text the text to apply.
+   * @param ignorePlaceholders the ignore placeholders.
+   *
+   * @return formatted text, or the text itself if none of the stages has changed it.
+   */
+  @NotNull
+  private static String applyInSequence(@NotNull final Pipeline pipeline, @NotNull final String text,
+                                        final boolean ignorePlaceholders) {
+    final var triggers = pipeline.triggers;
+    final var metrics = pipeline.metrics;
+    var mask = triggers.scan(text, 0);
+    if (mask == 0L) {
+      return text;
+    }
+    var replaced = text;
+    final var formatters = pipeline.formatters;
+    for (var index = 0; index < formatters.length; index++) {
+      if (Triggers.contains(mask, index)) {
+        final var start = metrics == null ? 0L : System.nanoTime();
+        final var applied = formatters[index].apply(replaced);
+        if (metrics != null) {
+          ColorManager.record(metrics.formatter(index), replaced, applied, start);
+        }
+        if (applied != replaced) {
+          mask = triggers.scan(applied, index + 1);
+          replaced = applied;
+        }
+      }
+    }
+    final var offset = formatters.length;
+    final var gradients = pipeline.gradients;
+    for (var index = 0; index < gradients.length; index++) {
+      if (Triggers.contains(mask, offset + index)) {
+        final var start = metrics == null ? 0L : System.nanoTime();
+        final var applied = gradients[index].apply(replaced, ignorePlaceholders);
+        if (metrics != null) {
+          ColorManager.record(metrics.gradient(index), replaced, applied, start);
+        }
+        if (applied != replaced) {
+          mask = triggers.scan(applied, offset + index + 1);
+          replaced = applied;
+        }
+      }
+    }
+    return replaced;
+  }
+
+  /**
+   * converts rgb to legacy with the pipeline and appends it to the builder.
+   *
+   * @param pipeline the pipeline to convert.
+   * @param text the text to convert.
+   * @param builder the builder to append.
+   */
+  private static void appendRGBtoLegacy(@NotNull final Pipeline pipeline, @NotNull final CharSequence text,
+                                        @NotNull final StringBuilder builder) {
+    var hash = false;
+    for (var i = 0; i < text.length() && !hash; i++) {
+      hash = text.charAt(i) == '#';
+    }
+    if (!hash) {
+      Legacy.color(text, builder);
+      return;
+    }
+    final var applied = new StringBuilder(text.length() + 16);
+    ColorManager.appendFormats(pipeline, text, false, applied);
     for (var i = 0; i < applied.length(); i++) {
       final var c = applied.charAt(i);
       if (c != '#') {
@@ -158,48 +853,72 @@ public final class ColorManager {
         builder.append(c);
       }
     }
-    return builder.toString();
   }
 
   /**
-   * converts the text to bukkit format.
+   * registers the formatter.
    *
-   * @param text the text to convert.
-   * @param rgbSupported the rgb supported to convert.
+   * @param formatter the formatter to register.
    *
-   * @return converted text.
+   * @return {@code this} for builder chain.
    */
   @NotNull
-  public String convertToBukkitFormat(@NotNull final String text, final boolean rgbSupported) {
-    if (!rgbSupported) {
-      return ChatComponent.fromColoredText(text).toLegacyText();
-    }
-    var replaced = this.applyFormats(text, false);
-    final var matcher = ColorManager.DEFAULT_PATTERN.matcher(replaced);
-    while (matcher.find()) {
-      final var hexCode = matcher.group();
-      final var fixed = "&x" +
-        "&" + hexCode.charAt(1) +
-        "&" + hexCode.charAt(2) +
-        "&" + hexCode.charAt(3) +
-        "&" + hexCode.charAt(4) +
-        "&" + hexCode.charAt(5) +
-        "&" + hexCode.charAt(6);
-      replaced = replaced.replace(hexCode, fixed.replace('&', '\u00a7'));
+  public ColorManager withFormatter(@NotNull final Formatter formatter) {
+    this.update(pipeline -> pipeline.withStages(ColorManager.add(pipeline.formatters, formatter), pipeline.gradients));
+    return this;
+  }
+
+  /**
+   * enables or disables the metrics.
+   * <p>
+   * while the metrics are enabled, the formatters and the gradients are applied one after another instead of in a
+   * single pass, so each of them can be measured. a stage is measured only when one of its triggers occurs. disabling
+   * the metrics drops the recorded values.
+   *
+   * @param enabled {@code true} to enable the metrics.
+   *
+   * @return {@code this} for builder chain.
+   */
+  @NotNull
+  public ColorManager withMetrics(final boolean enabled) {
+    this.update(pipeline -> pipeline.withMetrics(enabled));
+    return this;
+  }
+
+  /**
+   * sets the distinct text count of a batch to convert it in parallel.
+   *
+   * @param parallelThreshold the parallel threshold to set.
+   *
+   * @return {@code this} for builder chain.
+   */
+  @NotNull
+  public ColorManager withParallelThreshold(final int parallelThreshold) {
+    if (parallelThreshold < 1) {
+      throw new IllegalArgumentException("The parallel threshold must be positive, got " + parallelThreshold);
     }
-    return replaced;
+    this.parallelThreshold = parallelThreshold;
+    return this;
   }
 
   /**
-   * registers the formatter.
+   * enables or disables the render cache.
+   * <p>
+   * the render cache keeps the results of {@link #applyFormats(String, boolean)}, {@link #convertRGBtoLegacy(String)}
+   * and {@link #convertToBukkitFormat(String, boolean)}, up to the maximum weight in chars. registering or unregistering
+   * a formatter or a gradient invalidates it. the cached results are returned without being measured by the metrics.
+   * enabling the render cache again replaces it with an empty one.
    *
-   * @param formatter the formatter to register.
+   * @param maximumWeight the maximum weight in chars, {@code 0} to disable the render cache.
    *
    * @return {@code this} for builder chain.
    */
   @NotNull
-  public ColorManager withFormatter(@NotNull final Formatter formatter) {
-    this.formatters.add(formatter);
+  public ColorManager withRenderCache(final long maximumWeight) {
+    if (maximumWeight < 0L) {
+      throw new IllegalArgumentException("The maximum weight must not be negative, got " + maximumWeight);
+    }
+    this.update(pipeline -> pipeline.withRenderCache(maximumWeight));
     return this;
   }
 
@@ -212,33 +931,335 @@ public final class ColorManager {
    */
   @NotNull
   public ColorManager withGradient(@NotNull final Gradient gradient) {
-    this.gradients.add(gradient);
+    this.update(pipeline -> pipeline.withStages(pipeline.formatters, ColorManager.add(pipeline.gradients, gradient)));
     return this;
   }
 
   /**
    * unregisters the formatter.
    *
-   * @param formatter the formatter to unregisters.
+   * @param formatter the formatter to unregister.
    *
    * @return {@code this} for builder chain.
    */
   @NotNull
   public ColorManager withoutFormatter(@NotNull final Formatter formatter) {
-    this.formatters.add(formatter);
+    this.update(pipeline ->
+      pipeline.withStages(ColorManager.remove(pipeline.formatters, formatter), pipeline.gradients));
     return this;
   }
 
   /**
    * unregisters the gradient.
    *
-   * @param gradient the gradient to unregisters.
+   * @param gradient the gradient to unregister.
    *
    * @return {@code this} for builder chain.
    */
   @NotNull
   public ColorManager withoutGradient(@NotNull final Gradient gradient) {
-    this.gradients.add(gradient);
+    this.update(pipeline ->
+      pipeline.withStages(pipeline.formatters, ColorManager.remove(pipeline.gradients, gradient)));
     return this;
   }
+
+  /**
+   * updates the pipeline.
+   *
+   * @param function the function to update.
+   */
+  private void update(@NotNull final UnaryOperator<Pipeline> function) {
+    Pipeline current;
+    Pipeline next;
+    do {
+      current = this.pipeline;
+      next = function.apply(current);
+    } while (current != next && !ColorManager.PIPELINE.compareAndSet(this, current, next));
+    if (next.cache != null && next.generation != current.generation) {
+      next.cache.invalidate();
+    }
+  }
+
+  /**
+   * a class that represents tasks which convert a range of the distinct texts of a batch.
+   *
+   * @param <T> type of the converted values.
+   */
+  private static final class BatchTask<T> extends RecursiveTask<Integer> {
+
+    /**
+     * the serial version uid.
+     */
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * the chunk size.
+     */
+    private final int chunk;
+
+    /**
+     * the converted values.
+     */
+    @NotNull
+    private final Object[] converted;
+
+    /**
+     * the end index, exclusive.
+     */
+    private final int end;
+
+    /**
+     * the manager.
+     */
+    @NotNull
+    private final ColorManager manager;
+
+    /**
+     * the start index.
+     */
+    private final int start;
+
+    /**
+     * the target.
+     */
+    @NotNull
+    private final ConversionTarget<T> target;
+
+    /**
+     * the texts.
+     */
+    @NotNull
+    private final List<String> texts;
+
+    /**
+     * ctor.
+     *
+     * @param manager the manager.
+     * @param target the target.
+     * @param texts the texts.
+     * @param converted the converted.
+     * @param start the start.
+     * @param end the end.
+     * @param chunk the chunk.
+     */
+    private BatchTask(@NotNull final ColorManager manager, @NotNull final ConversionTarget<T> target,
+                      @NotNull final List<String> texts, @NotNull final Object[] converted, final int start,
+                      final int end, final int chunk) {
+      this.chunk = chunk;
+      this.converted = converted;
+      this.end = end;
+      this.manager = manager;
+      this.start = start;
+      this.target = target;
+      this.texts = texts;
+    }
+
+    @Override
+    protected Integer compute() {
+      if (this.end - this.start <= this.chunk) {
+        final var scratch = new StringBuilder();
+        for (var index = this.start; index < this.end; index++) {
+          this.converted[index] = this.target.convert(this.manager, this.texts.get(index), scratch);
+        }
+        return 1;
+      }
+      final var middle = this.start + (this.end - this.start) / 2;
+      final var left = new BatchTask<>(this.manager, this.target, this.texts, this.converted, this.start, middle,
+        this.chunk);
+      left.fork();
+      final int right = new BatchTask<>(this.manager, this.target, this.texts, this.converted, middle, this.end,
+        this.chunk).compute();
+      return left.join() + right;
+    }
+  }
+
+  /**
+   * a class that represents management views which read the current metrics of a color manager on every call.
+   */
+  private static final class MetricsView implements ColorManagerMetricsMXBean {
+
+    /**
+     * the manager.
+     */
+    @NotNull
+    private final ColorManager manager;
+
+    /**
+     * ctor.
+     *
+     * @param manager the manager.
+     */
+    private MetricsView(@NotNull final ColorManager manager) {
+      this.manager = manager;
+    }
+
+    /**
+     * creates an empty snapshot.
+     *
+     * @param name the name to create.
+     *
+     * @return a newly created snapshot.
+     */
+    @NotNull
+    private static StageMetrics empty(@NotNull final String name) {
+      return new StageMetrics(name, 0L, 0L, 0L, 0L, 0L);
+    }
+
+    @NotNull
+    @Override
+    public StageMetrics getConvertRGBtoLegacy() {
+      final var metrics = this.manager.pipeline.metrics;
+      return metrics == null ? MetricsView.empty("convertRGBtoLegacy") : metrics.getConvertRGBtoLegacy();
+    }
+
+    @NotNull
+    @Override
+    public StageMetrics getConvertToBukkitFormat() {
+      final var metrics = this.manager.pipeline.metrics;
+      return metrics == null ? MetricsView.empty("convertToBukkitFormat") : metrics.getConvertToBukkitFormat();
+    }
+
+    @NotNull
+    @Override
+    public List<StageMetrics> getFormatters() {
+      final var metrics = this.manager.pipeline.metrics;
+      return metrics == null ? Collections.emptyList() : metrics.getFormatters();
+    }
+
+    @NotNull
+    @Override
+    public List<StageMetrics> getGradients() {
+      final var metrics = this.manager.pipeline.metrics;
+      return metrics == null ? Collections.emptyList() : metrics.getGradients();
+    }
+
+    @Override
+    public void reset() {
+      final var metrics = this.manager.pipeline.metrics;
+      if (metrics != null) {
+        metrics.reset();
+      }
+    }
+  }
+
+  /**
+   * a class that represents immutable pipelines of the registered stages.
+   */
+  private static final class Pipeline {
+
+    /**
+     * the empty pipeline.
+     */
+    private static final Pipeline EMPTY = new Pipeline(new Formatter[0], new Gradient[0], new Object(), null, null);
+
+    /**
+     * the render cache, {@code null} if the render cache is disabled.
+     */
+    @Nullable
+    private final RenderCache cache;
+
+    /**
+     * the formatters.
+     */
+    @NotNull
+    private final Formatter[] formatters;
+
+    /**
+     * the generation of the stages, it changes only when the stages change.
+     */
+    @NotNull
+    private final Object generation;
+
+    /**
+     * the gradients.
+     */
+    @NotNull
+    private final Gradient[] gradients;
+
+    /**
+     * the lexer, {@code null} if a registered stage is not a built-in one.
+     */
+    @Nullable
+    private final Lexer lexer;
+
+    /**
+     * the metrics, {@code null} if the metrics are disabled.
+     */
+    @Nullable
+    private final ColorManagerMetrics metrics;
+
+    /**
+     * the triggers of the formatters and the gradients.
+     */
+    @NotNull
+    private final Triggers triggers;
+
+    /**
+     * ctor.
+     *
+     * @param formatters the formatters.
+     * @param gradients the gradients.
+     * @param generation the generation.
+     * @param metrics the metrics.
+     * @param cache the cache.
+     */
+    private Pipeline(@NotNull final Formatter[] formatters, @NotNull final Gradient[] gradients,
+                     @NotNull final Object generation, @Nullable final ColorManagerMetrics metrics,
+                     @Nullable final RenderCache cache) {
+      this.formatters = formatters;
+      this.gradients = gradients;
+      this.generation = generation;
+      this.metrics = metrics;
+      this.cache = cache;
+      this.lexer = Lexer.of(Arrays.asList(formatters), Arrays.asList(gradients));
+      this.triggers = Triggers.of(formatters, gradients);
+    }
+
+    /**
+     * creates a pipeline with the metrics enabled or disabled.
+     *
+     * @param enabled {@code true} to enable the metrics.
+     *
+     * @return a new pipeline, or {@code this} if the metrics are already enabled or disabled.
+     */
+    @NotNull
+    private Pipeline withMetrics(final boolean enabled) {
+      if (enabled == (this.metrics != null)) {
+        return this;
+      }
+      return new Pipeline(this.formatters, this.gradients, this.generation,
+        enabled ? ColorManagerMetrics.of(this.formatters, this.gradients, null) : null, this.cache);
+    }
+
+    /**
+     * creates a pipeline with the render cache.
+     *
+     * @param maximumWeight the maximum weight to create, {@code 0} to disable the render cache.
+     *
+     * @return a new pipeline.
+     */
+    @NotNull
+    private Pipeline withRenderCache(final long maximumWeight) {
+      return new Pipeline(this.formatters, this.gradients, this.generation, this.metrics,
+        maximumWeight == 0L ? null : new RenderCache(maximumWeight));
+    }
+
+    /**
+     * creates a pipeline with the stages.
+     *
+     * @param formatters the formatters to create.
+     * @param gradients the gradients to create.
+     *
+     * @return a new pipeline, or {@code this} if the stages have not changed.
+     */
+    @NotNull
+    private Pipeline withStages(@NotNull final Formatter[] formatters, @NotNull final Gradient[] gradients) {
+      if (formatters == this.formatters && gradients == this.gradients) {
+        return this;
+      }
+      final var metrics = this.metrics;
+      return new Pipeline(formatters, gradients, new Object(),
+        metrics == null ? null : ColorManagerMetrics.of(formatters, gradients, metrics), this.cache);
+    }
+  }
 }
@@ -0,0 +1,331 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Hasan Demirtaş
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package io.github.portlek.rgb;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * a class that represents the metrics of color managers.
+ * <p>
+ * the counters are {@link LongAdder}s, so recording from many threads does not contend on a single value.
+ */
+public final class ColorManagerMetrics implements ColorManagerMetricsMXBean {
+
+  /**
+   * the convert rgb to legacy counter.
+   */
+  @NotNull
+  private final Counter convertRGBtoLegacy;
+
+  /**
+   * the convert to bukkit format counter.
+   */
+  @NotNull
+  private final Counter convertToBukkitFormat;
+
+  /**
+   * the formatter counters.
+   */
+  @NotNull
+  private final Counter[] formatters;
+
+  /**
+   * the gradient counters.
+   */
+  @NotNull
+  private final Counter[] gradients;
+
+  /**
+   * ctor.
+   *
+   * @param formatters the formatters.
+   * @param gradients the gradients.
+   * @param convertRGBtoLegacy the convert rgb to legacy.
+   * @param convertToBukkitFormat the convert to bukkit format.
+   */
+  private ColorManagerMetrics(@NotNull final Counter[] formatters, @NotNull final Counter[] gradients,
+                              @NotNull final Counter convertRGBtoLegacy,
+                              @NotNull final Counter convertToBukkitFormat) {
+    this.convertRGBtoLegacy = convertRGBtoLegacy;
+    this.convertToBukkitFormat = convertToBukkitFormat;
+    this.formatters = formatters;
+    this.gradients = gradients;
+  }
+
+  /**
+   * creates the metrics for the stages.
+   *
+   * @param formatters the formatters to create.
+   * @param gradients the gradients to create.
+   * @param previous the previous metrics whose counters are kept for the stages that are still registered.
+   *
+   * @return a newly created metrics.
+   */
+  @NotNull
+  static ColorManagerMetrics of(@NotNull final Formatter[] formatters, @NotNull final Gradient[] gradients,
+                                @Nullable final ColorManagerMetrics previous) {
+    if (previous == null) {
+      return new ColorManagerMetrics(ColorManagerMetrics.counters(formatters, new Counter[0]),
+        ColorManagerMetrics.counters(gradients, new Counter[0]), new Counter("convertRGBtoLegacy", null),
+        new Counter("convertToBukkitFormat", null));
+    }
+    return new ColorManagerMetrics(ColorManagerMetrics.counters(formatters, previous.formatters),
+      ColorManagerMetrics.counters(gradients, previous.gradients), previous.convertRGBtoLegacy,
+      previous.convertToBukkitFormat);
+  }
+
+  /**
+   * creates the counters of the stages, every position gets its own counter even if a stage is registered more than
+   * once.
+   *
+   * @param stages the stages to create.
+   * @param previous the previous counters to keep, a counter is kept for at most one position.
+   *
+   * @return counters in the order of the stages.
+   */
+  @NotNull
+  private static Counter[] counters(@NotNull final Object[] stages, @NotNull final Counter[] previous) {
+    final var counters = new Counter[stages.length];
+    final var kept = new boolean[previous.length];
+    for (var index = 0; index < stages.length; index++) {
+      final var stage = stages[index];
+      var found = index < previous.length && previous[index].stage == stage ? index : -1;
+      for (var old = 0; found < 0 && old < previous.length; old++) {
+        if (!kept[old] && previous[old].stage == stage && (old >= stages.length || stages[old] != stage)) {
+          found = old;
+        }
+      }
+      if (found < 0) {
+        counters[index] = new Counter(stage.getClass().getSimpleName(), stage);
+      } else {
+        kept[found] = true;
+        counters[index] = previous[found];
+      }
+    }
+    return counters;
+  }
+
+  /**
+   * obtains the snapshots of the counters.
+   *
+   * @param counters the counters to obtain.
+   *
+   * @return snapshots.
+   */
+  @NotNull
+  private static List<StageMetrics> snapshot(@NotNull final Counter[] counters) {
+    final var snapshots = new ArrayList<StageMetrics>(counters.length);
+    for (final var counter : counters) {
+      snapshots.add(counter.snapshot());
+    }
+    return Collections.unmodifiableList(snapshots);
+  }
+
+  @NotNull
+  @Override
+  public StageMetrics getConvertRGBtoLegacy() {
+    return this.convertRGBtoLegacy.snapshot();
+  }
+
+  @NotNull
+  @Override
+  public StageMetrics getConvertToBukkitFormat() {
+    return this.convertToBukkitFormat.snapshot();
+  }
+
+  @NotNull
+  @Override
+  public List<StageMetrics> getFormatters() {
+    return ColorManagerMetrics.snapshot(this.formatters);
+  }
+
+  @NotNull
+  @Override
+  public List<StageMetrics> getGradients() {
+    return ColorManagerMetrics.snapshot(this.gradients);
+  }
+
+  @Override
+  public void reset() {
+    for (final var counter : this.formatters) {
+      counter.reset();
+    }
+    for (final var counter : this.gradients) {
+      counter.reset();
+    }
+    this.convertRGBtoLegacy.reset();
+    this.convertToBukkitFormat.reset();
+  }
+
+  @Override
+  public String toString() {
+    return "ColorManagerMetrics{formatters=" + this.getFormatters() + ", gradients=" + this.getGradients() +
+      ", convertRGBtoLegacy=" + this.getConvertRGBtoLegacy() + ", convertToBukkitFormat=" +
+      this.getConvertToBukkitFormat() + "}";
+  }
+
+  /**
+   * obtains the convert rgb to legacy counter.
+   *
+   * @return convert rgb to legacy counter.
+   */
+  @NotNull
+  Counter convertRGBtoLegacy() {
+    return this.convertRGBtoLegacy;
+  }
+
+  /**
+   * obtains the convert to bukkit format counter.
+   *
+   * @return convert to bukkit format counter.
+   */
+  @NotNull
+  Counter convertToBukkitFormat() {
+    return this.convertToBukkitFormat;
+  }
+
+  /**
+   * obtains the formatter counter.
+   *
+   * @param index the index to obtain.
+   *
+   * @return formatter counter.
+   */
+  @NotNull
+  Counter formatter(final int index) {
+    return this.formatters[index];
+  }
+
+  /**
+   * obtains the gradient counter.
+   *
+   * @param index the index to obtain.
+   *
+   * @return gradient counter.
+   */
+  @NotNull
+  Counter gradient(final int index) {
+    return this.gradients[index];
+  }
+
+  /**
+   * a class that represents the counters of a stage or an operation.
+   */
+  static final class Counter {
+
+    /**
+     * the chars in.
+     */
+    private final LongAdder charsIn = new LongAdder();
+
+    /**
+     * the chars out.
+     */
+    private final LongAdder charsOut = new LongAdder();
+
+    /**
+     * the invocations.
+     */
+    private final LongAdder invocations = new LongAdder();
+
+    /**
+     * the matches.
+     */
+    private final LongAdder matches = new LongAdder();
+
+    /**
+     * the name.
+     */
+    @NotNull
+    private final String name;
+
+    /**
+     * the nanos.
+     */
+    private final LongAdder nanos = new LongAdder();
+
+    /**
+     * the stage, {@code null} for the operations.
+     */
+    @Nullable
+    private final Object stage;
+
+    /**
+     * ctor.
+     *
+     * @param name the name.
+     * @param stage the stage.
+     */
+    private Counter(@NotNull final String name, @Nullable final Object stage) {
+      this.name = name;
+      this.stage = stage;
+    }
+
+    /**
+     * records an invocation.
+     *
+     * @param charsIn the chars in to record.
+     * @param charsOut the chars out to record.
+     * @param matched the matched to record.
+     * @param nanos the nanos to record.
+     */
+    void record(final int charsIn, final int charsOut, final boolean matched, final long nanos) {
+      this.invocations.increment();
+      if (matched) {
+        this.matches.increment();
+      }
+      this.charsIn.add(charsIn);
+      this.charsOut.add(charsOut);
+      this.nanos.add(nanos);
+    }
+
+    /**
+     * resets the counters.
+     */
+    private void reset() {
+      this.charsIn.reset();
+      this.charsOut.reset();
+      this.invocations.reset();
+      this.matches.reset();
+      this.nanos.reset();
+    }
+
+    /**
+     * obtains the current values.
+     *
+     * @return snapshot.
+     */
+    @NotNull
+    private StageMetrics snapshot() {
+      return new StageMetrics(this.name, this.invocations.sum(), this.matches.sum(), this.charsIn.sum(),
+        this.charsOut.sum(), this.nanos.sum());
+    }
+  }
+}
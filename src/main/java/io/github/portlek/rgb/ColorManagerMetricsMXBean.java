@@ -0,0 +1,73 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Hasan Demirtaş
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package io.github.portlek.rgb;
+
+import java.util.List;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * an interface to determine the management view of the color manager metrics.
+ * <p>
+ * every getter returns the current values, see {@link ColorManager#registerMetrics(String)}.
+ */
+public interface ColorManagerMetricsMXBean {
+
+  /**
+   * obtains the metrics of the {@link ColorManager#convertRGBtoLegacy(String)} calls.
+   *
+   * @return convert rgb to legacy metrics.
+   */
+  @NotNull
+  StageMetrics getConvertRGBtoLegacy();
+
+  /**
+   * obtains the metrics of the {@link ColorManager#convertToBukkitFormat(String, boolean)} calls.
+   *
+   * @return convert to bukkit format metrics.
+   */
+  @NotNull
+  StageMetrics getConvertToBukkitFormat();
+
+  /**
+   * obtains the metrics of the formatters in the order of their registration.
+   *
+   * @return formatter metrics.
+   */
+  @NotNull
+  List<StageMetrics> getFormatters();
+
+  /**
+   * obtains the metrics of the gradients in the order of their registration.
+   *
+   * @return gradient metrics.
+   */
+  @NotNull
+  List<StageMetrics> getGradients();
+
+  /**
+   * resets all the metrics to zero.
+   */
+  void reset();
+}
@@ -0,0 +1,192 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Hasan Demirtaş
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package io.github.portlek.rgb;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * an enum class that contains distance metrics to downsample rgb colors into legacy colors.
+ * <p>
+ * each metric fills its own lookup table lazily. the table splits the rgb space into 8x8x8 cells, a cell which maps
+ * to a single legacy color is stored as that color and the rest keep one entry per rgb value, so a lookup is exact
+ * and costs at most two array reads.
+ */
+public enum ColorMetric {
+  /**
+   * the chebyshev distance, the largest difference between the channels.
+   */
+  CHEBYSHEV {
+    @Override
+    public int distance(final int red, final int green, final int blue, @NotNull final ChatFormat format) {
+      final var redDiff = Math.abs(format.getRed() - red);
+      final var greenDiff = Math.abs(format.getGreen() - green);
+      final var blueDiff = Math.abs(format.getBlue() - blue);
+      return Math.max(redDiff, Math.max(greenDiff, blueDiff));
+    }
+  },
+  /**
+   * the squared euclidean distance.
+   */
+  EUCLIDEAN {
+    @Override
+    public int distance(final int red, final int green, final int blue, @NotNull final ChatFormat format) {
+      final var redDiff = format.getRed() - red;
+      final var greenDiff = format.getGreen() - green;
+      final var blueDiff = format.getBlue() - blue;
+      return redDiff * redDiff + greenDiff * greenDiff + blueDiff * blueDiff;
+    }
+  },
+  /**
+   * the "redmean" weighted euclidean distance, which approximates how the human eye perceives the difference.
+   */
+  PERCEPTUAL {
+    @Override
+    public int distance(final int red, final int green, final int blue, @NotNull final ChatFormat format) {
+      final var redMean = format.getRed() + red >> 1;
+      final var redDiff = format.getRed() - red;
+      final var greenDiff = format.getGreen() - green;
+      final var blueDiff = format.getBlue() - blue;
+      return ((512 + redMean) * redDiff * redDiff >> 8) + 4 * greenDiff * greenDiff +
+        ((767 - redMean) * blueDiff * blueDiff >> 8);
+    }
+  };
+
+  /**
+   * the legacy colors.
+   */
+  private static final ChatFormat[] COLORS = Arrays.copyOf(ChatFormat.VALUES, 16);
+
+  /**
+   * the cells that map to a single legacy color.
+   */
+  private static final byte[][] UNIFORM = new byte[ColorMetric.COLORS.length][];
+
+  /**
+   * the cells.
+   */
+  private final AtomicReferenceArray<byte[]> cells = new AtomicReferenceArray<>(1 << 15);
+
+  static {
+    for (var index = 0; index < ColorMetric.UNIFORM.length; index++) {
+      ColorMetric.UNIFORM[index] = new byte[]{(byte) index};
+    }
+  }
+
+  /**
+   * gets the closest legacy color.
+   *
+   * @param rgb the packed rgb to get.
+   *
+   * @return closest legacy color.
+   */
+  @NotNull
+  public ChatFormat closest(final int rgb) {
+    final var index = rgb >> 9 & 0x7C00 | rgb >> 6 & 0x3E0 | rgb >> 3 & 0x1F;
+    var cell = this.cells.get(index);
+    if (cell == null) {
+      cell = this.fill(index);
+    }
+    if (cell.length == 1) {
+      return ColorMetric.COLORS[cell[0]];
+    }
+    return ColorMetric.COLORS[cell[rgb >> 10 & 0x1C0 | rgb >> 5 & 0x38 | rgb & 0x7]];
+  }
+
+  /**
+   * gets the closest legacy color.
+   *
+   * @param red the red to get.
+   * @param green the green to get.
+   * @param blue the blue to get.
+   *
+   * @return closest legacy color.
+   */
+  @NotNull
+  public ChatFormat closest(final int red, final int green, final int blue) {
+    return this.closest((red & 0xFF) << 16 | (green & 0xFF) << 8 | blue & 0xFF);
+  }
+
+  /**
+   * calculates the distance between the color and the legacy color.
+   *
+   * @param red the red to calculate.
+   * @param green the green to calculate.
+   * @param blue the blue to calculate.
+   * @param format the format to calculate.
+   *
+   * @return distance, smaller is closer.
+   */
+  public abstract int distance(int red, int green, int blue, @NotNull ChatFormat format);
+
+  /**
+   * fills the cell.
+   *
+   * @param index the index to fill.
+   *
+   * @return filled cell.
+   */
+  @NotNull
+  private byte[] fill(final int index) {
+    final var red = index >> 10 << 3;
+    final var green = (index >> 5 & 0x1F) << 3;
+    final var blue = (index & 0x1F) << 3;
+    final var cell = new byte[512];
+    var uniform = true;
+    for (var sub = 0; sub < cell.length; sub++) {
+      cell[sub] = this.scan(red | sub >> 6, green | sub >> 3 & 0x7, blue | sub & 0x7);
+      uniform &= cell[sub] == cell[0];
+    }
+    final var result = uniform
+      ? ColorMetric.UNIFORM[cell[0]]
+      : cell;
+    this.cells.lazySet(index, result);
+    return result;
+  }
+
+  /**
+   * scans all legacy colors to find the closest one.
+   *
+   * @param red the red to scan.
+   * @param green the green to scan.
+   * @param blue the blue to scan.
+   *
+   * @return index of the closest legacy color, the first one wins ties.
+   */
+  private byte scan(final int red, final int green, final int blue) {
+    var closest = 0;
+    var closestDistance = Integer.MAX_VALUE;
+    for (var index = 0; index < ColorMetric.COLORS.length; index++) {
+      final var distance = this.distance(red, green, blue, ColorMetric.COLORS[index]);
+      if (distance < closestDistance) {
+        closestDistance = distance;
+        closest = index;
+      }
+    }
+    return (byte) closest;
+  }
+}
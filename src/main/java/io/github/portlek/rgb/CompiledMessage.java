@@ -0,0 +1,788 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Hasan Demirtaş
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package io.github.portlek.rgb;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * a class that represents compiled messages.
+ * <p>
+ * the formatters, gradients and legacy codes of the text are parsed once when the message is compiled and the
+ * {@literal %name%} placeholders are kept as slots, the offsets of the slots are kept apart from the text so any
+ * character of the text is rendered as it is. rendering only writes the slot values into the pre-rendered parts,
+ * except for the gradients that contain a placeholder, those are colored again since their colors depend on the length
+ * of the values.
+ * <p>
+ * the values are inserted as they are, they are not parsed for formats, neither in a gradient nor out of one, a code
+ * right before a value ends there. so the rendered message is the same as the one which is converted from the text
+ * with the values in place of the placeholders as long as the values do not contain codes themselves.
+ * <p>
+ * compiled messages are immutable and can be rendered from any thread.
+ */
+public final class CompiledMessage {
+
+  /**
+   * the placeholder pattern.
+   */
+  private static final Pattern PLACEHOLDER = Pattern.compile("%([A-Za-z0-9_.:-]+)%");
+
+  /**
+   * the bukkit target.
+   */
+  @NotNull
+  private final Target bukkit;
+
+  /**
+   * the bukkit text which has been rendered before the dynamic part.
+   */
+  @NotNull
+  private final Text bukkitText;
+
+  /**
+   * the component target.
+   */
+  @NotNull
+  private final Target component;
+
+  /**
+   * the components which have been completed before the dynamic part.
+   */
+  @NotNull
+  private final List<Run> components;
+
+  /**
+   * the text of the component which has not been completed before the dynamic part.
+   */
+  @NotNull
+  private final Text current;
+
+  /**
+   * the count of the components which are rendered in the legacy text, the components after them may be dropped
+   * when their slots are rendered empty.
+   */
+  private final int fixed;
+
+  /**
+   * the legacy key of the formatting after the legacy text.
+   */
+  private final int legacyFormatting;
+
+  /**
+   * the legacy text which has been rendered before the dynamic part.
+   */
+  @NotNull
+  private final Text legacyText;
+
+  /**
+   * the manager.
+   */
+  @NotNull
+  private final ColorManager manager;
+
+  /**
+   * the parser which has stopped before the dynamic part, it is only resumed and never pushed again.
+   */
+  @NotNull
+  private final ComponentParser parser;
+
+  /**
+   * the slots.
+   */
+  @NotNull
+  private final List<String> slots;
+
+  /**
+   * the text.
+   */
+  @NotNull
+  private final String text;
+
+  /**
+   * ctor.
+   *
+   * @param manager the manager.
+   * @param text the text.
+   * @param slots the slots.
+   */
+  private CompiledMessage(@NotNull final ColorManager manager, @NotNull final String text,
+                          @NotNull final Map<String, Integer> slots) {
+    this.manager = manager;
+    this.text = text;
+    this.slots = List.copyOf(slots.keySet());
+    this.bukkit = Target.of(manager, manager.applyFormats(text, true), slots);
+    this.bukkitText = this.bukkit.toBukkitText();
+    this.component = Target.of(manager, manager.applyFormats(Legacy.color(text), true), slots);
+    final var target = this.component;
+    final var runs = new ArrayList<ChatComponent>();
+    this.parser = new ComponentParser(new ChatComponent(), runs);
+    final var owners = new int[target.count];
+    final var offsets = new int[target.count];
+    var last = 0;
+    for (var i = 0; i < target.count; i++) {
+      this.parser.push(target.prefix, last, target.starts[i]);
+      offsets[i] = this.parser.slot();
+      owners[i] = runs.size();
+      last = target.ends[i];
+    }
+    this.parser.push(target.prefix, last, target.prefix.length());
+    final var compiled = new ArrayList<Run>(runs.size());
+    var slot = 0;
+    var fixed = -1;
+    for (var i = 0; i < runs.size(); i++) {
+      final var run = runs.get(i);
+      final var runText = run.getText() == null ? "" : run.getText();
+      if (fixed < 0 && runText.isEmpty()) {
+        fixed = i;
+      }
+      final var builder = new TextBuilder();
+      slot = target.slice(builder, runText, owners, offsets, slot, i);
+      compiled.add(new Run(run.copyFormatting(), builder.build()));
+    }
+    this.components = Collections.unmodifiableList(compiled);
+    final var current = new TextBuilder();
+    target.slice(current, this.parser.text(), owners, offsets, slot, runs.size());
+    this.current = current.build();
+    this.fixed = fixed < 0 ? compiled.size() : fixed;
+    final var legacy = new TextBuilder();
+    final var codes = new StringBuilder();
+    var formatting = new ChatComponent("").append(codes, 0);
+    for (var i = 0; i < this.fixed; i++) {
+      final var run = compiled.get(i);
+      formatting = run.style.copyFormatting().withText("").append(codes, formatting);
+      legacy.append(codes, 0, codes.length()).append(run.text);
+      codes.setLength(0);
+    }
+    legacy.append(codes, 0, codes.length());
+    this.legacyFormatting = formatting;
+    this.legacyText = legacy.build();
+  }
+
+  /**
+   * compiles the text.
+   *
+   * @param manager the manager to compile.
+   * @param text the text to compile.
+   *
+   * @return a newly compiled message.
+   */
+  @NotNull
+  static CompiledMessage compile(@NotNull final ColorManager manager, @NotNull final String text) {
+    final var slots = new LinkedHashMap<String, Integer>();
+    final var matcher = CompiledMessage.PLACEHOLDER.matcher(text);
+    while (matcher.find()) {
+      slots.putIfAbsent(matcher.group(1), slots.size());
+    }
+    return new CompiledMessage(manager, text, slots);
+  }
+
+  /**
+   * obtains the slots.
+   *
+   * @return the placeholder names in the order that the values are expected.
+   */
+  @NotNull
+  public List<String> getSlots() {
+    return this.slots;
+  }
+
+  /**
+   * obtains the text.
+   *
+   * @return the text that has been compiled.
+   */
+  @NotNull
+  public String getText() {
+    return this.text;
+  }
+
+  /**
+   * renders the message as text in bukkit format.
+   *
+   * @param values the values to render in the order of {@link #getSlots()}, the missing ones are rendered as the
+   *   placeholders themselves.
+   *
+   * @return rendered text, same as {@link ColorManager#convertToBukkitFormat(String, boolean)} with rgb support.
+   */
+  @NotNull
+  public String toBukkitText(@NotNull final String... values) {
+    final var resolved = this.resolve(values);
+    final var builder = new StringBuilder(this.text.length() + 32);
+    this.bukkitText.render(builder, resolved);
+    if (this.bukkit.tail != null) {
+      final var chars = new StringBuilder();
+      final var tail = ColorManager.convertHexToBukkit(this.bukkit.renderTail(this.manager, resolved, chars));
+      var next = 0;
+      for (var i = 0; i < tail.length(); i++) {
+        final var c = tail.charAt(i);
+        builder.append(c == this.bukkit.mask ? chars.charAt(next++) : c);
+      }
+    }
+    return builder.toString();
+  }
+
+  /**
+   * renders the message as text in bukkit format.
+   *
+   * @param values the values to render.
+   *
+   * @return rendered text, same as {@link ColorManager#convertToBukkitFormat(String, boolean)} with rgb support.
+   */
+  @NotNull
+  public String toBukkitText(@NotNull final Map<String, String> values) {
+    return this.toBukkitText(this.values(values));
+  }
+
+  /**
+   * renders the message as chat component.
+   *
+   * @param values the values to render in the order of {@link #getSlots()}, the missing ones are rendered as the
+   *   placeholders themselves.
+   *
+   * @return a newly rendered chat component, same as {@link ChatComponent#fromColoredText(String, ColorManager)}.
+   */
+  @NotNull
+  public ChatComponent toComponent(@NotNull final String... values) {
+    return new ChatComponent("").withExtra(this.renderComponents(this.resolve(values), 0));
+  }
+
+  /**
+   * renders the message as chat component.
+   *
+   * @param values the values to render.
+   *
+   * @return a newly rendered chat component, same as {@link ChatComponent#fromColoredText(String, ColorManager)}.
+   */
+  @NotNull
+  public ChatComponent toComponent(@NotNull final Map<String, String> values) {
+    return this.toComponent(this.values(values));
+  }
+
+  /**
+   * renders the message as legacy text.
+   *
+   * @param values the values to render in the order of {@link #getSlots()}, the missing ones are rendered as the
+   *   placeholders themselves.
+   *
+   * @return rendered text, same as {@link ColorManager#convertToBukkitFormat(String, boolean)} without rgb support.
+   */
+  @NotNull
+  public String toLegacyText(@NotNull final String... values) {
+    final var resolved = this.resolve(values);
+    final var builder = new StringBuilder(this.text.length() + 32);
+    this.legacyText.render(builder, resolved);
+    var formatting = this.legacyFormatting;
+    for (final var run : this.renderComponents(resolved, this.fixed)) {
+      formatting = run.append(builder, formatting);
+    }
+    return builder.toString();
+  }
+
+  /**
+   * renders the message as legacy text.
+   *
+   * @param values the values to render.
+   *
+   * @return rendered text, same as {@link ColorManager#convertToBukkitFormat(String, boolean)} without rgb support.
+   */
+  @NotNull
+  public String toLegacyText(@NotNull final Map<String, String> values) {
+    return this.toLegacyText(this.values(values));
+  }
+
+  @NotNull
+  @Override
+  public String toString() {
+    return this.text;
+  }
+
+  /**
+   * renders the components, the completed ones whose slots are rendered empty are dropped like the parser drops the
+   * empty ones.
+   *
+   * @param values the values to render.
+   * @param from the index of the first completed component to render.
+   *
+   * @return rendered components.
+   */
+  @NotNull
+  private List<ChatComponent> renderComponents(@NotNull final String[] values, final int from) {
+    final var rendered = new ArrayList<ChatComponent>(this.components.size() - from + 1);
+    for (var i = from; i < this.components.size(); i++) {
+      final var run = this.components.get(i);
+      final var runText = run.text.render(values);
+      if (!runText.isEmpty()) {
+        rendered.add(run.style.copyFormatting().withText(runText));
+      }
+    }
+    final var parser = this.parser.resume(rendered, this.current.render(values));
+    final var target = this.component;
+    if (target.tail != null) {
+      final var chars = new StringBuilder();
+      final var tail = target.renderTail(this.manager, values, chars);
+      var last = 0;
+      var next = 0;
+      for (var i = 0; i < tail.length(); i++) {
+        if (tail.charAt(i) == target.mask) {
+          parser.push(tail, last, i);
+          parser.verbatim(chars.subSequence(next, ++next));
+          last = i + 1;
+        }
+      }
+      parser.push(tail, last, tail.length());
+    }
+    parser.finish();
+    return rendered;
+  }
+
+  /**
+   * resolves the values, the missing ones are rendered as the placeholders themselves.
+   *
+   * @param values the values to resolve.
+   *
+   * @return resolved values.
+   */
+  @NotNull
+  private String[] resolve(@NotNull final String[] values) {
+    final var resolved = Arrays.copyOf(values, this.slots.size());
+    for (var i = 0; i < resolved.length; i++) {
+      if (resolved[i] == null) {
+        resolved[i] = '%' + this.slots.get(i) + '%';
+      }
+    }
+    return resolved;
+  }
+
+  /**
+   * converts the values into an array in the order of the slots.
+   *
+   * @param values the values to convert.
+   *
+   * @return converted values.
+   */
+  @NotNull
+  private String[] values(@NotNull final Map<String, String> values) {
+    final var array = new String[this.slots.size()];
+    for (var i = 0; i < array.length; i++) {
+      array[i] = values.get(this.slots.get(i));
+    }
+    return array;
+  }
+
+  /**
+   * a class that represents pre-rendered components.
+   */
+  private static final class Run {
+
+    /**
+     * the style.
+     */
+    @NotNull
+    private final ChatComponent style;
+
+    /**
+     * the text.
+     */
+    @NotNull
+    private final Text text;
+
+    /**
+     * ctor.
+     *
+     * @param style the style.
+     * @param text the text.
+     */
+    private Run(@NotNull final ChatComponent style, @NotNull final Text text) {
+      this.style = style;
+      this.text = text;
+    }
+  }
+
+  /**
+   * a class that represents formatted messages for a target.
+   * <p>
+   * the formatted message is split in front of the first gradient which contains a placeholder. the prefix is
+   * rendered once and the tail is colored again on every render. the values in the tail are colored with a mask
+   * character which does not occur in the tail and the masks are replaced with the characters of the values after
+   * that, so the values stay as they are.
+   */
+  private static final class Target {
+
+    /**
+     * the count of the placeholders in the prefix.
+     */
+    private final int count;
+
+    /**
+     * the ends of the placeholders.
+     */
+    @NotNull
+    private final int[] ends;
+
+    /**
+     * the slot indices of the placeholders.
+     */
+    @NotNull
+    private final int[] indices;
+
+    /**
+     * the mask.
+     */
+    private final char mask;
+
+    /**
+     * the prefix.
+     */
+    @NotNull
+    private final String prefix;
+
+    /**
+     * the starts of the placeholders, the ones in the tail start from the start of the tail.
+     */
+    @NotNull
+    private final int[] starts;
+
+    /**
+     * the tail which contains the placeholders as they are.
+     */
+    @Nullable
+    private final String tail;
+
+    /**
+     * the total count of the placeholders.
+     */
+    private final int total;
+
+    /**
+     * ctor.
+     *
+     * @param prefix the prefix.
+     * @param tail the tail.
+     * @param mask the mask.
+     * @param starts the starts.
+     * @param ends the ends.
+     * @param indices the indices.
+     * @param count the count.
+     * @param total the total.
+     */
+    private Target(@NotNull final String prefix, @Nullable final String tail, final char mask,
+                   @NotNull final int[] starts, @NotNull final int[] ends, @NotNull final int[] indices,
+                   final int count, final int total) {
+      this.prefix = prefix;
+      this.tail = tail;
+      this.mask = mask;
+      this.starts = starts;
+      this.ends = ends;
+      this.indices = indices;
+      this.count = count;
+      this.total = total;
+    }
+
+    /**
+     * creates a target from the text which has been formatted with ignoring placeholders.
+     *
+     * @param manager the manager to create.
+     * @param formatted the formatted to create.
+     * @param slots the slots to create.
+     *
+     * @return a newly created target.
+     */
+    @NotNull
+    private static Target of(@NotNull final ColorManager manager, @NotNull final String formatted,
+                             @NotNull final Map<String, Integer> slots) {
+      var mask = '\uE000';
+      while (formatted.indexOf(mask) >= 0) {
+        mask++;
+      }
+      final var masked = new StringBuilder(formatted);
+      final var matcher = CompiledMessage.PLACEHOLDER.matcher(formatted);
+      var starts = new int[4];
+      var ends = new int[4];
+      var indices = new int[4];
+      var total = 0;
+      while (matcher.find()) {
+        if (total == starts.length) {
+          starts = Arrays.copyOf(starts, total << 1);
+          ends = Arrays.copyOf(ends, total << 1);
+          indices = Arrays.copyOf(indices, total << 1);
+        }
+        starts[total] = matcher.start();
+        ends[total] = matcher.end();
+        indices[total++] = slots.get(matcher.group(1));
+        for (var i = matcher.start(); i < matcher.end(); i++) {
+          masked.setCharAt(i, mask);
+        }
+      }
+      final var before = masked.toString();
+      final var after = manager.applyGradients(before, false);
+      var split = 0;
+      final var length = Math.min(before.length(), after.length());
+      while (split < length && before.charAt(split) == after.charAt(split)) {
+        split++;
+      }
+      if (split == before.length() && split == after.length()) {
+        return new Target(formatted, null, mask, starts, ends, indices, total, total);
+      }
+      while (split > 0 && before.charAt(split - 1) == '\u00a7') {
+        split--;
+      }
+      var count = 0;
+      while (count < total && starts[count] < split) {
+        count++;
+      }
+      for (var i = count; i < total; i++) {
+        starts[i] -= split;
+        ends[i] -= split;
+      }
+      return new Target(formatted.substring(0, split), formatted.substring(split), mask, starts, ends, indices,
+        count, total);
+    }
+
+    /**
+     * renders the tail, the target must have a tail.
+     *
+     * @param manager the manager to render.
+     * @param values the values to render.
+     * @param chars the chars to collect the characters of the values in the order of the masks.
+     *
+     * @return rendered tail with masks in place of the characters of the values.
+     */
+    @NotNull
+    private String renderTail(@NotNull final ColorManager manager, @NotNull final String[] values,
+                              @NotNull final StringBuilder chars) {
+      final var tail = String.valueOf(this.tail);
+      final var builder = new StringBuilder(tail.length() + 16);
+      var last = 0;
+      for (var i = this.count; i < this.total; i++) {
+        builder.append(tail, last, this.starts[i]);
+        final var value = values[this.indices[i]];
+        for (var c = 0; c < value.length(); c++) {
+          builder.append(this.mask);
+        }
+        chars.append(value);
+        last = this.ends[i];
+      }
+      builder.append(tail, last, tail.length());
+      return manager.applyGradients(builder.toString(), false);
+    }
+
+    /**
+     * appends the text of the component into the builder with the slots that the component owns.
+     *
+     * @param builder the builder to append.
+     * @param text the text to append.
+     * @param owners the owners of the slots.
+     * @param offsets the offsets of the slots in the text of their owners.
+     * @param from the index of the first slot that has not been appended.
+     * @param owner the index of the component.
+     *
+     * @return index of the first slot that has not been appended.
+     */
+    private int slice(@NotNull final TextBuilder builder, @NotNull final String text, @NotNull final int[] owners,
+                      @NotNull final int[] offsets, final int from, final int owner) {
+      var slot = from;
+      var last = 0;
+      while (slot < owners.length && owners[slot] == owner) {
+        builder.append(text, last, offsets[slot]).slot(this.indices[slot]);
+        last = offsets[slot++];
+      }
+      builder.append(text, last, text.length());
+      return slot;
+    }
+
+    /**
+     * creates the bukkit text of the prefix.
+     *
+     * @return a newly created text.
+     */
+    @NotNull
+    private Text toBukkitText() {
+      final var builder = new TextBuilder();
+      var last = 0;
+      for (var i = 0; i < this.count; i++) {
+        final var part = ColorManager.convertHexToBukkit(this.prefix.substring(last, this.starts[i]));
+        builder.append(part, 0, part.length()).slot(this.indices[i]);
+        last = this.ends[i];
+      }
+      final var part = ColorManager.convertHexToBukkit(this.prefix.substring(last));
+      return builder.append(part, 0, part.length()).build();
+    }
+  }
+
+  /**
+   * a class that represents texts with slots.
+   */
+  private static final class Text {
+
+    /**
+     * the parts, the slots are placed between them.
+     */
+    @NotNull
+    private final String[] parts;
+
+    /**
+     * the slots.
+     */
+    @NotNull
+    private final int[] slots;
+
+    /**
+     * ctor.
+     *
+     * @param parts the parts.
+     * @param slots the slots.
+     */
+    private Text(@NotNull final String[] parts, @NotNull final int[] slots) {
+      this.parts = parts.clone();
+      this.slots = slots.clone();
+    }
+
+    /**
+     * renders the text.
+     *
+     * @param values the values to render.
+     *
+     * @return rendered text.
+     */
+    @NotNull
+    private String render(@NotNull final String[] values) {
+      if (this.slots.length == 0) {
+        return this.parts[0];
+      }
+      final var builder = new StringBuilder();
+      this.render(builder, values);
+      return builder.toString();
+    }
+
+    /**
+     * renders the text into the builder.
+     *
+     * @param builder the builder to render.
+     * @param values the values to render.
+     */
+    private void render(@NotNull final StringBuilder builder, @NotNull final String[] values) {
+      builder.append(this.parts[0]);
+      for (var i = 0; i < this.slots.length; i++) {
+        builder.append(values[this.slots[i]]).append(this.parts[i + 1]);
+      }
+    }
+  }
+
+  /**
+   * a class that represents builders of texts with slots.
+   */
+  private static final class TextBuilder {
+
+    /**
+     * the part which is being built.
+     */
+    private final StringBuilder part = new StringBuilder();
+
+    /**
+     * the parts.
+     */
+    private final List<String> parts = new ArrayList<>();
+
+    /**
+     * the count.
+     */
+    private int count;
+
+    /**
+     * the slots.
+     */
+    @NotNull
+    private int[] slots = new int[4];
+
+    /**
+     * appends the characters.
+     *
+     * @param text the text to append.
+     * @param from the from to append.
+     * @param to the to to append.
+     *
+     * @return {@code this} for builder chain.
+     */
+    @NotNull
+    private TextBuilder append(@NotNull final CharSequence text, final int from, final int to) {
+      this.part.append(text, from, to);
+      return this;
+    }
+
+    /**
+     * appends the text.
+     *
+     * @param text the text to append.
+     *
+     * @return {@code this} for builder chain.
+     */
+    @NotNull
+    private TextBuilder append(@NotNull final Text text) {
+      this.part.append(text.parts[0]);
+      for (var i = 0; i < text.slots.length; i++) {
+        this.slot(text.slots[i]).part.append(text.parts[i + 1]);
+      }
+      return this;
+    }
+
+    /**
+     * builds the text.
+     *
+     * @return a newly built text.
+     */
+    @NotNull
+    private Text build() {
+      final var parts = new ArrayList<>(this.parts);
+      parts.add(this.part.toString());
+      return new Text(parts.toArray(String[]::new), Arrays.copyOf(this.slots, this.count));
+    }
+
+    /**
+     * appends a slot.
+     *
+     * @param slot the slot to append.
+     *
+     * @return {@code this} for builder chain.
+     */
+    @NotNull
+    private TextBuilder slot(final int slot) {
+      this.parts.add(this.part.toString());
+      this.part.setLength(0);
+      if (this.count == this.slots.length) {
+        this.slots = Arrays.copyOf(this.slots, this.count << 1);
+      }
+      this.slots[this.count++] = slot;
+      return this;
+    }
+  }
+}
@@ -0,0 +1,381 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Hasan Demirtaş
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package io.github.portlek.rgb;
+
+import java.nio.CharBuffer;
+import java.util.List;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * a class that represents streaming parsers which turn formatted text into chat components.
+ * <p>
+ * the characters may arrive in any number of pieces, a hex code that is cut off at the end of a piece is kept pending
+ * until the characters after it arrive, so the components are the same as the ones that are parsed from the whole
+ * text at once.
+ */
+final class ComponentParser {
+
+  /**
+   * the length of a hex code.
+   */
+  private static final int HEX_LENGTH = 7;
+
+  /**
+   * the length of a hex code that forces its legacy color.
+   */
+  private static final int LEGACY_HEX_LENGTH = 9;
+
+  /**
+   * the components.
+   */
+  @NotNull
+  private final List<ChatComponent> components;
+
+  /**
+   * the pending characters of a hex code, starting with its {@code #}.
+   */
+  private final char[] pending = new char[ComponentParser.LEGACY_HEX_LENGTH];
+
+  /**
+   * the view of the pending characters.
+   */
+  private final CharBuffer view = CharBuffer.wrap(this.pending);
+
+  /**
+   * the text of the current component.
+   */
+  private final StringBuilder builder = new StringBuilder();
+
+  /**
+   * the current component.
+   */
+  @NotNull
+  private ChatComponent component;
+
+  /**
+   * the pending count.
+   */
+  private int count;
+
+  /**
+   * the kept, {@code true} if the current component is added even if its text stays empty.
+   */
+  private boolean kept;
+
+  /**
+   * the section, {@code true} if the next character is the code of a {@code \u00a7}.
+   */
+  private boolean section;
+
+  /**
+   * ctor.
+   *
+   * @param style the style to start with, it is also the component that takes the first characters.
+   * @param components the components to add.
+   */
+  ComponentParser(@NotNull final ChatComponent style, @NotNull final List<ChatComponent> components) {
+    this.component = style;
+    this.components = components;
+  }
+
+  /**
+   * parses the six characters after the {@code #} as a hex number.
+   *
+   * @param text the text to parse.
+   * @param at the index of the {@code #}.
+   *
+   * @return packed rgb, or {@code -1} if the characters are not a hex number.
+   */
+  private static int hex(@NotNull final CharSequence text, final int at) {
+    var index = at + 1;
+    final var sign = text.charAt(index);
+    if (sign == '-' || sign == '+') {
+      index++;
+    }
+    var rgb = 0;
+    for (; index < at + ComponentParser.HEX_LENGTH; index++) {
+      final var digit = Character.digit(text.charAt(index), 16);
+      if (digit < 0) {
+        return -1;
+      }
+      rgb = rgb << 4 | digit;
+    }
+    return (sign == '-' ? -rgb : rgb) & 0xFFFFFF;
+  }
+
+  /**
+   * finishes the parsing.
+   *
+   * @return the last component which has been added.
+   */
+  @NotNull
+  ChatComponent finish() {
+    this.resolve(true);
+    this.component.withText(this.builder.toString());
+    this.components.add(this.component);
+    return this.component;
+  }
+
+  /**
+   * creates a parser that continues where this one stopped, the text of the current component is replaced with the
+   * text.
+   *
+   * @param components the components to add.
+   * @param text the text of the current component.
+   *
+   * @return a new parser.
+   */
+  @NotNull
+  ComponentParser resume(@NotNull final List<ChatComponent> components, @NotNull final String text) {
+    final var parser = new ComponentParser(this.component.copyFormatting(), components);
+    parser.builder.append(text);
+    System.arraycopy(this.pending, 0, parser.pending, 0, this.count);
+    parser.count = this.count;
+    parser.section = this.section;
+    return parser;
+  }
+
+  /**
+   * marks a slot in the current component, a pending code before it is resolved as if the text ended there and the
+   * component is added even if nothing else is appended to it.
+   *
+   * @return the offset of the slot in the text of the current component.
+   */
+  int slot() {
+    this.verbatim("");
+    this.kept = true;
+    return this.builder.length();
+  }
+
+  /**
+   * obtains the text of the current component.
+   *
+   * @return the text of the current component.
+   */
+  @NotNull
+  String text() {
+    return this.builder.toString();
+  }
+
+  /**
+   * appends the value to the current component as it is, a pending code before it is resolved as if the text ended
+   * there.
+   *
+   * @param value the value to append.
+   */
+  void verbatim(@NotNull final CharSequence value) {
+    this.resolve(true);
+    this.section = false;
+    this.builder.append(value);
+  }
+
+  /**
+   * pushes the character.
+   *
+   * @param c the c to push.
+   */
+  void push(final char c) {
+    if (this.count > 0) {
+      this.pending[this.count++] = c;
+      this.resolve(false);
+    } else if (this.section) {
+      this.section = false;
+      this.code(c);
+    } else if (c == '\u00a7') {
+      this.section = true;
+    } else if (c == '#') {
+      this.pending[0] = c;
+      this.count = 1;
+    } else {
+      this.builder.append(c);
+    }
+  }
+
+  /**
+   * pushes the characters, runs of plain characters are appended at once and the hex codes that are not cut off at the
+   * end are read in place.
+   *
+   * @param sequence the sequence to push.
+   * @param from the from to push.
+   * @param to the to to push.
+   */
+  void push(@NotNull final CharSequence sequence, final int from, final int to) {
+    var index = from;
+    while (index < to) {
+      if (this.count == 0 && !this.section) {
+        final var start = index;
+        var c = sequence.charAt(index);
+        while (c != '\u00a7' && c != '#') {
+          if (++index == to) {
+            break;
+          }
+          c = sequence.charAt(index);
+        }
+        if (index > start) {
+          this.builder.append(sequence, start, index);
+          continue;
+        }
+        if (c == '#' && to - index >= ComponentParser.LEGACY_HEX_LENGTH) {
+          index = this.readHex(sequence, index);
+          continue;
+        }
+      }
+      this.push(sequence.charAt(index++));
+    }
+  }
+
+  /**
+   * applies the code of a {@code \u00a7}.
+   *
+   * @param code the code to apply.
+   */
+  private void code(final char code) {
+    final var format = ChatFormat.getByCharOrNull(code >= 'A' && code <= 'Z' ? (char) (code + ' ') : code);
+    if (format == null) {
+      return;
+    }
+    if (this.builder.length() > 0 || this.kept) {
+      this.component.withText(this.builder.toString());
+      this.components.add(this.component);
+      this.component = this.component.copyFormatting();
+      this.builder.setLength(0);
+      this.kept = false;
+    }
+    switch (format) {
+      case BOLD:
+        this.component.withBold(true);
+        break;
+      case ITALIC:
+        this.component.withItalic(true);
+        break;
+      case UNDERLINE:
+        this.component.withUnderlined(true);
+        break;
+      case STRIKETHROUGH:
+        this.component.withStrikethrough(true);
+        break;
+      case OBFUSCATED:
+        this.component.withObfuscated(true);
+        break;
+      case RESET:
+        this.component = new ChatComponent();
+        this.component.withColor(TextColor.of(ChatFormat.WHITE));
+        break;
+      default:
+        this.component = new ChatComponent();
+        this.component.withColor(TextColor.of(format));
+        break;
+    }
+  }
+
+  /**
+   * starts a component with the color.
+   *
+   * @param color the color to start.
+   */
+  private void color(@NotNull final TextColor color) {
+    if (this.builder.length() > 0 || this.kept) {
+      this.component.withText(this.builder.toString());
+      this.components.add(this.component);
+      this.builder.setLength(0);
+      this.kept = false;
+    }
+    this.component = new ChatComponent();
+    this.component.withColor(color);
+  }
+
+  /**
+   * reads the hex code at the index, the text must have enough characters for a hex code that forces its legacy color.
+   *
+   * @param text the text to read.
+   * @param index the index of the {@code #}.
+   *
+   * @return index of the first character after the hex code, or after the {@code #} if there is no hex code.
+   */
+  private int readHex(@NotNull final CharSequence text, final int index) {
+    final var rgb = ComponentParser.hex(text, index);
+    if (rgb < 0) {
+      this.builder.append('#');
+      return index + 1;
+    }
+    final var legacy = text.charAt(index + ComponentParser.HEX_LENGTH) == '|'
+      ? ChatFormat.getByCharOrNull(text.charAt(index + ComponentParser.HEX_LENGTH + 1))
+      : null;
+    this.color(TextColor.ofHex(rgb, legacy));
+    return index + (legacy == null ? ComponentParser.HEX_LENGTH : ComponentParser.LEGACY_HEX_LENGTH);
+  }
+
+  /**
+   * pushes the pending characters from the index again.
+   *
+   * @param from the from to push.
+   */
+  private void replay(final int from) {
+    final var count = this.count;
+    this.count = 0;
+    if (from < count) {
+      final var chars = new char[count - from];
+      System.arraycopy(this.pending, from, chars, 0, chars.length);
+      for (final var c : chars) {
+        this.push(c);
+      }
+    }
+  }
+
+  /**
+   * resolves the pending hex code as soon as enough characters have arrived to tell what it is.
+   *
+   * @param end the end, {@code true} if no more characters will arrive.
+   */
+  private void resolve(final boolean end) {
+    while (this.count > 0) {
+      if (this.count < ComponentParser.HEX_LENGTH) {
+        if (!end) {
+          return;
+        }
+        this.builder.append('#');
+        this.replay(1);
+        continue;
+      }
+      final var rgb = ComponentParser.hex(this.view, 0);
+      if (rgb < 0) {
+        this.builder.append('#');
+        this.replay(1);
+        continue;
+      }
+      if (!end && (this.count == ComponentParser.HEX_LENGTH
+        || this.count == ComponentParser.HEX_LENGTH + 1 && this.pending[ComponentParser.HEX_LENGTH] == '|')) {
+        return;
+      }
+      ChatFormat legacy = null;
+      if (this.count == ComponentParser.LEGACY_HEX_LENGTH && this.pending[ComponentParser.HEX_LENGTH] == '|') {
+        legacy = ChatFormat.getByCharOrNull(this.pending[ComponentParser.HEX_LENGTH + 1]);
+      }
+      this.color(TextColor.ofHex(rgb, legacy));
+      this.replay(legacy == null ? ComponentParser.HEX_LENGTH : ComponentParser.LEGACY_HEX_LENGTH);
+    }
+  }
+}
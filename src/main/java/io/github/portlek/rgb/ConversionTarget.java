@@ -0,0 +1,124 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Hasan Demirtaş
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package io.github.portlek.rgb;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * a class that represents the outputs which texts can be converted into by
+ * {@link ColorManager#convertAll(java.util.List, ConversionTarget)}.
+ *
+ * @param <T> type of the converted values.
+ */
+public final class ConversionTarget<T> {
+
+  /**
+   * the bukkit target, same as {@link ColorManager#convertToBukkitFormat(String, boolean)} with rgb support.
+   */
+  public static final ConversionTarget<String> BUKKIT = new ConversionTarget<>("bukkit", (manager, text, scratch) -> {
+    ColorManager.convertHexToBukkit(manager.applyFormats(text, false), scratch);
+    return scratch.toString();
+  });
+
+  /**
+   * the component target, same as {@link ChatComponent#fromColoredText(String, ColorManager)}.
+   * <p>
+   * the components are frozen, so the equal texts of a batch can share the same component.
+   */
+  public static final ConversionTarget<ChatComponent> COMPONENT = new ConversionTarget<>("component",
+    (manager, text, scratch) -> ChatComponent.fromColoredText(text, manager).freeze());
+
+  /**
+   * the legacy target, same as {@link ColorManager#convertToBukkitFormat(String, boolean)} without rgb support.
+   */
+  public static final ConversionTarget<String> LEGACY = new ConversionTarget<>("legacy", (manager, text, scratch) -> {
+    ChatComponent.fromColoredText(text, manager).append(scratch, 0);
+    return scratch.toString();
+  });
+
+  /**
+   * the converter.
+   */
+  @NotNull
+  private final Converter<T> converter;
+
+  /**
+   * the name.
+   */
+  @NotNull
+  private final String name;
+
+  /**
+   * ctor.
+   *
+   * @param name the name.
+   * @param converter the converter.
+   */
+  private ConversionTarget(@NotNull final String name, @NotNull final Converter<T> converter) {
+    this.converter = converter;
+    this.name = name;
+  }
+
+  @Override
+  public String toString() {
+    return this.name;
+  }
+
+  /**
+   * converts the text.
+   *
+   * @param manager the manager to convert.
+   * @param text the text to convert.
+   * @param scratch the scratch builder which is reused between the texts, it is cleared before the conversion.
+   *
+   * @return converted value.
+   */
+  @NotNull
+  T convert(@NotNull final ColorManager manager, @NotNull final String text, @NotNull final StringBuilder scratch) {
+    scratch.setLength(0);
+    return this.converter.convert(manager, text, scratch);
+  }
+
+  /**
+   * an interface to determine converters.
+   *
+   * @param <T> type of the converted values.
+   */
+  @FunctionalInterface
+  private interface Converter<T> {
+
+    /**
+     * converts the text.
+     *
+     * @param manager the manager to convert.
+     * @param text the text to convert.
+     * @param scratch the empty scratch builder to use.
+     *
+     * @return converted value.
+     */
+    @NotNull
+    T convert(@NotNull ColorManager manager, @NotNull String text, @NotNull StringBuilder scratch);
+  }
+}
@@ -25,6 +25,8 @@
 
 package io.github.portlek.rgb;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.function.UnaryOperator;
 import org.jetbrains.annotations.NotNull;
 
@@ -34,4 +36,16 @@ import org.jetbrains.annotations.NotNull;
 @FunctionalInterface
 public interface Formatter extends UnaryOperator<@NotNull String> {
 
+  /**
+   * obtains the triggers.
+   * <p>
+   * a trigger is a character or a prefix that the formatter's syntax starts with. the formatter is applied only to the
+   * texts that contain at least one of its triggers, so a formatter must not change a text that contains none of them.
+   *
+   * @return triggers, empty to apply the formatter to every text.
+   */
+  @NotNull
+  default Collection<String> getTriggers() {
+    return Collections.emptySet();
+  }
 }
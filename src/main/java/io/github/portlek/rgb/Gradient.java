@@ -25,6 +25,8 @@
 
 package io.github.portlek.rgb;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.function.BiFunction;
 import org.jetbrains.annotations.NotNull;
 
@@ -44,24 +46,54 @@ public interface Gradient extends BiFunction<@NotNull String, @NotNull Boolean,
    */
   @NotNull
   static String asGradient(@NotNull final TextColor start, @NotNull final String text, @NotNull final TextColor end) {
-    final var magicCodes = Legacy.getLastColors(text);
-    final var deColorized = text.substring(magicCodes.length());
-    final var builder = new StringBuilder();
-    final var length = deColorized.length();
-    for (var i = 0; i < length; i++) {
-      final var red = (int) (start.getRed() + (float) (end.getRed() - start.getRed()) / (length - 1) * i);
-      final var green = (int) (start.getGreen() + (float) (end.getGreen() - start.getGreen()) / (length - 1) * i);
-      final var blue = (int) (start.getBlue() + (float) (end.getBlue() - start.getBlue()) / (length - 1) * i);
-      builder.append(TextColor.of(red, green, blue).getHexCode());
-      if (start.isLegacyColorForced()) {
-        builder
-          .append("|")
-          .append(start.getLegacyColor().getCharacter());
-      }
-      builder
-        .append(magicCodes)
-        .append(deColorized.charAt(i));
-    }
-    return builder.toString();
+    return GradientEngine.apply(text, new TextColor[]{start, end}, null);
+  }
+
+  /**
+   * gradients text through the color stops which are spread evenly.
+   *
+   * @param text the text to gradient.
+   * @param stops the stops to gradient.
+   *
+   * @return reformatted text.
+   *
+   * @throws IllegalArgumentException if there is no stop.
+   */
+  @NotNull
+  static String asGradient(@NotNull final String text, @NotNull final TextColor... stops) {
+    return GradientEngine.apply(text, stops, null);
+  }
+
+  /**
+   * gradients text through the color stops at the positions.
+   * <p>
+   * the characters before the first position have the first color, the ones after the last position have the last
+   * color.
+   *
+   * @param text the text to gradient.
+   * @param stops the stops to gradient.
+   * @param positions the positions of the stops, ascending between {@code 0} and {@code 1}.
+   *
+   * @return reformatted text.
+   *
+   * @throws IllegalArgumentException if there is no stop or the positions are not valid.
+   */
+  @NotNull
+  static String asGradient(@NotNull final String text, @NotNull final TextColor[] stops,
+                           @NotNull final float[] positions) {
+    return GradientEngine.apply(text, stops, positions);
+  }
+
+  /**
+   * obtains the triggers.
+   * <p>
+   * a trigger is a character or a prefix that the gradient's syntax starts with. the gradient is applied only to the
+   * texts that contain at least one of its triggers, so a gradient must not change a text that contains none of them.
+   *
+   * @return triggers, empty to apply the gradient to every text.
+   */
+  @NotNull
+  default Collection<String> getTriggers() {
+    return Collections.emptySet();
   }
 }
@@ -0,0 +1,465 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Hasan Demirtaş
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package io.github.portlek.rgb;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * a class that contains the gradient engine.
+ * <p>
+ * the stops are pinned to character indices and each channel is interpolated between two stops with an integer step
+ * and a remainder, so every character costs a few additions and the result is the exact rounded-down value without
+ * any float division. the hex codes are written straight into the output from a digit table.
+ */
+final class GradientEngine {
+
+  /**
+   * the hex digits.
+   */
+  private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+  /**
+   * ctor.
+   */
+  private GradientEngine() {
+  }
+
+  /**
+   * pins the stops to character indices.
+   *
+   * @param length the length of the text to pin.
+   * @param count the stop count to pin.
+   * @param positions the positions to pin, {@code null} to spread the stops evenly.
+   *
+   * @return character index of each stop.
+   */
+  @NotNull
+  static int[] anchors(final int length, final int count, @Nullable final float[] positions) {
+    final var anchors = new int[count];
+    final var last = length - 1;
+    for (var index = 0; index < count; index++) {
+      if (positions != null) {
+        anchors[index] = Math.round(positions[index] * last);
+      } else if (count > 1) {
+        anchors[index] = (index * last * 2 + count - 1) / (2 * (count - 1));
+      }
+    }
+    return anchors;
+  }
+
+  /**
+   * applies the gradient to the text.
+   *
+   * @param text the text to apply, leading legacy codes are repeated after every color.
+   * @param stops the stops to apply.
+   * @param positions the positions of the stops, {@code null} to spread the stops evenly.
+   *
+   * @return gradient text.
+   *
+   * @throws IllegalArgumentException if there is no stop or the positions are not valid.
+   */
+  @NotNull
+  static String apply(@NotNull final String text, @NotNull final TextColor[] stops,
+                      @Nullable final float[] positions) {
+    GradientEngine.validate(stops, positions);
+    final var magicCodes = Legacy.getLastColors(text);
+    final var first = stops[0];
+    final var legacy = first.isLegacyColorForced() ? "|" + first.getLegacyColor().getCharacter() : "";
+    final var rgb = new int[stops.length];
+    for (var index = 0; index < stops.length; index++) {
+      rgb[index] = stops[index].rgb();
+    }
+    final var length = text.length() - magicCodes.length();
+    final var builder = new StringBuilder(length * (8 + legacy.length() + magicCodes.length()));
+    GradientEngine.append(builder, text, magicCodes.length(), text.length(), rgb, positions, legacy + magicCodes);
+    return builder.toString();
+  }
+
+  /**
+   * appends the gradient of the text range to the builder.
+   *
+   * @param builder the builder to append.
+   * @param text the text to append.
+   * @param from the from index of the text range.
+   * @param to the to index of the text range.
+   * @param stops the stops as packed rgb.
+   * @param positions the positions of the stops, {@code null} to spread the stops evenly.
+   * @param suffix the suffix to append after every color.
+   */
+  static void append(@NotNull final StringBuilder builder, @NotNull final CharSequence text, final int from,
+                     final int to, @NotNull final int[] stops, @Nullable final float[] positions,
+                     @NotNull final String suffix) {
+    final var length = to - from;
+    if (length <= 0) {
+      return;
+    }
+    final var ramp = new Ramp(length, stops, positions);
+    for (var index = from; index < to; index++) {
+      GradientEngine.appendColor(builder, ramp.next(), suffix).append(text.charAt(index));
+    }
+  }
+
+  /**
+   * appends the gradient of the body of a gradient tag to the builder.
+   * <p>
+   * unlike {@link #apply(String, TextColor[], float[])}, the body may contain markup. a color or format code anywhere
+   * in the body takes no color of its own and is repeated after every following color, a code that is a color or a
+   * reset drops the codes before it. a character that already has a hex code, optionally followed by codes, keeps
+   * them and only takes its place in the gradient, so nested gradients keep their own colors, hex codes at the end of
+   * the body are kept as they are.
+   *
+   * @param builder the builder to append.
+   * @param body the body to append.
+   * @param stops the stops to append.
+   */
+  static void appendBody(@NotNull final StringBuilder builder, @NotNull final CharSequence body,
+                         @NotNull final TextColor[] stops) {
+    final var first = stops[0];
+    final var legacy = first.isLegacyColorForced() ? "|" + first.getLegacyColor().getCharacter() : "";
+    final var rgb = new int[stops.length];
+    for (var index = 0; index < stops.length; index++) {
+      rgb[index] = stops[index].rgb();
+    }
+    final var length = body.length();
+    var visible = 0;
+    for (var index = 0; index < length; index++) {
+      if (index + 1 < length && Legacy.isCode(body, index)) {
+        index++;
+      } else {
+        index = GradientEngine.colored(body, index);
+        if (index < length) {
+          visible++;
+        }
+      }
+    }
+    if (visible == 0) {
+      builder.append(body);
+      return;
+    }
+    final var ramp = new Ramp(visible, rgb, null);
+    final var codes = new StringBuilder(legacy);
+    var suffix = legacy;
+    for (var index = 0; index < length; index++) {
+      if (index + 1 < length && Legacy.isCode(body, index)) {
+        final var code = body.charAt(index + 1);
+        if (Legacy.isColor(code)) {
+          codes.setLength(legacy.length());
+        }
+        suffix = codes.append('\u00a7').append(code).toString();
+        index++;
+        continue;
+      }
+      final var end = GradientEngine.colored(body, index);
+      if (end >= length) {
+        builder.append(body, index, length);
+        break;
+      }
+      ramp.next();
+      if (end > index) {
+        builder.append(body, index, end + 1);
+        index = end;
+      } else {
+        GradientEngine.appendColor(builder, ramp.color, suffix).append(body.charAt(index));
+      }
+    }
+  }
+
+  /**
+   * appends the hex code of the color and the suffix.
+   *
+   * @param builder the builder to append.
+   * @param rgb the rgb to append.
+   * @param suffix the suffix to append.
+   *
+   * @return the builder.
+   */
+  @NotNull
+  private static StringBuilder appendColor(@NotNull final StringBuilder builder, final int rgb,
+                                           @NotNull final String suffix) {
+    return builder
+      .append('#')
+      .append(GradientEngine.HEX[rgb >> 20 & 0xF])
+      .append(GradientEngine.HEX[rgb >> 16 & 0xF])
+      .append(GradientEngine.HEX[rgb >> 12 & 0xF])
+      .append(GradientEngine.HEX[rgb >> 8 & 0xF])
+      .append(GradientEngine.HEX[rgb >> 4 & 0xF])
+      .append(GradientEngine.HEX[rgb & 0xF])
+      .append(suffix);
+  }
+
+  /**
+   * finds the character that the hex code at the index colors.
+   *
+   * @param text the text to find.
+   * @param index the index to find.
+   *
+   * @return index of the colored character after the hex codes and the codes that follow them, the length of the text
+   *   if they color nothing, or the index itself if there is no hex code at the index.
+   */
+  private static int colored(@NotNull final CharSequence text, final int index) {
+    var end = index;
+    for (var next = GradientEngine.skipColor(text, end); next > end; next = GradientEngine.skipColor(text, end)) {
+      end = next;
+    }
+    return end;
+  }
+
+  /**
+   * skips the hex code at the index and the codes that follow it.
+   *
+   * @param text the text to skip.
+   * @param index the index to skip.
+   *
+   * @return index after the hex code and its codes, or the index itself if there is no hex code at the index.
+   */
+  private static int skipColor(@NotNull final CharSequence text, final int index) {
+    final var length = text.length();
+    if (index + 7 > length || text.charAt(index) != '#') {
+      return index;
+    }
+    for (var digit = index + 1; digit < index + 7; digit++) {
+      final var c = text.charAt(digit);
+      if (c > 'f' || Character.digit(c, 16) == -1) {
+        return index;
+      }
+    }
+    var end = ColorManager.containsLegacyCode(text, index) ? index + 9 : index + 7;
+    while (end + 1 < length && Legacy.isCode(text, end)) {
+      end += 2;
+    }
+    return end;
+  }
+
+  /**
+   * validates the stops and the positions.
+   *
+   * @param stops the stops to validate.
+   * @param positions the positions to validate.
+   *
+   * @throws IllegalArgumentException if there is no stop or the positions are not valid.
+   */
+  private static void validate(@NotNull final TextColor[] stops, @Nullable final float[] positions) {
+    if (stops.length == 0) {
+      throw new IllegalArgumentException("A gradient needs at least one color stop");
+    }
+    if (positions == null) {
+      return;
+    }
+    if (positions.length != stops.length) {
+      throw new IllegalArgumentException("There are " + positions.length + " positions for " + stops.length +
+        " color stops");
+    }
+    var previous = 0.0f;
+    for (final var position : positions) {
+      if (!(position >= previous && position <= 1.0f)) {
+        throw new IllegalArgumentException("The positions must be ascending between 0 and 1, got " + position);
+      }
+      previous = position;
+    }
+  }
+
+  /**
+   * a class that represents the colors of the characters of a gradient, one after another.
+   */
+  private static final class Ramp {
+
+    /**
+     * the anchors.
+     */
+    @NotNull
+    private final int[] anchors;
+
+    /**
+     * the length.
+     */
+    private final int length;
+
+    /**
+     * the stops.
+     */
+    @NotNull
+    private final int[] stops;
+
+    /**
+     * the blue.
+     */
+    private int blue;
+
+    /**
+     * the blue error.
+     */
+    private int blueError;
+
+    /**
+     * the blue remainder.
+     */
+    private int blueRemainder;
+
+    /**
+     * the blue step.
+     */
+    private int blueStep;
+
+    /**
+     * the color of the last character.
+     */
+    private int color;
+
+    /**
+     * the green.
+     */
+    private int green;
+
+    /**
+     * the green error.
+     */
+    private int greenError;
+
+    /**
+     * the green remainder.
+     */
+    private int greenRemainder;
+
+    /**
+     * the green step.
+     */
+    private int greenStep;
+
+    /**
+     * the index of the next character.
+     */
+    private int index;
+
+    /**
+     * the red.
+     */
+    private int red;
+
+    /**
+     * the red error.
+     */
+    private int redError;
+
+    /**
+     * the red remainder.
+     */
+    private int redRemainder;
+
+    /**
+     * the red step.
+     */
+    private int redStep;
+
+    /**
+     * the index of the stop that the current segment starts with, {@code -1} before the first anchor.
+     */
+    private int stop = -1;
+
+    /**
+     * ctor.
+     *
+     * @param length the length.
+     * @param stops the stops.
+     * @param positions the positions.
+     */
+    private Ramp(final int length, @NotNull final int[] stops, @Nullable final float[] positions) {
+      this.length = length;
+      this.stops = stops;
+      this.anchors = GradientEngine.anchors(length, stops.length, positions);
+    }
+
+    /**
+     * obtains the color of the next character.
+     *
+     * @return packed rgb.
+     */
+    private int next() {
+      final var current = this.index++;
+      if (this.length == 1 || current < this.anchors[0]) {
+        this.color = this.stops[0];
+        return this.color;
+      }
+      final var last = this.stops.length - 1;
+      if (this.stop < last && current >= this.anchors[this.stop + 1]) {
+        do {
+          this.stop++;
+        } while (this.stop < last && current >= this.anchors[this.stop + 1]);
+        if (this.stop < last) {
+          this.begin();
+        }
+      }
+      if (this.stop >= last) {
+        this.color = this.stops[last];
+        return this.color;
+      }
+      this.color = this.red << 16 | this.green << 8 | this.blue;
+      this.red += this.redStep;
+      this.redError += this.redRemainder;
+      final var steps = this.anchors[this.stop + 1] - this.anchors[this.stop];
+      if (this.redError >= steps) {
+        this.red++;
+        this.redError -= steps;
+      }
+      this.green += this.greenStep;
+      this.greenError += this.greenRemainder;
+      if (this.greenError >= steps) {
+        this.green++;
+        this.greenError -= steps;
+      }
+      this.blue += this.blueStep;
+      this.blueError += this.blueRemainder;
+      if (this.blueError >= steps) {
+        this.blue++;
+        this.blueError -= steps;
+      }
+      return this.color;
+    }
+
+    /**
+     * begins the segment of the current stop.
+     */
+    private void begin() {
+      final var steps = this.anchors[this.stop + 1] - this.anchors[this.stop];
+      final var start = this.stops[this.stop];
+      final var target = this.stops[this.stop + 1];
+      this.red = start >> 16 & 0xFF;
+      this.green = start >> 8 & 0xFF;
+      this.blue = start & 0xFF;
+      final var redDelta = (target >> 16 & 0xFF) - this.red;
+      final var greenDelta = (target >> 8 & 0xFF) - this.green;
+      final var blueDelta = (target & 0xFF) - this.blue;
+      this.redStep = Math.floorDiv(redDelta, steps);
+      this.greenStep = Math.floorDiv(greenDelta, steps);
+      this.blueStep = Math.floorDiv(blueDelta, steps);
+      this.redRemainder = Math.floorMod(redDelta, steps);
+      this.greenRemainder = Math.floorMod(greenDelta, steps);
+      this.blueRemainder = Math.floorMod(blueDelta, steps);
+      this.redError = 0;
+      this.greenError = 0;
+      this.blueError = 0;
+    }
+  }
+}
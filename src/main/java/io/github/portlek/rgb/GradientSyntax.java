@@ -0,0 +1,614 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Hasan Demirtaş
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package io.github.portlek.rgb;
+
+import java.util.Arrays;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * a class that represents the syntaxes of gradient tags.
+ * <p>
+ * a syntax is an open tag and a close tag, written as templates in which {@code #RRGGBB} stands for a hex color. the
+ * start color is the first color of the open tag, the end color is its second color or the color of the close tag.
+ * <p>
+ * the text is parsed by hand in a single pass with a stack of the open tags, so a body may contain any markup,
+ * including the characters of the tags and nested gradients of the same syntax. a body ends at the close tag that
+ * matches its open tag, and an open tag without a close tag is left as it is. tags nest up to {@value #MAX_DEPTH}
+ * levels, the deeper open tags are kept as text.
+ * <p>
+ * the escape rules apply only to the backslashes right before a tag, any other backslash is kept as it is. a backslash
+ * escapes the tag: an escaped open tag is always kept as text, an escaped close tag is kept as text inside a body and
+ * both lose their backslash, an escaped close tag outside a body keeps it. two backslashes are written as one where a
+ * single backslash would be left out and the tag after them is not escaped, so {@code \\<#ff0000>} is a backslash
+ * and a live tag, while {@code \\\<#ff0000>} is a backslash and an escaped tag.
+ * <p>
+ * the gradients are written straight into the output through {@link GradientEngine}, a body is colored around its
+ * markup, see {@link GradientEngine#appendBody(StringBuilder, CharSequence, TextColor[])}.
+ */
+public final class GradientSyntax {
+
+  /**
+   * the close token.
+   */
+  static final int CLOSE = 1;
+
+  /**
+   * the escaped close token.
+   */
+  static final int ESCAPED_CLOSE = 3;
+
+  /**
+   * the escaped backslash close token, the first of two backslashes before a close tag.
+   */
+  static final int ESCAPED_BACKSLASH_CLOSE = 6;
+
+  /**
+   * the escaped backslash open token, the first of two backslashes before an open tag.
+   */
+  static final int ESCAPED_BACKSLASH_OPEN = 5;
+
+  /**
+   * the escaped open token.
+   */
+  static final int ESCAPED_OPEN = 4;
+
+  /**
+   * the literal token.
+   */
+  static final int LITERAL = 0;
+
+  /**
+   * the max depth of the nested tags.
+   */
+  static final int MAX_DEPTH = 32;
+
+  /**
+   * the open token.
+   */
+  static final int OPEN = 2;
+
+  /**
+   * the partial token, the text ends before a tag could be completed.
+   */
+  static final int PARTIAL = -1;
+
+  /**
+   * the hex digit slot of the templates.
+   */
+  private static final char DIGIT = 0;
+
+  /**
+   * the hex color of the templates.
+   */
+  private static final String HEX = "#RRGGBB";
+
+  /**
+   * the close template.
+   */
+  @NotNull
+  private final char[] close;
+
+  /**
+   * the index of the end color in the close template, or {@code -1} if it is in the open template.
+   */
+  private final int endInClose;
+
+  /**
+   * the index of the end color in the open template, or {@code -1} if it is in the close template.
+   */
+  private final int endInOpen;
+
+  /**
+   * the open template.
+   */
+  @NotNull
+  private final char[] open;
+
+  /**
+   * the shared, {@code true} if the open and the close templates are the same.
+   */
+  private final boolean shared;
+
+  /**
+   * the index of the start color in the open template.
+   */
+  private final int startInOpen;
+
+  /**
+   * the trigger, the literal prefix of the open template.
+   */
+  @NotNull
+  private final String trigger;
+
+  /**
+   * ctor.
+   *
+   * @param open the open.
+   * @param close the close.
+   * @param startInOpen the start in open.
+   * @param endInOpen the end in open.
+   * @param endInClose the end in close.
+   * @param trigger the trigger.
+   */
+  private GradientSyntax(@NotNull final char[] open, @NotNull final char[] close, final int startInOpen,
+                         final int endInOpen, final int endInClose, @NotNull final String trigger) {
+    this.open = open;
+    this.close = close;
+    this.startInOpen = startInOpen;
+    this.endInOpen = endInOpen;
+    this.endInClose = endInClose;
+    this.trigger = trigger;
+    this.shared = Arrays.equals(open, close);
+  }
+
+  /**
+   * creates a gradient syntax.
+   *
+   * @param open the open tag to create, with one or two {@code #RRGGBB} colors.
+   * @param close the close tag to create, with a {@code #RRGGBB} color if the open tag has only one.
+   *
+   * @return a newly created gradient syntax.
+   *
+   * @throws IllegalArgumentException if the tags do not have exactly two colors together or the open tag does not
+   *   start with a literal.
+   */
+  @NotNull
+  public static GradientSyntax of(@NotNull final String open, @NotNull final String close) {
+    final var startInOpen = open.indexOf(GradientSyntax.HEX);
+    final var endInOpen = startInOpen == -1 ? -1 : open.indexOf(GradientSyntax.HEX, startInOpen + 1);
+    final var endInClose = close.indexOf(GradientSyntax.HEX);
+    if (startInOpen < 1 || (endInOpen == -1) == (endInClose == -1) ||
+      open.indexOf(GradientSyntax.HEX, Math.max(endInOpen, startInOpen) + 1) != -1 ||
+      endInClose != -1 && close.indexOf(GradientSyntax.HEX, endInClose + 1) != -1) {
+      throw new IllegalArgumentException("The tags " + open + " and " + close + " must have two " +
+        GradientSyntax.HEX + " colors together and the open tag must start with a literal");
+    }
+    return new GradientSyntax(GradientSyntax.template(open), GradientSyntax.template(close), startInOpen, endInOpen,
+      endInClose, open.substring(0, startInOpen + 1));
+  }
+
+  /**
+   * checks if the text contains the character in the range.
+   *
+   * @param text the text to check.
+   * @param from the from to check.
+   * @param to the to to check.
+   * @param character the character to check.
+   *
+   * @return {@code true} if the text contains the character.
+   */
+  private static boolean contains(@NotNull final CharSequence text, final int from, final int to,
+                                  final char character) {
+    for (var index = from; index < to; index++) {
+      if (text.charAt(index) == character) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * matches the template at the index.
+   *
+   * @param template the template to match.
+   * @param text the text to match.
+   * @param index the index to match.
+   *
+   * @return length of the template if it matches, {@code -1} if the text ends before the template could be matched
+   *   or {@code 0} if it does not match.
+   */
+  private static int match(@NotNull final char[] template, @NotNull final CharSequence text, final int index) {
+    final var length = text.length();
+    for (var offset = 0; offset < template.length; offset++) {
+      if (index + offset >= length) {
+        return -1;
+      }
+      final var c = text.charAt(index + offset);
+      final var expected = template[offset];
+      if (expected == GradientSyntax.DIGIT ? c > 'f' || Character.digit(c, 16) == -1 : c != expected) {
+        return 0;
+      }
+    }
+    return template.length;
+  }
+
+  /**
+   * compiles the tag into a template.
+   *
+   * @param tag the tag to compile.
+   *
+   * @return template whose hex digits are {@link #DIGIT}.
+   */
+  @NotNull
+  private static char[] template(@NotNull final String tag) {
+    final var template = tag.toCharArray();
+    var index = tag.indexOf(GradientSyntax.HEX);
+    while (index != -1) {
+      Arrays.fill(template, index + 1, index + GradientSyntax.HEX.length(), GradientSyntax.DIGIT);
+      index = tag.indexOf(GradientSyntax.HEX, index + 1);
+    }
+    return template;
+  }
+
+  /**
+   * applies the gradients of the syntax to the text.
+   *
+   * @param text the text to apply.
+   * @param ignorePlaceholders {@code true} to keep the gradients whose tags or bodies contain a {@code %} as they are.
+   *
+   * @return formatted text, or the text itself if nothing has changed.
+   */
+  @NotNull
+  public String apply(@NotNull final String text, final boolean ignorePlaceholders) {
+    if (!text.contains(this.trigger)) {
+      return text;
+    }
+    final var builder = new StringBuilder(text.length() + 16);
+    return this.apply(text, ignorePlaceholders, builder) ? builder.toString() : text;
+  }
+
+  /**
+   * applies the gradients of the syntax to the text and appends the result to the builder.
+   *
+   * @param text the text to apply.
+   * @param ignorePlaceholders the ignore placeholders.
+   * @param builder the builder to append.
+   *
+   * @return {@code true} if the text has changed.
+   */
+  boolean apply(@NotNull final CharSequence text, final boolean ignorePlaceholders,
+                @NotNull final StringBuilder builder) {
+    final var parse = this.parse(text);
+    if (parse.pairs == 0 && parse.escapes == 0) {
+      builder.append(text);
+      return false;
+    }
+    this.render(text, 0, text.length(), false, ignorePlaceholders, parse, builder);
+    return parse.changed;
+  }
+
+  /**
+   * obtains the first character of the open tag.
+   *
+   * @return first character of the open tag.
+   */
+  char first() {
+    return this.open[0];
+  }
+
+  /**
+   * checks if the open and the close tags are the same, an open tag closes the open tag before it then.
+   *
+   * @return {@code true} if the open and the close tags are the same.
+   */
+  boolean shared() {
+    return this.shared;
+  }
+
+  /**
+   * obtains the length of the token.
+   *
+   * @param token the token to obtain.
+   *
+   * @return length.
+   */
+  int length(final int token) {
+    switch (token) {
+      case GradientSyntax.OPEN:
+        return this.open.length;
+      case GradientSyntax.CLOSE:
+        return this.close.length;
+      case GradientSyntax.ESCAPED_OPEN:
+        return this.open.length + 1;
+      case GradientSyntax.ESCAPED_CLOSE:
+        return this.close.length + 1;
+      case GradientSyntax.ESCAPED_BACKSLASH_OPEN:
+      case GradientSyntax.ESCAPED_BACKSLASH_CLOSE:
+        return 2;
+      default:
+        return 1;
+    }
+  }
+
+  /**
+   * reads the token at the index.
+   *
+   * @param text the text to read.
+   * @param index the index to read.
+   *
+   * @return token.
+   */
+  int read(@NotNull final CharSequence text, final int index) {
+    final var c = text.charAt(index);
+    if (c == '\\') {
+      if (index + 1 == text.length()) {
+        return GradientSyntax.PARTIAL;
+      }
+      if (text.charAt(index + 1) == '\\') {
+        return this.readBackslashes(text, index);
+      }
+      final var open = GradientSyntax.match(this.open, text, index + 1);
+      if (open > 0) {
+        return GradientSyntax.ESCAPED_OPEN;
+      }
+      final var close = this.shared ? 0 : GradientSyntax.match(this.close, text, index + 1);
+      if (close > 0) {
+        return GradientSyntax.ESCAPED_CLOSE;
+      }
+      return open < 0 || close < 0 ? GradientSyntax.PARTIAL : GradientSyntax.LITERAL;
+    }
+    final var close = this.shared ? 0 : GradientSyntax.match(this.close, text, index);
+    if (close > 0) {
+      return GradientSyntax.CLOSE;
+    }
+    final var open = GradientSyntax.match(this.open, text, index);
+    if (open > 0) {
+      return GradientSyntax.OPEN;
+    }
+    return open < 0 || close < 0 ? GradientSyntax.PARTIAL : GradientSyntax.LITERAL;
+  }
+
+  /**
+   * reads the token of the backslashes at the index.
+   *
+   * @param text the text to read.
+   * @param index the index of the first of at least two backslashes.
+   *
+   * @return {@link #ESCAPED_BACKSLASH_OPEN} or {@link #ESCAPED_BACKSLASH_CLOSE} if the backslashes are right before a
+   *   tag, {@link #PARTIAL} if the text ends before that is known, otherwise {@link #LITERAL}.
+   */
+  private int readBackslashes(@NotNull final CharSequence text, final int index) {
+    final var length = text.length();
+    var end = index + 2;
+    while (end < length && text.charAt(end) == '\\') {
+      end++;
+    }
+    if (end == length) {
+      return GradientSyntax.PARTIAL;
+    }
+    final var close = this.shared ? 0 : GradientSyntax.match(this.close, text, end);
+    if (close > 0) {
+      return GradientSyntax.ESCAPED_BACKSLASH_CLOSE;
+    }
+    final var open = GradientSyntax.match(this.open, text, end);
+    if (open > 0) {
+      return GradientSyntax.ESCAPED_BACKSLASH_OPEN;
+    }
+    return open < 0 || close < 0 ? GradientSyntax.PARTIAL : GradientSyntax.LITERAL;
+  }
+
+  @Override
+  public String toString() {
+    return "GradientSyntax{open=" + this.tag(this.open) + ", close=" + this.tag(this.close) + "}";
+  }
+
+  /**
+   * copies the text range, leaving out the backslashes of the escaped tags and the first of the escaped backslashes.
+   *
+   * @param text the text to copy.
+   * @param from the from to copy.
+   * @param to the to to copy.
+   * @param body {@code true} if the range is in a body.
+   * @param parse the parse to copy.
+   * @param builder the builder to copy.
+   */
+  private void copy(@NotNull final CharSequence text, final int from, final int to, final boolean body,
+                    @NotNull final Parse parse, @NotNull final StringBuilder builder) {
+    var position = from;
+    while (parse.escape < parse.escapes && parse.escaped[parse.escape] >> 1 < to) {
+      final var escaped = parse.escaped[parse.escape++];
+      if ((escaped & 1) == 0 || body) {
+        builder.append(text, position, escaped >> 1);
+        position = (escaped >> 1) + 1;
+        parse.changed = true;
+      }
+    }
+    builder.append(text, position, to);
+  }
+
+  /**
+   * obtains the color in the tag.
+   *
+   * @param text the text to obtain.
+   * @param index the index of the color in the text.
+   *
+   * @return color.
+   */
+  @NotNull
+  private TextColor color(@NotNull final CharSequence text, final int index) {
+    return TextColor.of(text.subSequence(index, index + GradientSyntax.HEX.length()).toString());
+  }
+
+  /**
+   * parses the tags of the text.
+   *
+   * @param text the text to parse.
+   *
+   * @return parse.
+   */
+  @NotNull
+  private Parse parse(@NotNull final CharSequence text) {
+    final var parse = new Parse();
+    final var stack = new int[GradientSyntax.MAX_DEPTH];
+    var depth = 0;
+    final var length = text.length();
+    var index = 0;
+    while (index < length) {
+      var token = this.read(text, index);
+      if (token == GradientSyntax.OPEN && this.shared && depth > 0) {
+        token = GradientSyntax.CLOSE;
+      }
+      if (token == GradientSyntax.OPEN && depth < GradientSyntax.MAX_DEPTH) {
+        stack[depth++] = parse.open(index);
+      } else if (token == GradientSyntax.CLOSE && depth > 0) {
+        parse.closes[stack[--depth]] = index;
+      } else if (token >= GradientSyntax.ESCAPED_CLOSE) {
+        parse.escape(index, token == GradientSyntax.ESCAPED_CLOSE || token == GradientSyntax.ESCAPED_BACKSLASH_CLOSE);
+      }
+      index += this.length(token);
+    }
+    return parse;
+  }
+
+  /**
+   * renders the text range.
+   *
+   * @param text the text to render.
+   * @param from the from to render.
+   * @param to the to to render.
+   * @param body {@code true} if the range is in a body.
+   * @param ignorePlaceholders the ignore placeholders.
+   * @param parse the parse to render.
+   * @param builder the builder to render.
+   */
+  private void render(@NotNull final CharSequence text, final int from, final int to, final boolean body,
+                      final boolean ignorePlaceholders, @NotNull final Parse parse,
+                      @NotNull final StringBuilder builder) {
+    var position = from;
+    while (parse.pair < parse.pairs && parse.opens[parse.pair] < to) {
+      final var pair = parse.pair++;
+      final var closeAt = parse.closes[pair];
+      if (closeAt == -1) {
+        continue;
+      }
+      final var openAt = parse.opens[pair];
+      final var bodyStart = openAt + this.open.length;
+      final var closeEnd = closeAt + this.close.length;
+      this.copy(text, position, openAt, body, parse, builder);
+      if (ignorePlaceholders && GradientSyntax.contains(text, openAt, closeEnd, '%')) {
+        builder.append(text, openAt, bodyStart);
+        this.render(text, bodyStart, closeAt, true, ignorePlaceholders, parse, builder);
+        builder.append(text, closeAt, closeEnd);
+      } else {
+        final var inner = new StringBuilder(closeAt - bodyStart);
+        this.render(text, bodyStart, closeAt, true, ignorePlaceholders, parse, inner);
+        final var start = this.color(text, openAt + this.startInOpen);
+        final var end = this.endInOpen == -1
+          ? this.color(text, closeAt + this.endInClose)
+          : this.color(text, openAt + this.endInOpen);
+        GradientEngine.appendBody(builder, inner, new TextColor[]{start, end});
+        parse.changed = true;
+      }
+      position = closeEnd;
+    }
+    this.copy(text, position, to, body, parse, builder);
+  }
+
+  /**
+   * converts the template back into its tag.
+   *
+   * @param template the template to convert.
+   *
+   * @return tag.
+   */
+  @NotNull
+  private String tag(@NotNull final char[] template) {
+    final var builder = new StringBuilder(template.length);
+    for (final var c : template) {
+      builder.append(c == GradientSyntax.DIGIT ? 'F' : c);
+    }
+    return builder.toString();
+  }
+
+  /**
+   * a class that represents the parsed tags of a text.
+   */
+  private static final class Parse {
+
+    /**
+     * the close tag indices in the order of the open tags, {@code -1} for an open tag without a close tag.
+     */
+    @NotNull
+    private int[] closes = new int[8];
+
+    /**
+     * the escaped tags and backslashes, the index of the backslash to leave out shifted left once, with the lowest bit
+     * set for a close tag.
+     */
+    @NotNull
+    private int[] escaped = new int[8];
+
+    /**
+     * the open tag indices.
+     */
+    @NotNull
+    private int[] opens = new int[8];
+
+    /**
+     * the changed.
+     */
+    private boolean changed;
+
+    /**
+     * the index of the next escaped tag to render.
+     */
+    private int escape;
+
+    /**
+     * the escaped tag count.
+     */
+    private int escapes;
+
+    /**
+     * the index of the next open tag to render.
+     */
+    private int pair;
+
+    /**
+     * the open tag count.
+     */
+    private int pairs;
+
+    /**
+     * adds the escaped tag.
+     *
+     * @param index the index of the backslash.
+     * @param close {@code true} if the tag is a close tag.
+     */
+    private void escape(final int index, final boolean close) {
+      if (this.escapes == this.escaped.length) {
+        this.escaped = Arrays.copyOf(this.escaped, this.escapes << 1);
+      }
+      this.escaped[this.escapes++] = index << 1 | (close ? 1 : 0);
+    }
+
+    /**
+     * adds the open tag.
+     *
+     * @param index the index of the open tag.
+     *
+     * @return index of the open tag in the parse.
+     */
+    private int open(final int index) {
+      if (this.pairs == this.opens.length) {
+        this.opens = Arrays.copyOf(this.opens, this.pairs << 1);
+        this.closes = Arrays.copyOf(this.closes, this.pairs << 1);
+      }
+      this.opens[this.pairs] = index;
+      this.closes[this.pairs] = -1;
+      return this.pairs++;
+    }
+  }
+}
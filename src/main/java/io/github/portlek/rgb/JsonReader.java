@@ -0,0 +1,586 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Hasan Demirtaş
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package io.github.portlek.rgb;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * a class that reads json tokens from a string in a single pass.
+ * <p>
+ * malformed input does not throw, the reader records the first error and then reports {@link Token#END} for every
+ * following token, so callers check {@link #isFailed()} once they are done.
+ */
+final class JsonReader {
+
+  /**
+   * the json.
+   */
+  @NotNull
+  private final String json;
+
+  /**
+   * the length.
+   */
+  private final int length;
+
+  /**
+   * the comma.
+   */
+  private boolean comma;
+
+  /**
+   * the error.
+   */
+  @Nullable
+  private String error;
+
+  /**
+   * the position.
+   */
+  private int position;
+
+  /**
+   * ctor.
+   *
+   * @param json the json.
+   */
+  JsonReader(@NotNull final String json) {
+    this.json = json;
+    this.length = json.length();
+  }
+
+  /**
+   * consumes the start of an array.
+   *
+   * @return {@code true} if the array started.
+   */
+  boolean beginArray() {
+    return this.begin('[');
+  }
+
+  /**
+   * consumes the start of an object.
+   *
+   * @return {@code true} if the object started.
+   */
+  boolean beginObject() {
+    return this.begin('{');
+  }
+
+  /**
+   * consumes the end of the array.
+   */
+  void endArray() {
+    this.end(']');
+  }
+
+  /**
+   * consumes the end of the object.
+   */
+  void endObject() {
+    this.end('}');
+  }
+
+  /**
+   * marks the input as malformed.
+   *
+   * @param message the message to mark.
+   */
+  void fail(@NotNull final String message) {
+    if (this.error == null) {
+      this.error = message + " at " + this.position;
+      this.position = this.length;
+    }
+  }
+
+  /**
+   * checks that nothing but whitespace follows the consumed value.
+   *
+   * @return {@code true} if the whole input was consumed without errors.
+   */
+  boolean finish() {
+    this.skipWhitespace();
+    if (this.position < this.length) {
+      this.fail("Unexpected trailing data");
+    }
+    return this.error == null;
+  }
+
+  /**
+   * obtains the error.
+   *
+   * @return error or null.
+   */
+  @Nullable
+  String getError() {
+    return this.error;
+  }
+
+  /**
+   * checks if the current array or object has another element and consumes the separator before it.
+   *
+   * @return {@code true} if there is another element.
+   */
+  boolean hasNext() {
+    this.skipWhitespace();
+    if (this.position >= this.length) {
+      this.fail("Unexpected end of input");
+      return false;
+    }
+    final var character = this.json.charAt(this.position);
+    if (character == '}' || character == ']') {
+      return false;
+    }
+    if (this.comma) {
+      if (character != ',') {
+        this.fail("Expected ','");
+        return false;
+      }
+      this.position++;
+      this.comma = false;
+    }
+    return true;
+  }
+
+  /**
+   * checks if the reader failed.
+   *
+   * @return {@code true} if the input is malformed.
+   */
+  boolean isFailed() {
+    return this.error != null;
+  }
+
+  /**
+   * reads the boolean, strings are read as {@link Boolean#parseBoolean(String)} and everything else is false.
+   *
+   * @return boolean.
+   */
+  boolean nextBoolean() {
+    if (this.peek() == Token.BOOLEAN) {
+      final var value = this.json.charAt(this.position) == 't';
+      this.position += value ? 4 : 5;
+      this.comma = true;
+      return value;
+    }
+    return Boolean.parseBoolean(this.nextScalar());
+  }
+
+  /**
+   * reads the name of the next member and the colon after it.
+   *
+   * @return name or null if the input is malformed.
+   */
+  @Nullable
+  String nextName() {
+    if (this.peek() != Token.STRING) {
+      this.fail("Expected a name");
+      return null;
+    }
+    final var name = this.readString();
+    this.skipWhitespace();
+    if (this.position >= this.length || this.json.charAt(this.position) != ':') {
+      this.fail("Expected ':'");
+      return null;
+    }
+    this.position++;
+    this.comma = false;
+    return name;
+  }
+
+  /**
+   * reads a string, number, boolean or null as its text.
+   *
+   * @return text of the value or null for a json null.
+   */
+  @Nullable
+  String nextScalar() {
+    final var token = this.peek();
+    final var start = this.position;
+    switch (token) {
+      case STRING:
+        return this.readString();
+      case NUMBER:
+        this.readNumber();
+        return this.json.substring(start, this.position);
+      case BOOLEAN:
+        this.position += this.json.charAt(start) == 't' ? 4 : 5;
+        this.comma = true;
+        return this.json.substring(start, this.position);
+      case NULL:
+        this.position += 4;
+        this.comma = true;
+        return null;
+      default:
+        this.fail("Expected a value");
+        return null;
+    }
+  }
+
+  /**
+   * reads any value into plain java objects, objects become maps and arrays become lists.
+   *
+   * @return value or null.
+   */
+  @Nullable
+  Object nextValue() {
+    switch (this.peek()) {
+      case BEGIN_OBJECT:
+        final var object = new LinkedHashMap<String, Object>();
+        this.beginObject();
+        while (this.hasNext()) {
+          final var name = this.nextName();
+          object.put(name, this.nextValue());
+        }
+        this.endObject();
+        return object;
+      case BEGIN_ARRAY:
+        final var array = new ArrayList<>();
+        this.beginArray();
+        while (this.hasNext()) {
+          array.add(this.nextValue());
+        }
+        this.endArray();
+        return array;
+      case NUMBER:
+        final var start = this.position;
+        this.readNumber();
+        if (this.isFailed()) {
+          return null;
+        }
+        return new BigDecimal(this.json.substring(start, this.position));
+      case BOOLEAN:
+        return this.nextBoolean();
+      default:
+        return this.nextScalar();
+    }
+  }
+
+  /**
+   * peeks the next token.
+   *
+   * @return next token.
+   */
+  @NotNull
+  Token peek() {
+    this.skipWhitespace();
+    if (this.position >= this.length) {
+      return Token.END;
+    }
+    switch (this.json.charAt(this.position)) {
+      case '{':
+        return Token.BEGIN_OBJECT;
+      case '[':
+        return Token.BEGIN_ARRAY;
+      case '"':
+        return Token.STRING;
+      case 't':
+        return this.json.startsWith("true", this.position) ? Token.BOOLEAN : Token.END;
+      case 'f':
+        return this.json.startsWith("false", this.position) ? Token.BOOLEAN : Token.END;
+      case 'n':
+        return this.json.startsWith("null", this.position) ? Token.NULL : Token.END;
+      case '-':
+      case '0':
+      case '1':
+      case '2':
+      case '3':
+      case '4':
+      case '5':
+      case '6':
+      case '7':
+      case '8':
+      case '9':
+        return Token.NUMBER;
+      default:
+        return Token.END;
+    }
+  }
+
+  /**
+   * skips the next value.
+   */
+  void skipValue() {
+    switch (this.peek()) {
+      case BEGIN_OBJECT:
+        this.beginObject();
+        while (this.hasNext()) {
+          this.nextName();
+          this.skipValue();
+        }
+        this.endObject();
+        break;
+      case BEGIN_ARRAY:
+        this.beginArray();
+        while (this.hasNext()) {
+          this.skipValue();
+        }
+        this.endArray();
+        break;
+      default:
+        this.nextScalar();
+        break;
+    }
+  }
+
+  /**
+   * consumes the start of a container.
+   *
+   * @param open the open to consume.
+   *
+   * @return {@code true} if the container started.
+   */
+  private boolean begin(final char open) {
+    this.skipWhitespace();
+    if (this.position >= this.length || this.json.charAt(this.position) != open) {
+      this.fail("Expected '" + open + "'");
+      return false;
+    }
+    this.position++;
+    this.comma = false;
+    return true;
+  }
+
+  /**
+   * consumes the end of a container.
+   *
+   * @param close the close to consume.
+   */
+  private void end(final char close) {
+    this.skipWhitespace();
+    if (this.position >= this.length || this.json.charAt(this.position) != close) {
+      this.fail("Expected '" + close + "'");
+      return;
+    }
+    this.position++;
+    this.comma = true;
+  }
+
+  /**
+   * reads the digits.
+   *
+   * @return {@code true} if at least one digit was read.
+   */
+  private boolean readDigits() {
+    final var start = this.position;
+    while (this.position < this.length && this.json.charAt(this.position) >= '0' &&
+      this.json.charAt(this.position) <= '9') {
+      this.position++;
+    }
+    return this.position > start;
+  }
+
+  /**
+   * reads the hex digit at the position.
+   *
+   * @param index the index to read.
+   *
+   * @return hex digit or -1.
+   */
+  private int readHex(final int index) {
+    if (index >= this.length) {
+      return -1;
+    }
+    return Character.digit(this.json.charAt(index), 16);
+  }
+
+  /**
+   * reads a number in the json number grammar.
+   */
+  private void readNumber() {
+    if (this.json.charAt(this.position) == '-') {
+      this.position++;
+    }
+    if (this.position < this.length && this.json.charAt(this.position) == '0') {
+      this.position++;
+    } else if (!this.readDigits()) {
+      this.fail("Malformed number");
+      return;
+    }
+    if (this.position < this.length && this.json.charAt(this.position) == '.') {
+      this.position++;
+      if (!this.readDigits()) {
+        this.fail("Malformed number");
+        return;
+      }
+    }
+    if (this.position < this.length && (this.json.charAt(this.position) | 0x20) == 'e') {
+      this.position++;
+      if (this.position < this.length &&
+        (this.json.charAt(this.position) == '+' || this.json.charAt(this.position) == '-')) {
+        this.position++;
+      }
+      if (!this.readDigits()) {
+        this.fail("Malformed number");
+        return;
+      }
+    }
+    this.comma = true;
+  }
+
+  /**
+   * reads the string at the position, the position points to the opening quote.
+   *
+   * @return string or null if the input is malformed.
+   */
+  @Nullable
+  private String readString() {
+    final var start = ++this.position;
+    var index = start;
+    while (index < this.length) {
+      final var character = this.json.charAt(index);
+      if (character == '"') {
+        this.position = index + 1;
+        this.comma = true;
+        return this.json.substring(start, index);
+      }
+      if (character == '\\') {
+        break;
+      }
+      if (character < 0x20) {
+        this.position = index;
+        this.fail("Unescaped control character");
+        return null;
+      }
+      index++;
+    }
+    final var builder = new StringBuilder(index - start + 16).append(this.json, start, index);
+    while (index < this.length) {
+      final var character = this.json.charAt(index++);
+      if (character == '"') {
+        this.position = index;
+        this.comma = true;
+        return builder.toString();
+      }
+      if (character < 0x20) {
+        this.position = index - 1;
+        this.fail("Unescaped control character");
+        return null;
+      }
+      if (character != '\\') {
+        builder.append(character);
+        continue;
+      }
+      if (index >= this.length) {
+        break;
+      }
+      final var escape = this.json.charAt(index++);
+      switch (escape) {
+        case '"':
+        case '\\':
+        case '/':
+          builder.append(escape);
+          break;
+        case 'b':
+          builder.append('\b');
+          break;
+        case 'f':
+          builder.append('\f');
+          break;
+        case 'n':
+          builder.append('\n');
+          break;
+        case 'r':
+          builder.append('\r');
+          break;
+        case 't':
+          builder.append('\t');
+          break;
+        case 'u':
+          var code = 0;
+          for (var digit = 0; digit < 4; digit++) {
+            final var hex = this.readHex(index++);
+            if (hex < 0) {
+              this.position = index - 1;
+              this.fail("Malformed unicode escape");
+              return null;
+            }
+            code = code << 4 | hex;
+          }
+          builder.append((char) code);
+          break;
+        default:
+          this.position = index - 1;
+          this.fail("Unknown escape");
+          return null;
+      }
+    }
+    this.position = this.length;
+    this.fail("Unterminated string");
+    return null;
+  }
+
+  /**
+   * skips the whitespace.
+   */
+  private void skipWhitespace() {
+    while (this.position < this.length) {
+      final var character = this.json.charAt(this.position);
+      if (character != ' ' && character != '\n' && character != '\r' && character != '\t') {
+        return;
+      }
+      this.position++;
+    }
+  }
+
+  /**
+   * an enum class that contains json tokens.
+   */
+  enum Token {
+    /**
+     * the begin array.
+     */
+    BEGIN_ARRAY,
+    /**
+     * the begin object.
+     */
+    BEGIN_OBJECT,
+    /**
+     * the boolean.
+     */
+    BOOLEAN,
+    /**
+     * the end of the input, a closing bracket or an unknown token.
+     */
+    END,
+    /**
+     * the null.
+     */
+    NULL,
+    /**
+     * the number.
+     */
+    NUMBER,
+    /**
+     * the string.
+     */
+    STRING
+  }
+}
@@ -0,0 +1,450 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Hasan Demirtaş
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package io.github.portlek.rgb;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collection;
+import java.util.Map;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * a class that writes json straight into an {@link Appendable} in a single pass.
+ */
+final class JsonWriter {
+
+  /**
+   * the escapes of the ascii characters.
+   */
+  private static final String[] ESCAPES = new String[128];
+
+  /**
+   * the hex digits.
+   */
+  private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+  /**
+   * the appendable.
+   */
+  @NotNull
+  private final Appendable appendable;
+
+  /**
+   * the depth of the colors.
+   */
+  @NotNull
+  private final ColorDepth depth;
+
+  /**
+   * the appendable of the legacy variant, {@code null} unless both variants are written.
+   */
+  @Nullable
+  private final Appendable legacy;
+
+  /**
+   * the appendable of the rgb variant, {@code null} unless both variants are written.
+   */
+  @Nullable
+  private final Appendable rgb;
+
+  /**
+   * the after name.
+   */
+  private boolean afterName;
+
+  /**
+   * the first.
+   */
+  private boolean first = true;
+
+  static {
+    for (var character = 0; character < 0x20; character++) {
+      JsonWriter.ESCAPES[character] = "\\u00" + JsonWriter.HEX[character >> 4] + JsonWriter.HEX[character & 0xF];
+    }
+    JsonWriter.ESCAPES['"'] = "\\\"";
+    JsonWriter.ESCAPES['\\'] = "\\\\";
+    JsonWriter.ESCAPES['\b'] = "\\b";
+    JsonWriter.ESCAPES['\f'] = "\\f";
+    JsonWriter.ESCAPES['\n'] = "\\n";
+    JsonWriter.ESCAPES['\r'] = "\\r";
+    JsonWriter.ESCAPES['\t'] = "\\t";
+  }
+
+  /**
+   * ctor.
+   *
+   * @param appendable the appendable.
+   */
+  JsonWriter(@NotNull final Appendable appendable) {
+    this(appendable, ColorDepth.RGB);
+  }
+
+  /**
+   * ctor.
+   *
+   * @param appendable the appendable.
+   * @param depth the depth.
+   */
+  JsonWriter(@NotNull final Appendable appendable, @NotNull final ColorDepth depth) {
+    this.appendable = appendable;
+    this.depth = depth;
+    this.legacy = null;
+    this.rgb = null;
+  }
+
+  /**
+   * ctor.
+   *
+   * @param rgb the rgb.
+   * @param legacy the legacy.
+   */
+  private JsonWriter(@NotNull final Appendable rgb, @NotNull final Appendable legacy) {
+    this.appendable = new Tee(rgb, legacy);
+    this.depth = ColorDepth.RGB;
+    this.legacy = legacy;
+    this.rgb = rgb;
+  }
+
+  /**
+   * creates a writer that writes the rgb and the legacy variants of the same json at once.
+   * <p>
+   * everything but the colors is written to both appendables.
+   *
+   * @param rgb the rgb to create.
+   * @param legacy the legacy to create.
+   *
+   * @return a newly created writer.
+   */
+  @NotNull
+  static JsonWriter dual(@NotNull final Appendable rgb, @NotNull final Appendable legacy) {
+    return new JsonWriter(rgb, legacy);
+  }
+
+  /**
+   * converts the value into json.
+   *
+   * @param value the value to convert.
+   *
+   * @return json.
+   */
+  @NotNull
+  static String toJson(@Nullable final Object value) {
+    final var builder = new StringBuilder();
+    try {
+      new JsonWriter(builder).value(value);
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return builder.toString();
+  }
+
+  /**
+   * writes the text as a quoted and escaped json string.
+   *
+   * @param appendable the appendable to write.
+   * @param text the text to write.
+   *
+   * @throws IOException if the appendable fails.
+   */
+  static void quote(@NotNull final Appendable appendable, @NotNull final CharSequence text) throws IOException {
+    appendable.append('"');
+    final var length = text.length();
+    var start = 0;
+    for (var index = 0; index < length; index++) {
+      final var character = text.charAt(index);
+      final String escape;
+      if (character < JsonWriter.ESCAPES.length) {
+        escape = JsonWriter.ESCAPES[character];
+      } else if (character == 0x2028) {
+        escape = "\\u2028";
+      } else if (character == 0x2029) {
+        escape = "\\u2029";
+      } else {
+        escape = null;
+      }
+      if (escape != null) {
+        if (index > start) {
+          appendable.append(text, start, index);
+        }
+        appendable.append(escape);
+        start = index + 1;
+      }
+    }
+    if (length > start) {
+      appendable.append(text, start, length);
+    }
+    appendable.append('"');
+  }
+
+  /**
+   * begins an array.
+   *
+   * @return {@code this} for builder chain.
+   *
+   * @throws IOException if the appendable fails.
+   */
+  @NotNull
+  JsonWriter beginArray() throws IOException {
+    this.beforeValue();
+    this.appendable.append('[');
+    this.first = true;
+    return this;
+  }
+
+  /**
+   * begins an object.
+   *
+   * @return {@code this} for builder chain.
+   *
+   * @throws IOException if the appendable fails.
+   */
+  @NotNull
+  JsonWriter beginObject() throws IOException {
+    this.beforeValue();
+    this.appendable.append('{');
+    this.first = true;
+    return this;
+  }
+
+  /**
+   * writes the color for the depth, or both of its variants.
+   *
+   * @param color the color to write.
+   *
+   * @return {@code this} for builder chain.
+   *
+   * @throws IOException if the appendable fails.
+   */
+  @NotNull
+  JsonWriter color(@NotNull final TextColor color) throws IOException {
+    this.beforeValue();
+    if (this.rgb != null && this.legacy != null) {
+      JsonWriter.quote(this.rgb, color.toString());
+      JsonWriter.quote(this.legacy, color.toString(ColorDepth.LEGACY));
+    } else {
+      JsonWriter.quote(this.appendable, color.toString(this.depth));
+    }
+    return this;
+  }
+
+  /**
+   * ends the array.
+   *
+   * @return {@code this} for builder chain.
+   *
+   * @throws IOException if the appendable fails.
+   */
+  @NotNull
+  JsonWriter endArray() throws IOException {
+    this.appendable.append(']');
+    this.first = false;
+    return this;
+  }
+
+  /**
+   * ends the object.
+   *
+   * @return {@code this} for builder chain.
+   *
+   * @throws IOException if the appendable fails.
+   */
+  @NotNull
+  JsonWriter endObject() throws IOException {
+    this.appendable.append('}');
+    this.first = false;
+    return this;
+  }
+
+  /**
+   * writes the name of the next member.
+   *
+   * @param name the name to write.
+   *
+   * @return {@code this} for builder chain.
+   *
+   * @throws IOException if the appendable fails.
+   */
+  @NotNull
+  JsonWriter name(@NotNull final String name) throws IOException {
+    this.beforeValue();
+    JsonWriter.quote(this.appendable, name);
+    this.appendable.append(':');
+    this.afterName = true;
+    return this;
+  }
+
+  /**
+   * writes the value.
+   *
+   * @param value the value to write.
+   *
+   * @return {@code this} for builder chain.
+   *
+   * @throws IOException if the appendable fails.
+   */
+  @NotNull
+  JsonWriter value(@Nullable final String value) throws IOException {
+    this.beforeValue();
+    if (value == null) {
+      this.appendable.append("null");
+    } else {
+      JsonWriter.quote(this.appendable, value);
+    }
+    return this;
+  }
+
+  /**
+   * writes the value.
+   *
+   * @param value the value to write.
+   *
+   * @return {@code this} for builder chain.
+   *
+   * @throws IOException if the appendable fails.
+   */
+  @NotNull
+  JsonWriter value(final boolean value) throws IOException {
+    this.beforeValue();
+    this.appendable.append(value ? "true" : "false");
+    return this;
+  }
+
+  /**
+   * writes the value.
+   *
+   * @param value the value to write, components, maps, collections, numbers and booleans are written as json,
+   *   everything else as a string.
+   *
+   * @return {@code this} for builder chain.
+   *
+   * @throws IOException if the appendable fails.
+   */
+  @NotNull
+  JsonWriter value(@Nullable final Object value) throws IOException {
+    if (value == null || value instanceof String) {
+      return this.value((String) value);
+    }
+    if (value instanceof Boolean) {
+      return this.value(((Boolean) value).booleanValue());
+    }
+    if (value instanceof ChatComponent) {
+      ((ChatComponent) value).write(this);
+      return this;
+    }
+    if (value instanceof Number) {
+      final var number = (Number) value;
+      final var real = number.doubleValue();
+      this.beforeValue();
+      this.appendable.append(Double.isNaN(real) || Double.isInfinite(real) ? "null" : number.toString());
+      return this;
+    }
+    if (value instanceof Map<?, ?>) {
+      this.beginObject();
+      for (final var entry : ((Map<?, ?>) value).entrySet()) {
+        this.name(String.valueOf(entry.getKey())).value(entry.getValue());
+      }
+      return this.endObject();
+    }
+    if (value instanceof Collection<?>) {
+      this.beginArray();
+      for (final var element : (Collection<?>) value) {
+        this.value(element);
+      }
+      return this.endArray();
+    }
+    return this.value(value.toString());
+  }
+
+  /**
+   * writes the separator if the next value needs one.
+   *
+   * @throws IOException if the appendable fails.
+   */
+  private void beforeValue() throws IOException {
+    if (this.afterName) {
+      this.afterName = false;
+      return;
+    }
+    if (!this.first) {
+      this.appendable.append(',');
+    }
+    this.first = false;
+  }
+
+  /**
+   * a class that represents appendables which write into two appendables.
+   */
+  private static final class Tee implements Appendable {
+
+    /**
+     * the first.
+     */
+    @NotNull
+    private final Appendable first;
+
+    /**
+     * the second.
+     */
+    @NotNull
+    private final Appendable second;
+
+    /**
+     * ctor.
+     *
+     * @param first the first.
+     * @param second the second.
+     */
+    private Tee(@NotNull final Appendable first, @NotNull final Appendable second) {
+      this.first = first;
+      this.second = second;
+    }
+
+    @NotNull
+    @Override
+    public Tee append(@Nullable final CharSequence csq) throws IOException {
+      this.first.append(csq);
+      this.second.append(csq);
+      return this;
+    }
+
+    @NotNull
+    @Override
+    public Tee append(@Nullable final CharSequence csq, final int start, final int end) throws IOException {
+      this.first.append(csq, start, end);
+      this.second.append(csq, start, end);
+      return this;
+    }
+
+    @NotNull
+    @Override
+    public Tee append(final char c) throws IOException {
+      this.first.append(c);
+      this.second.append(c);
+      return this;
+    }
+  }
+}
@@ -25,7 +25,6 @@
 
 package io.github.portlek.rgb;
 
-import java.util.stream.IntStream;
 import org.jetbrains.annotations.NotNull;
 
 /**
@@ -34,19 +33,30 @@ import org.jetbrains.annotations.NotNull;
 public final class Legacy {
 
   /**
-   * the magic codes 1.
+   * the color codes, including reset.
    */
-  private static final String MAGIC_CODES_1 = "0123456789AaBbCcDdEeFfRr";
+  private static final byte COLOR = 1;
 
   /**
-   * the magic codes 2.
+   * the format codes.
    */
-  private static final String MAGIC_CODES_2 = Legacy.MAGIC_CODES_1 + "KkLlMmNnOo";
+  private static final byte FORMAT = 2;
 
   /**
-   * the magic codes 3.
+   * the hex code.
    */
-  private static final String MAGIC_CODES_3 = Legacy.MAGIC_CODES_2 + "Xx";
+  private static final byte HEX = 4;
+
+  /**
+   * the code classes by character.
+   */
+  private static final byte[] CODES = new byte[128];
+
+  static {
+    Legacy.classify("0123456789AaBbCcDdEeFfRr", Legacy.COLOR);
+    Legacy.classify("KkLlMmNnOo", Legacy.FORMAT);
+    Legacy.classify("Xx", Legacy.HEX);
+  }
 
   /**
    * ctor.
@@ -63,19 +73,43 @@ public final class Legacy {
    */
   @NotNull
   public static String color(@NotNull final String text) {
-    if (!text.contains("&")) {
+    final var length = text.length() - 1;
+    var index = text.indexOf('&');
+    while (index > -1 && index < length && !Legacy.is(text.charAt(index + 1), Legacy.COLOR | Legacy.FORMAT | Legacy.HEX)) {
+      index = text.indexOf('&', index + 1);
+    }
+    if (index < 0 || index >= length) {
       return text;
     }
     final var chars = text.toCharArray();
-    IntStream.range(0, chars.length - 1)
-      .filter(i -> chars[i] == '&' && Legacy.MAGIC_CODES_3.indexOf(chars[i + 1]) > -1)
-      .forEach(i -> {
-        chars[i] = '\u00a7';
-        chars[i + 1] = Character.toLowerCase(chars[i + 1]);
-      });
+    for (; index < length; index++) {
+      if (chars[index] == '&' && Legacy.is(chars[index + 1], Legacy.COLOR | Legacy.FORMAT | Legacy.HEX)) {
+        chars[index] = '\u00a7';
+        chars[index + 1] = Character.toLowerCase(chars[index + 1]);
+      }
+    }
     return new String(chars);
   }
 
+  /**
+   * colorizes the text and appends it to the builder.
+   *
+   * @param text the text to colorize.
+   * @param builder the builder to append.
+   */
+  static void color(@NotNull final CharSequence text, @NotNull final StringBuilder builder) {
+    final var length = text.length();
+    var last = 0;
+    for (var index = 0; index < length - 1; index++) {
+      if (text.charAt(index) == '&' && Legacy.is(text.charAt(index + 1), Legacy.COLOR | Legacy.FORMAT | Legacy.HEX)) {
+        builder.append(text, last, index).append('\u00a7').append(Character.toLowerCase(text.charAt(index + 1)));
+        last = index + 2;
+        index++;
+      }
+    }
+    builder.append(text, last, length);
+  }
+
   /**
    * gets last colors of the text.
    *
@@ -85,22 +119,88 @@ public final class Legacy {
    */
   @NotNull
   public static String getLastColors(@NotNull final String text) {
-    final var builder = new StringBuilder();
-    final var length = text.length();
-    for (var index = length - 1; index > -1; index--) {
-      final var section = text.charAt(index);
-      if (section != '\u00a7' && section != '&' || index >= length - 1) {
-        continue;
-      }
-      final var c = text.charAt(index + 1);
-      if (!Legacy.MAGIC_CODES_2.contains(String.valueOf(c))) {
-        continue;
+    final var last = text.length() - 1;
+    var count = 0;
+    var start = 0;
+    for (var index = last - 1; index > -1; index--) {
+      if (Legacy.isCode(text, index)) {
+        count++;
+        if (Legacy.is(text.charAt(index + 1), Legacy.COLOR)) {
+          start = index;
+          break;
+        }
       }
-      builder.insert(0, "\u00a7" + c);
-      if (Legacy.MAGIC_CODES_1.contains(String.valueOf(c))) {
-        break;
+    }
+    if (count == 0) {
+      return "";
+    }
+    final var chars = new char[count << 1];
+    var position = 0;
+    for (var index = start; index < last; index++) {
+      if (Legacy.isCode(text, index)) {
+        chars[position++] = '\u00a7';
+        chars[position++] = text.charAt(index + 1);
       }
     }
-    return builder.toString();
+    return new String(chars);
+  }
+
+  /**
+   * marks the characters with the class.
+   *
+   * @param characters the characters to mark.
+   * @param type the type to mark.
+   */
+  private static void classify(@NotNull final String characters, final byte type) {
+    for (var index = 0; index < characters.length(); index++) {
+      Legacy.CODES[characters.charAt(index)] |= type;
+    }
+  }
+
+  /**
+   * checks if the character is in one of the classes.
+   *
+   * @param character the character to check.
+   * @param types the types to check.
+   *
+   * @return {@code true} if the character is in one of the classes.
+   */
+  private static boolean is(final char character, final int types) {
+    return character < Legacy.CODES.length && (Legacy.CODES[character] & types) != 0;
+  }
+
+  /**
+   * checks if the character is a color code, including reset.
+   *
+   * @param character the character to check.
+   *
+   * @return {@code true} if the character is a color code.
+   */
+  static boolean isColor(final char character) {
+    return Legacy.is(character, Legacy.COLOR);
+  }
+
+  /**
+   * checks if {@link #color(String)} turns an {@code &} that comes before the character into a {@code \u00a7}.
+   *
+   * @param character the character to check.
+   *
+   * @return {@code true} if the character is a color, format or hex code.
+   */
+  static boolean isTranslated(final char character) {
+    return Legacy.is(character, Legacy.COLOR | Legacy.FORMAT | Legacy.HEX);
+  }
+
+  /**
+   * checks if the text has a color or format code at the index.
+   *
+   * @param text the text to check.
+   * @param index the index to check, must be smaller than the last index of the text.
+   *
+   * @return {@code true} if the text has a color or format code at the index.
+   */
+  static boolean isCode(@NotNull final CharSequence text, final int index) {
+    final var section = text.charAt(index);
+    return (section == '\u00a7' || section == '&') && Legacy.is(text.charAt(index + 1), Legacy.COLOR | Legacy.FORMAT);
   }
 }
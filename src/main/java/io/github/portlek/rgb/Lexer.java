@@ -0,0 +1,1059 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Hasan Demirtaş
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package io.github.portlek.rgb;
+
+import io.github.portlek.rgb.formatters.BukkitFormatter;
+import io.github.portlek.rgb.formatters.CMIFormatter;
+import io.github.portlek.rgb.formatters.HtmlFormatter;
+import io.github.portlek.rgb.formatters.UnnamedFormatter;
+import io.github.portlek.rgb.gradients.CMIGradient;
+import io.github.portlek.rgb.gradients.HtmlGradient;
+import io.github.portlek.rgb.gradients.IridescentGradient;
+import io.github.portlek.rgb.gradients.KyoriGradient;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * a class that represents single-pass lexers.
+ * <p>
+ * the lexer fuses the built-in formatters and gradients into a chain of streaming stages. the input is read once from
+ * left to right, every stage recognises its own syntax in a small look-ahead window and hands the rest to the next
+ * stage, and the output is written once into a single buffer. each stage keeps the exact semantics of the formatter or
+ * the gradient it replaces, so the output is the same as running the stages one after another.
+ */
+final class Lexer {
+
+  /**
+   * the hex digits.
+   */
+  private static final String HEX = "0123456789abcdefABCDEF";
+
+  /**
+   * the stage factories of the built-in formatters and gradients.
+   */
+  private static final Map<Object, Supplier<Stage>> STAGES = new IdentityHashMap<>();
+
+  static {
+    Lexer.STAGES.put(BukkitFormatter.INSTANCE, () -> new FormatterStage(Lexer.pattern(
+      "\u00a7&", "x", "\u00a7&{1" + Lexer.HEX, 12), 3, 2, true));
+    Lexer.STAGES.put(CMIFormatter.INSTANCE, () -> new FormatterStage(Lexer.hexPattern("{#", "}"), 2, 1, true));
+    Lexer.STAGES.put(HtmlFormatter.INSTANCE, () -> new FormatterStage(Lexer.hexPattern("#<", ">"), 2, 1, true));
+    Lexer.STAGES.put(UnnamedFormatter.INSTANCE, () -> new FormatterStage(Lexer.pattern("&#"), 0, 0, false));
+    final var cmi = GradientSyntax.of("{#RRGGBB>}", "{#RRGGBB<}");
+    final var html = GradientSyntax.of("<#RRGGBB>", "</#RRGGBB>");
+    final var iridescent = GradientSyntax.of("<$#RRGGBB>", "<$#RRGGBB>");
+    final var kyori = GradientSyntax.of("<gradient:#RRGGBB:#RRGGBB>", "</gradient>");
+    Lexer.STAGES.put(CMIGradient.INSTANCE, () -> new GradientStage(cmi));
+    Lexer.STAGES.put(HtmlGradient.INSTANCE, () -> new GradientStage(html));
+    Lexer.STAGES.put(IridescentGradient.INSTANCE, () -> new GradientStage(iridescent));
+    Lexer.STAGES.put(KyoriGradient.INSTANCE, () -> new GradientStage(kyori));
+  }
+
+  /**
+   * the chain of the current thread.
+   */
+  private final ThreadLocal<Chain> chain;
+
+  /**
+   * the chain of the current thread that colorizes the legacy codes first and parses the output into components.
+   */
+  private final ThreadLocal<Chain> components;
+
+  /**
+   * the stage factories.
+   */
+  @NotNull
+  private final Supplier<Stage>[] factories;
+
+  /**
+   * the formatters.
+   */
+  @NotNull
+  private final Formatter[] formatters;
+
+  /**
+   * the gradients.
+   */
+  @NotNull
+  private final Gradient[] gradients;
+
+  /**
+   * ctor.
+   *
+   * @param factories the factories.
+   * @param formatters the formatters.
+   * @param gradients the gradients.
+   */
+  private Lexer(@NotNull final Supplier<Stage>[] factories, @NotNull final Formatter[] formatters,
+                @NotNull final Gradient[] gradients) {
+    this.factories = factories.clone();
+    this.formatters = formatters.clone();
+    this.gradients = gradients.clone();
+    this.chain = ThreadLocal.withInitial(() -> this.newChain(false));
+    this.components = ThreadLocal.withInitial(() -> this.newChain(true));
+  }
+
+  /**
+   * creates a lexer for the formatters and gradients.
+   *
+   * @param formatters the formatters to create.
+   * @param gradients the gradients to create.
+   *
+   * @return a newly created lexer or {@code null} if one of the stages is not a built-in one.
+   */
+  @Nullable
+  static Lexer of(@NotNull final Collection<Formatter> formatters,
+                  @NotNull final Collection<Gradient> gradients) {
+    @SuppressWarnings("unchecked") final var factories =
+      (Supplier<Stage>[]) new Supplier<?>[formatters.size() + gradients.size()];
+    var index = 0;
+    for (final var formatter : formatters) {
+      final var factory = Lexer.STAGES.get(formatter);
+      if (factory == null) {
+        return null;
+      }
+      factories[index++] = factory;
+    }
+    for (final var gradient : gradients) {
+      final var factory = Lexer.STAGES.get(gradient);
+      if (factory == null) {
+        return null;
+      }
+      factories[index++] = factory;
+    }
+    return new Lexer(factories, formatters.toArray(Formatter[]::new), gradients.toArray(Gradient[]::new));
+  }
+
+  /**
+   * creates a pattern that matches the prefix, six hex digits and the suffix.
+   *
+   * @param prefix the prefix to create.
+   * @param suffix the suffix to create.
+   *
+   * @return a newly created pattern.
+   */
+  @NotNull
+  private static boolean[][] hexPattern(@NotNull final String prefix, @NotNull final String suffix) {
+    final var pattern = new boolean[prefix.length() + 6 + suffix.length()][];
+    var index = 0;
+    for (final var c : prefix.toCharArray()) {
+      pattern[index++] = Lexer.set(String.valueOf(c));
+    }
+    final var hex = Lexer.set(Lexer.HEX);
+    for (var i = 0; i < 6; i++) {
+      pattern[index++] = hex;
+    }
+    for (final var c : suffix.toCharArray()) {
+      pattern[index++] = Lexer.set(String.valueOf(c));
+    }
+    return pattern;
+  }
+
+  /**
+   * creates a pattern that matches the literal.
+   *
+   * @param literal the literal to create.
+   *
+   * @return a newly created pattern.
+   */
+  @NotNull
+  private static boolean[][] pattern(@NotNull final String literal) {
+    final var pattern = new boolean[literal.length()][];
+    for (var i = 0; i < pattern.length; i++) {
+      pattern[i] = Lexer.set(String.valueOf(literal.charAt(i)));
+    }
+    return pattern;
+  }
+
+  /**
+   * creates a pattern that matches the first, the second and the repeated character sets.
+   *
+   * @param first the first to create.
+   * @param second the second to create.
+   * @param repeated the repeated to create.
+   * @param times the times to create.
+   *
+   * @return a newly created pattern.
+   */
+  @NotNull
+  private static boolean[][] pattern(@NotNull final String first, @NotNull final String second,
+                                     @NotNull final String repeated, final int times) {
+    final var pattern = new boolean[times + 2][];
+    pattern[0] = Lexer.set(first);
+    pattern[1] = Lexer.set(second);
+    Arrays.fill(pattern, 2, pattern.length, Lexer.set(repeated));
+    return pattern;
+  }
+
+  /**
+   * creates a character set.
+   *
+   * @param chars the chars to create.
+   *
+   * @return a newly created character set.
+   */
+  @NotNull
+  private static boolean[] set(@NotNull final String chars) {
+    final var set = new boolean[256];
+    for (final var c : chars.toCharArray()) {
+      set[c] = true;
+    }
+    return set;
+  }
+
+  /**
+   * skips the characters that can not start a syntax of one of the stages.
+   *
+   * @param chain the chain to skip.
+   * @param text the text to skip.
+   * @param from the from to skip.
+   *
+   * @return index of the first trigger character or the length of the text.
+   */
+  private static int skip(@NotNull final Chain chain, @NotNull final CharSequence text, final int from) {
+    final var length = text.length();
+    var index = from;
+    while (index < length && !Stage.matches(chain.triggers, text.charAt(index))) {
+      index++;
+    }
+    return index;
+  }
+
+  /**
+   * streams the text through the stages of the chain.
+   *
+   * @param chain the chain to stream.
+   * @param text the text to stream.
+   * @param index the index of the first trigger character.
+   * @param ignorePlaceholders the ignore placeholders.
+   * @param builder the builder that receives the output.
+   *
+   * @return {@code false} if the stages have to be applied one after another, the builder contains partial output
+   *   then.
+   */
+  private static boolean stream(@NotNull final Chain chain, @NotNull final CharSequence text, final int index,
+                                final boolean ignorePlaceholders, @NotNull final StringBuilder builder) {
+    final var sink = chain.sink;
+    sink.builder = builder;
+    sink.changed = false;
+    sink.fallback = false;
+    try {
+      for (final var stage : chain.stages) {
+        stage.reset(ignorePlaceholders);
+      }
+      sink.push(text, 0, index);
+      final var length = text.length();
+      final var first = chain.stages[0];
+      var current = index;
+      while (current < length && !sink.fallback) {
+        if (chain.idle()) {
+          final var from = current;
+          current = Lexer.skip(chain, text, current);
+          sink.push(text, from, current);
+          if (current == length) {
+            break;
+          }
+        }
+        first.push(text.charAt(current++));
+      }
+      sink.pending = !chain.idle();
+      first.flush();
+      return !sink.fallback;
+    } finally {
+      sink.builder = sink.scratch;
+    }
+  }
+
+  /**
+   * applies the stages to the text.
+   *
+   * @param text the text to apply.
+   * @param ignorePlaceholders the ignore placeholders.
+   *
+   * @return formatted text, or the text itself if nothing has changed.
+   */
+  @NotNull
+  String apply(@NotNull final String text, final boolean ignorePlaceholders) {
+    var current = this.chain.get();
+    final var index = Lexer.skip(current, text, 0);
+    if (index == text.length()) {
+      return text;
+    }
+    if (current.busy) {
+      current = this.newChain(false);
+    }
+    current.busy = true;
+    try {
+      final var builder = current.sink.scratch;
+      builder.setLength(0);
+      builder.ensureCapacity(text.length() + 16);
+      if (!Lexer.stream(current, text, index, ignorePlaceholders, builder)) {
+        return this.applyInSequence(text, ignorePlaceholders);
+      }
+      if (!current.sink.changed) {
+        return text;
+      }
+      return builder.toString();
+    } finally {
+      current.busy = false;
+    }
+  }
+
+  /**
+   * applies the stages to the text and appends the result to the builder.
+   *
+   * @param text the text to apply.
+   * @param ignorePlaceholders the ignore placeholders.
+   * @param builder the builder to append.
+   */
+  void apply(@NotNull final CharSequence text, final boolean ignorePlaceholders,
+             @NotNull final StringBuilder builder) {
+    var current = this.chain.get();
+    final var index = Lexer.skip(current, text, 0);
+    if (index == text.length()) {
+      builder.append(text);
+      return;
+    }
+    if (current.busy) {
+      current = this.newChain(false);
+    }
+    current.busy = true;
+    try {
+      final var start = builder.length();
+      if (!Lexer.stream(current, text, index, ignorePlaceholders, builder)) {
+        builder.setLength(start);
+        builder.append(this.applyInSequence(text.toString(), ignorePlaceholders));
+      }
+    } finally {
+      current.busy = false;
+    }
+  }
+
+  /**
+   * colorizes the legacy codes of the text, applies the stages to it and parses the output into the components.
+   * <p>
+   * the legacy codes are colorized by the first stage of the chain and the output of the last stage goes straight into
+   * the parser, so the text is read once and no colorized or formatted text is built in between.
+   *
+   * @param text the text to parse.
+   * @param parser the parser that receives the output.
+   *
+   * @return {@code false} if the stages have to be applied one after another, the parser contains partial output
+   *   then.
+   */
+  boolean parse(@NotNull final CharSequence text, @NotNull final ComponentParser parser) {
+    return this.parse(text, parser, false);
+  }
+
+  /**
+   * parses the chunk of a text like {@link #parse(CharSequence, ComponentParser)}, if it stands on its own.
+   * <p>
+   * a chunk stands on its own if no stage has pending characters at its end, no gradient is open there and no tag is
+   * cut off, so the stages are in the same state as at the start of a text. the chunks of a text that all stand on
+   * their own can so be parsed apart from each other, as long as they end with a character that can not continue a
+   * syntax, such as a line break.
+   *
+   * @param chunk the chunk to parse.
+   * @param parser the parser that receives the output.
+   *
+   * @return {@code false} if the chunk does not stand on its own or the stages have to be applied one after another,
+   *   the parser contains partial output then.
+   */
+  boolean parseChunk(@NotNull final CharSequence chunk, @NotNull final ComponentParser parser) {
+    return this.parse(chunk, parser, true);
+  }
+
+  /**
+   * colorizes the legacy codes of the text, applies the stages to it and parses the output into the components.
+   *
+   * @param text the text to parse.
+   * @param parser the parser that receives the output.
+   * @param chunk {@code true} if the text has to stand on its own.
+   *
+   * @return {@code false} if the parsing has failed, the parser contains partial output then.
+   */
+  private boolean parse(@NotNull final CharSequence text, @NotNull final ComponentParser parser,
+                        final boolean chunk) {
+    var current = this.components.get();
+    final var index = Lexer.skip(current, text, 0);
+    if (index == text.length()) {
+      parser.push(text, 0, index);
+      return true;
+    }
+    if (current.busy) {
+      current = this.newChain(true);
+    }
+    current.busy = true;
+    final var sink = current.sink;
+    sink.parser = parser;
+    try {
+      return Lexer.stream(current, text, index, false, sink.scratch) && !(chunk && sink.pending);
+    } finally {
+      sink.parser = null;
+      current.busy = false;
+    }
+  }
+
+  /**
+   * applies the stages one after another.
+   *
+   * @param text the text to apply.
+   * @param ignorePlaceholders the ignore placeholders.
+   *
+   * @return formatted text.
+   */
+  @NotNull
+  private String applyInSequence(@NotNull final String text, final boolean ignorePlaceholders) {
+    var replaced = text;
+    for (final var formatter : this.formatters) {
+      replaced = formatter.apply(replaced);
+    }
+    for (final var gradient : this.gradients) {
+      replaced = gradient.apply(replaced, ignorePlaceholders);
+    }
+    return replaced;
+  }
+
+  /**
+   * creates a new chain.
+   *
+   * @param legacy the legacy, {@code true} to colorize the legacy codes before the other stages.
+   *
+   * @return a newly created chain.
+   */
+  @NotNull
+  private Chain newChain(final boolean legacy) {
+    final var sink = new Sink();
+    final var offset = legacy ? 1 : 0;
+    final var stages = new Stage[this.factories.length + offset];
+    Stage next = sink;
+    for (var i = stages.length - 1; i >= 0; i--) {
+      stages[i] = i < offset ? new LegacyStage() : this.factories[i - offset].get();
+      stages[i].next = next;
+      stages[i].sink = sink;
+      next = stages[i];
+    }
+    return new Chain(sink, stages);
+  }
+
+  /**
+   * a class that represents chains of stages.
+   */
+  private static final class Chain {
+
+    /**
+     * the sink.
+     */
+    @NotNull
+    private final Sink sink;
+
+    /**
+     * the stages.
+     */
+    @NotNull
+    private final Stage[] stages;
+
+    /**
+     * the characters that may start a syntax of one of the stages.
+     */
+    @NotNull
+    private final boolean[] triggers = new boolean[256];
+
+    /**
+     * the busy.
+     */
+    private boolean busy;
+
+    /**
+     * ctor.
+     *
+     * @param sink the sink.
+     * @param stages the stages.
+     */
+    private Chain(@NotNull final Sink sink, @NotNull final Stage[] stages) {
+      this.sink = sink;
+      this.stages = stages.clone();
+      for (final var stage : stages) {
+        final var set = stage.triggers();
+        for (var i = 0; i < set.length; i++) {
+          this.triggers[i] |= set[i];
+        }
+      }
+    }
+
+    /**
+     * checks if all the stages are idle.
+     *
+     * @return {@code true} if no stage has pending characters.
+     */
+    private boolean idle() {
+      for (final var stage : this.stages) {
+        if (!stage.idle()) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+
+  /**
+   * a class that represents formatter stages.
+   * <p>
+   * the stage replaces every match of a fixed length pattern with {@code #} followed by six characters of the match.
+   * <p>
+   * the replaced formatters call {@link String#replace(CharSequence, CharSequence)} once per match, which also
+   * replaces a match that an earlier replacement has formed together with its neighbours. that can not be done in a
+   * single pass, so the stage asks for a fallback when a replacement may form such a match.
+   */
+  private static final class FormatterStage extends Stage {
+
+    /**
+     * the pattern.
+     */
+    @NotNull
+    private final boolean[][] pattern;
+
+    /**
+     * the pending characters.
+     */
+    @NotNull
+    private final char[] pending;
+
+    /**
+     * the rescans, {@code true} if the replaced formatter replaces once per match.
+     */
+    private final boolean rescans;
+
+    /**
+     * the start index of the kept characters.
+     */
+    private final int start;
+
+    /**
+     * the step between the kept characters.
+     */
+    private final int step;
+
+    /**
+     * the pending count.
+     */
+    private int count;
+
+    /**
+     * the last character passed to the next stage.
+     */
+    private char last;
+
+    /**
+     * ctor.
+     *
+     * @param pattern the pattern.
+     * @param start the start index of the kept characters, {@code 0} keeps no character.
+     * @param step the step between the kept characters.
+     * @param rescans the rescans.
+     */
+    private FormatterStage(@NotNull final boolean[][] pattern, final int start, final int step,
+                           final boolean rescans) {
+      this.pattern = pattern;
+      this.pending = new char[pattern.length];
+      this.start = start;
+      this.step = step;
+      this.rescans = rescans;
+    }
+
+    @Override
+    void flush() {
+      for (var i = 0; i < this.count; i++) {
+        this.emit(this.pending[i]);
+      }
+      this.count = 0;
+      this.next.flush();
+    }
+
+    @Override
+    void push(final char c) {
+      if (this.count == 0 && !Stage.matches(this.pattern[0], c)) {
+        this.emit(c);
+        return;
+      }
+      this.pending[this.count++] = c;
+      while (this.count > 0) {
+        var matched = true;
+        for (var i = 0; i < this.count; i++) {
+          if (!Stage.matches(this.pattern[i], this.pending[i])) {
+            matched = false;
+            break;
+          }
+        }
+        if (!matched) {
+          this.emit(this.pending[0]);
+          System.arraycopy(this.pending, 1, this.pending, 0, --this.count);
+          continue;
+        }
+        if (this.count == this.pattern.length) {
+          this.replace();
+        }
+        break;
+      }
+    }
+
+    @Override
+    boolean idle() {
+      return this.count == 0;
+    }
+
+    @Override
+    void reset(final boolean ignorePlaceholders) {
+      this.count = 0;
+      this.last = 0;
+    }
+
+    @NotNull
+    @Override
+    boolean[] triggers() {
+      return this.pattern[0];
+    }
+
+    /**
+     * passes the character to the next stage.
+     *
+     * @param c the c to pass.
+     */
+    private void emit(final char c) {
+      this.last = c;
+      this.next.push(c);
+    }
+
+    /**
+     * replaces the pending match.
+     */
+    private void replace() {
+      if (this.rescans && Stage.matches(this.pattern[0], this.last) && Stage.matches(this.pattern[1], '#')) {
+        this.sink.fallback = true;
+      }
+      this.emit('#');
+      if (this.start > 0) {
+        for (var i = 0; i < 6; i++) {
+          this.emit(this.pending[this.start + i * this.step]);
+        }
+      }
+      if (this.rescans && Stage.matches(this.pattern[0], this.last)) {
+        this.sink.fallback = true;
+      }
+      this.count = 0;
+      this.sink.changed = true;
+    }
+  }
+
+  /**
+   * a class that represents gradient stages.
+   * <p>
+   * the stage buffers the characters from the first one that may start a tag of its {@link GradientSyntax} and reads
+   * the tokens of the buffer as they arrive. once every open tag in the buffer is closed and no tag is cut off at its
+   * end, the buffer is parsed like a text of its own and passed to the next stage, so the output is the same as
+   * applying the syntax to the whole text.
+   */
+  private static final class GradientStage extends Stage {
+
+    /**
+     * the buffer.
+     */
+    private final StringBuilder buffer = new StringBuilder();
+
+    /**
+     * the output of the syntax.
+     */
+    private final StringBuilder output = new StringBuilder();
+
+    /**
+     * the syntax.
+     */
+    @NotNull
+    private final GradientSyntax syntax;
+
+    /**
+     * the characters that may start a token.
+     */
+    @NotNull
+    private final boolean[] triggers;
+
+    /**
+     * the depth of the open tags in the buffer.
+     */
+    private int depth;
+
+    /**
+     * the ignore placeholders.
+     */
+    private boolean ignorePlaceholders;
+
+    /**
+     * the index of the next token to read in the buffer.
+     */
+    private int scan;
+
+    /**
+     * the tags, {@code true} if the buffer contains an open tag, an escaped open tag or escaped backslashes before an
+     * open tag.
+     */
+    private boolean tags;
+
+    /**
+     * ctor.
+     *
+     * @param syntax the syntax.
+     */
+    private GradientStage(@NotNull final GradientSyntax syntax) {
+      this.syntax = syntax;
+      this.triggers = Lexer.set("\\" + syntax.first());
+    }
+
+    @Override
+    void flush() {
+      this.drain();
+      this.next.flush();
+    }
+
+    @Override
+    void push(final char c) {
+      if (this.buffer.length() == 0 && !Stage.matches(this.triggers, c)) {
+        this.next.push(c);
+        return;
+      }
+      this.buffer.append(c);
+      this.scan();
+    }
+
+    @Override
+    void push(@NotNull final CharSequence sequence, final int from, final int to) {
+      if (this.buffer.length() == 0) {
+        super.push(sequence, from, to);
+        return;
+      }
+      this.buffer.append(sequence, from, to);
+      this.scan();
+    }
+
+    @Override
+    boolean idle() {
+      return this.buffer.length() == 0;
+    }
+
+    @Override
+    void reset(final boolean ignorePlaceholders) {
+      this.ignorePlaceholders = ignorePlaceholders;
+      this.buffer.setLength(0);
+      this.scan = 0;
+      this.depth = 0;
+      this.tags = false;
+    }
+
+    @NotNull
+    @Override
+    boolean[] triggers() {
+      return this.triggers;
+    }
+
+    /**
+     * applies the syntax to the buffer and passes the output to the next stage.
+     */
+    private void drain() {
+      if (this.buffer.length() == 0) {
+        return;
+      }
+      if (this.tags) {
+        this.output.setLength(0);
+        if (this.syntax.apply(this.buffer, this.ignorePlaceholders, this.output)) {
+          this.sink.changed = true;
+        }
+        this.next.push(this.output, 0, this.output.length());
+      } else {
+        this.next.push(this.buffer, 0, this.buffer.length());
+      }
+      this.buffer.setLength(0);
+      this.scan = 0;
+      this.depth = 0;
+      this.tags = false;
+    }
+
+    /**
+     * reads the buffered tokens and drains the buffer once it stands on its own.
+     */
+    private void scan() {
+      final var length = this.buffer.length();
+      while (this.scan < length) {
+        final var token = this.syntax.read(this.buffer, this.scan);
+        if (token == GradientSyntax.PARTIAL) {
+          return;
+        }
+        if (token == GradientSyntax.OPEN || token == GradientSyntax.ESCAPED_OPEN ||
+          token == GradientSyntax.ESCAPED_BACKSLASH_OPEN) {
+          this.tags = true;
+        }
+        if (token == GradientSyntax.OPEN && this.syntax.shared() && this.depth > 0) {
+          this.depth--;
+        } else if (token == GradientSyntax.OPEN && this.depth < GradientSyntax.MAX_DEPTH) {
+          this.depth++;
+        } else if (token == GradientSyntax.CLOSE && this.depth > 0) {
+          this.depth--;
+        }
+        this.scan += this.syntax.length(token);
+      }
+      if (this.depth == 0) {
+        this.drain();
+      }
+    }
+  }
+
+  /**
+   * a class that represents legacy stages.
+   * <p>
+   * the stage turns every {@code &} that comes before a color, format or hex code into a {@code \u00a7}, same as
+   * {@link Legacy#color(String)}.
+   */
+  private static final class LegacyStage extends Stage {
+
+    /**
+     * the triggers.
+     */
+    private static final boolean[] TRIGGERS = Lexer.set("&");
+
+    /**
+     * the pending, {@code true} if the last character was an {@code &}.
+     */
+    private boolean pending;
+
+    @Override
+    void flush() {
+      if (this.pending) {
+        this.pending = false;
+        this.next.push('&');
+      }
+      this.next.flush();
+    }
+
+    @Override
+    void push(final char c) {
+      if (this.pending) {
+        this.pending = false;
+        if (Legacy.isTranslated(c)) {
+          this.next.push('\u00a7');
+          this.next.push(Character.toLowerCase(c));
+          this.sink.changed = true;
+          return;
+        }
+        this.next.push('&');
+      }
+      if (c == '&') {
+        this.pending = true;
+      } else {
+        this.next.push(c);
+      }
+    }
+
+    @Override
+    boolean idle() {
+      return !this.pending;
+    }
+
+    @Override
+    void reset(final boolean ignorePlaceholders) {
+      this.pending = false;
+    }
+
+    @NotNull
+    @Override
+    boolean[] triggers() {
+      return LegacyStage.TRIGGERS;
+    }
+  }
+
+  /**
+   * a class that represents the last stage which writes into the output buffer or the parser.
+   */
+  private static final class Sink extends Stage {
+
+    /**
+     * the scratch builder, reused by the calls that return a string.
+     */
+    private final StringBuilder scratch = new StringBuilder();
+
+    /**
+     * the builder that receives the output.
+     */
+    private StringBuilder builder = this.scratch;
+
+    /**
+     * the changed.
+     */
+    private boolean changed;
+
+    /**
+     * the pending, {@code true} if a stage has had pending characters at the end of the text.
+     */
+    private boolean pending;
+
+    /**
+     * the parser that receives the output instead of the builder, {@code null} if the output is text.
+     */
+    @Nullable
+    private ComponentParser parser;
+
+    /**
+     * the fallback, {@code true} if the stages have to be applied one after another.
+     */
+    private boolean fallback;
+
+    @Override
+    void flush() {
+    }
+
+    @Override
+    boolean idle() {
+      return true;
+    }
+
+    @Override
+    void push(final char c) {
+      if (this.parser == null) {
+        this.builder.append(c);
+      } else {
+        this.parser.push(c);
+      }
+    }
+
+    @Override
+    void push(@NotNull final CharSequence sequence, final int from, final int to) {
+      if (this.parser == null) {
+        this.builder.append(sequence, from, to);
+      } else {
+        this.parser.push(sequence, from, to);
+      }
+    }
+
+    @Override
+    void reset(final boolean ignorePlaceholders) {
+    }
+
+    @NotNull
+    @Override
+    boolean[] triggers() {
+      return new boolean[0];
+    }
+  }
+
+  /**
+   * an abstract class that represents streaming stages.
+   */
+  private abstract static class Stage {
+
+    /**
+     * the next.
+     */
+    Stage next;
+
+    /**
+     * the sink.
+     */
+    Sink sink;
+
+    /**
+     * checks if the set contains the character.
+     *
+     * @param set the set to check.
+     * @param c the c to check.
+     *
+     * @return {@code true} if the set contains the character.
+     */
+    private static boolean matches(@NotNull final boolean[] set, final char c) {
+      return c < set.length && set[c];
+    }
+
+    /**
+     * flushes the pending characters at the end of the input.
+     */
+    abstract void flush();
+
+    /**
+     * checks if the stage is idle.
+     *
+     * @return {@code true} if the stage has no pending characters.
+     */
+    abstract boolean idle();
+
+    /**
+     * pushes the character.
+     *
+     * @param c the c to push.
+     */
+    abstract void push(char c);
+
+    /**
+     * pushes the characters, runs that can not start a match are passed to the next stage at once.
+     *
+     * @param sequence the sequence to push.
+     * @param from the from to push.
+     * @param to the to to push.
+     */
+    void push(@NotNull final CharSequence sequence, final int from, final int to) {
+      final var triggers = this.triggers();
+      var index = from;
+      while (index < to) {
+        if (this.idle()) {
+          final var start = index;
+          while (index < to && !Stage.matches(triggers, sequence.charAt(index))) {
+            index++;
+          }
+          if (index > start) {
+            this.next.push(sequence, start, index);
+            continue;
+          }
+        }
+        this.push(sequence.charAt(index++));
+      }
+    }
+
+    /**
+     * resets the stage.
+     *
+     * @param ignorePlaceholders the ignore placeholders.
+     */
+    abstract void reset(boolean ignorePlaceholders);
+
+    /**
+     * obtains the characters that may start a match.
+     *
+     * @return triggers.
+     */
+    @NotNull
+    abstract boolean[] triggers();
+  }
+}
@@ -0,0 +1,104 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Hasan Demirtaş
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package io.github.portlek.rgb;
+
+import lombok.Getter;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * a class that represents the result of {@link ChatComponent#optimize()}.
+ */
+@Getter
+public final class OptimizationReport {
+
+  /**
+   * the json byte count after the optimization.
+   */
+  private final int bytesAfter;
+
+  /**
+   * the json byte count before the optimization.
+   */
+  private final int bytesBefore;
+
+  /**
+   * the optimized component.
+   */
+  @NotNull
+  private final ChatComponent component;
+
+  /**
+   * the node count after the optimization.
+   */
+  private final int nodesAfter;
+
+  /**
+   * the node count before the optimization.
+   */
+  private final int nodesBefore;
+
+  /**
+   * ctor.
+   *
+   * @param component the component.
+   * @param nodesBefore the nodes before.
+   * @param nodesAfter the nodes after.
+   * @param bytesBefore the bytes before.
+   * @param bytesAfter the bytes after.
+   */
+  OptimizationReport(@NotNull final ChatComponent component, final int nodesBefore, final int nodesAfter,
+                     final int bytesBefore, final int bytesAfter) {
+    this.bytesAfter = bytesAfter;
+    this.bytesBefore = bytesBefore;
+    this.component = component;
+    this.nodesAfter = nodesAfter;
+    this.nodesBefore = nodesBefore;
+  }
+
+  /**
+   * obtains the saved json bytes, measured in utf-8.
+   *
+   * @return saved bytes.
+   */
+  public int getBytesSaved() {
+    return this.bytesBefore - this.bytesAfter;
+  }
+
+  /**
+   * obtains the saved node count.
+   *
+   * @return saved nodes.
+   */
+  public int getNodesSaved() {
+    return this.nodesBefore - this.nodesAfter;
+  }
+
+  @Override
+  public String toString() {
+    return "OptimizationReport{nodes=" + this.nodesBefore + "->" + this.nodesAfter +
+      ", bytes=" + this.bytesBefore + "->" + this.bytesAfter + "}";
+  }
+}
@@ -0,0 +1,510 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Hasan Demirtaş
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package io.github.portlek.rgb;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * a class that represents bounded caches of the rendered texts of color managers.
+ * <p>
+ * the cache is weighted by length, an entry weighs as many chars as its text and its result together. it is split into
+ * shards that are locked on their own, and every shard is a segmented lru: new entries are kept in a probation segment
+ * and are moved to a protected segment once they are hit again, so a burst of texts that are rendered only once can
+ * not evict the texts which are rendered all the time.
+ */
+public final class RenderCache {
+
+  /**
+   * the kind of {@link ColorManager#applyFormats(String, boolean)}.
+   */
+  static final int APPLY_FORMATS = 0;
+
+  /**
+   * the kind of {@link ColorManager#applyFormats(String, boolean)} that ignores placeholders.
+   */
+  static final int APPLY_FORMATS_IGNORING_PLACEHOLDERS = 1;
+
+  /**
+   * the kind of {@link ColorManager#convertToBukkitFormat(String, boolean)} without rgb support.
+   */
+  static final int BUKKIT_FORMAT = 2;
+
+  /**
+   * the kind of {@link ColorManager#convertToBukkitFormat(String, boolean)} with rgb support.
+   */
+  static final int BUKKIT_FORMAT_RGB = 3;
+
+  /**
+   * the kind of {@link ColorManager#convertRGBtoLegacy(String)}.
+   */
+  static final int RGB_TO_LEGACY = 4;
+
+  /**
+   * the protected segment percent of the weight of a shard.
+   */
+  private static final int PROTECTED_PERCENT = 80;
+
+  /**
+   * the shard count, a power of two.
+   */
+  private static final int SHARDS = 16;
+
+  /**
+   * the eviction count.
+   */
+  private final LongAdder evictions = new LongAdder();
+
+  /**
+   * the hit count.
+   */
+  private final LongAdder hits = new LongAdder();
+
+  /**
+   * the maximum weight.
+   */
+  private final long maximumWeight;
+
+  /**
+   * the miss count.
+   */
+  private final LongAdder misses = new LongAdder();
+
+  /**
+   * the shards.
+   */
+  @NotNull
+  private final Shard[] shards;
+
+  /**
+   * ctor.
+   *
+   * @param maximumWeight the maximum weight.
+   */
+  RenderCache(final long maximumWeight) {
+    this.maximumWeight = maximumWeight;
+    this.shards = new Shard[RenderCache.SHARDS];
+    final var weight = Math.max(1L, maximumWeight / RenderCache.SHARDS);
+    for (var index = 0; index < RenderCache.SHARDS; index++) {
+      this.shards[index] = new Shard(weight);
+    }
+  }
+
+  /**
+   * obtains the eviction count.
+   *
+   * @return eviction count.
+   */
+  public long getEvictions() {
+    return this.evictions.sum();
+  }
+
+  /**
+   * obtains the hit count.
+   *
+   * @return hit count.
+   */
+  public long getHits() {
+    return this.hits.sum();
+  }
+
+  /**
+   * obtains the maximum weight.
+   *
+   * @return maximum weight in chars.
+   */
+  public long getMaximumWeight() {
+    return this.maximumWeight;
+  }
+
+  /**
+   * obtains the miss count.
+   *
+   * @return miss count.
+   */
+  public long getMisses() {
+    return this.misses.sum();
+  }
+
+  /**
+   * obtains the entry count.
+   *
+   * @return entry count.
+   */
+  public int getSize() {
+    var size = 0;
+    for (final var shard : this.shards) {
+      size += shard.size();
+    }
+    return size;
+  }
+
+  /**
+   * obtains the weight of the entries.
+   *
+   * @return weight in chars.
+   */
+  public long getWeight() {
+    var weight = 0L;
+    for (final var shard : this.shards) {
+      weight += shard.weight();
+    }
+    return weight;
+  }
+
+  /**
+   * removes all the entries, the counters are kept.
+   */
+  public void invalidate() {
+    for (final var shard : this.shards) {
+      shard.clear();
+    }
+  }
+
+  /**
+   * resets the counters.
+   */
+  public void reset() {
+    this.evictions.reset();
+    this.hits.reset();
+    this.misses.reset();
+  }
+
+  @Override
+  public String toString() {
+    return "RenderCache{size=" + this.getSize() + ", weight=" + this.getWeight() + ", maximumWeight=" +
+      this.maximumWeight + ", hits=" + this.getHits() + ", misses=" + this.getMisses() + ", evictions=" +
+      this.getEvictions() + "}";
+  }
+
+  /**
+   * obtains the result of the text.
+   *
+   * @param generation the generation of the stages that the result must be rendered with.
+   * @param text the text to obtain.
+   * @param kind the kind to obtain.
+   *
+   * @return cached result or {@code null} if the text is not cached for the generation.
+   */
+  @Nullable
+  String get(@NotNull final Object generation, @NotNull final String text, final int kind) {
+    final var key = new Key(text, kind);
+    final var entry = this.shard(key).get(key, generation);
+    if (entry == null) {
+      this.misses.increment();
+      return null;
+    }
+    this.hits.increment();
+    return entry.value;
+  }
+
+  /**
+   * caches the result of the text.
+   *
+   * @param generation the generation of the stages that the result is rendered with.
+   * @param text the text to cache.
+   * @param kind the kind to cache.
+   * @param value the value to cache.
+   */
+  void put(@NotNull final Object generation, @NotNull final String text, final int kind,
+           @NotNull final String value) {
+    final var key = new Key(text, kind);
+    final var evicted = this.shard(key).put(key, new Entry(generation, value, text.length() + value.length()));
+    if (evicted > 0) {
+      this.evictions.add(evicted);
+    }
+  }
+
+  /**
+   * obtains the shard of the key.
+   *
+   * @param key the key to obtain.
+   *
+   * @return shard.
+   */
+  @NotNull
+  private Shard shard(@NotNull final Key key) {
+    final var hash = key.hashCode();
+    return this.shards[(hash ^ hash >>> 16) & RenderCache.SHARDS - 1];
+  }
+
+  /**
+   * a class that represents cached results.
+   */
+  private static final class Entry {
+
+    /**
+     * the generation.
+     */
+    @NotNull
+    private final Object generation;
+
+    /**
+     * the value.
+     */
+    @NotNull
+    private final String value;
+
+    /**
+     * the weight.
+     */
+    private final int weight;
+
+    /**
+     * ctor.
+     *
+     * @param generation the generation.
+     * @param value the value.
+     * @param weight the weight.
+     */
+    private Entry(@NotNull final Object generation, @NotNull final String value, final int weight) {
+      this.generation = generation;
+      this.value = value;
+      this.weight = weight;
+    }
+  }
+
+  /**
+   * a class that represents keys of the cached results.
+   */
+  private static final class Key {
+
+    /**
+     * the hash.
+     */
+    private final int hash;
+
+    /**
+     * the kind.
+     */
+    private final int kind;
+
+    /**
+     * the text.
+     */
+    @NotNull
+    private final String text;
+
+    /**
+     * ctor.
+     *
+     * @param text the text.
+     * @param kind the kind.
+     */
+    private Key(@NotNull final String text, final int kind) {
+      this.hash = text.hashCode() * 31 + kind;
+      this.kind = kind;
+      this.text = text;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+      if (this == obj) {
+        return true;
+      }
+      if (!(obj instanceof Key)) {
+        return false;
+      }
+      final var key = (Key) obj;
+      return this.hash == key.hash && this.kind == key.kind && this.text.equals(key.text);
+    }
+
+    @Override
+    public int hashCode() {
+      return this.hash;
+    }
+  }
+
+  /**
+   * a class that represents segmented lru shards of the cache.
+   */
+  private static final class Shard {
+
+    /**
+     * the maximum weight.
+     */
+    private final long maximumWeight;
+
+    /**
+     * the probation segment, in access order.
+     */
+    private final LinkedHashMap<Key, Entry> probation = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * the protected segment, in access order.
+     */
+    private final LinkedHashMap<Key, Entry> protectedSegment = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * the maximum weight of the protected segment.
+     */
+    private final long protectedMaximumWeight;
+
+    /**
+     * the weight of the probation segment.
+     */
+    private long probationWeight;
+
+    /**
+     * the weight of the protected segment.
+     */
+    private long protectedWeight;
+
+    /**
+     * ctor.
+     *
+     * @param maximumWeight the maximum weight.
+     */
+    private Shard(final long maximumWeight) {
+      this.maximumWeight = maximumWeight;
+      this.protectedMaximumWeight = maximumWeight * RenderCache.PROTECTED_PERCENT / 100;
+    }
+
+    /**
+     * removes all the entries.
+     */
+    private synchronized void clear() {
+      this.probation.clear();
+      this.protectedSegment.clear();
+      this.probationWeight = 0L;
+      this.protectedWeight = 0L;
+    }
+
+    /**
+     * obtains the entry of the key and promotes it to the protected segment.
+     *
+     * @param key the key to obtain.
+     * @param generation the generation to obtain.
+     *
+     * @return entry or {@code null} if the key is not cached for the generation.
+     */
+    @Nullable
+    private synchronized Entry get(@NotNull final Key key, @NotNull final Object generation) {
+      var entry = this.protectedSegment.get(key);
+      if (entry != null) {
+        if (entry.generation == generation) {
+          return entry;
+        }
+        this.protectedSegment.remove(key);
+        this.protectedWeight -= entry.weight;
+        return null;
+      }
+      entry = this.probation.remove(key);
+      if (entry == null) {
+        return null;
+      }
+      this.probationWeight -= entry.weight;
+      if (entry.generation != generation) {
+        return null;
+      }
+      this.protectedSegment.put(key, entry);
+      this.protectedWeight += entry.weight;
+      final var iterator = this.protectedSegment.entrySet().iterator();
+      while (this.protectedWeight > this.protectedMaximumWeight && iterator.hasNext()) {
+        final var eldest = iterator.next();
+        if (eldest.getValue() == entry) {
+          break;
+        }
+        iterator.remove();
+        this.protectedWeight -= eldest.getValue().weight;
+        this.probation.put(eldest.getKey(), eldest.getValue());
+        this.probationWeight += eldest.getValue().weight;
+      }
+      return entry;
+    }
+
+    /**
+     * caches the entry to the probation segment.
+     *
+     * @param key the key to cache.
+     * @param entry the entry to cache.
+     *
+     * @return evicted entry count.
+     */
+    private synchronized int put(@NotNull final Key key, @NotNull final Entry entry) {
+      if (entry.weight > this.maximumWeight) {
+        return 0;
+      }
+      final var old = this.protectedSegment.remove(key);
+      if (old != null) {
+        this.protectedWeight -= old.weight;
+      }
+      final var previous = this.probation.put(key, entry);
+      if (previous != null) {
+        this.probationWeight -= previous.weight;
+      }
+      this.probationWeight += entry.weight;
+      var evicted = 0;
+      evicted += this.evict(this.probation.entrySet().iterator(), true);
+      evicted += this.evict(this.protectedSegment.entrySet().iterator(), false);
+      return evicted;
+    }
+
+    /**
+     * obtains the entry count.
+     *
+     * @return entry count.
+     */
+    private synchronized int size() {
+      return this.probation.size() + this.protectedSegment.size();
+    }
+
+    /**
+     * obtains the weight.
+     *
+     * @return weight.
+     */
+    private synchronized long weight() {
+      return this.probationWeight + this.protectedWeight;
+    }
+
+    /**
+     * evicts the least recently used entries of the segment while the shard is too heavy.
+     *
+     * @param iterator the iterator of the segment to evict.
+     * @param probation {@code true} if the segment is the probation segment.
+     *
+     * @return evicted entry count.
+     */
+    private int evict(@NotNull final Iterator<Map.Entry<Key, Entry>> iterator, final boolean probation) {
+      var evicted = 0;
+      while (this.probationWeight + this.protectedWeight > this.maximumWeight && iterator.hasNext()) {
+        final var weight = iterator.next().getValue().weight;
+        iterator.remove();
+        if (probation) {
+          this.probationWeight -= weight;
+        } else {
+          this.protectedWeight -= weight;
+        }
+        evicted++;
+      }
+      return evicted;
+    }
+  }
+}
@@ -0,0 +1,442 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Hasan Demirtaş
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package io.github.portlek.rgb;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * a class that represents services which render texts of a color manager off the calling thread.
+ * <p>
+ * at most {@link #getMaxInFlight()} renders run or wait at once, the renders above it are handled by the
+ * {@link Overflow}. the renders of an equal text that is already being rendered with the same stages of the manager
+ * share its result instead of being rendered again, so the rendered components are frozen. a render that is submitted
+ * after a stage has been registered or unregistered is never coalesced with the ones submitted before that.
+ */
+public final class RenderService implements AutoCloseable {
+
+  /**
+   * the kind of {@link #toBukkitFormat(String, boolean)} without rgb support.
+   */
+  private static final int BUKKIT_FORMAT = 0;
+
+  /**
+   * the kind of {@link #toBukkitFormat(String, boolean)} with rgb support.
+   */
+  private static final int BUKKIT_FORMAT_RGB = 1;
+
+  /**
+   * the kind of {@link #toComponent(String)}.
+   */
+  private static final int COMPONENT = 2;
+
+  /**
+   * the default max in flight.
+   */
+  private static final int DEFAULT_MAX_IN_FLIGHT = 1024;
+
+  /**
+   * the coalesced render count.
+   */
+  private final LongAdder coalesced = new LongAdder();
+
+  /**
+   * the executor.
+   */
+  @NotNull
+  private final Executor executor;
+
+  /**
+   * the renders in flight.
+   */
+  private final ConcurrentHashMap<Key, CompletableFuture<?>> inFlight = new ConcurrentHashMap<>();
+
+  /**
+   * the manager.
+   */
+  @NotNull
+  private final ColorManager manager;
+
+  /**
+   * the max in flight.
+   */
+  private final int maxInFlight;
+
+  /**
+   * the overflow.
+   */
+  @NotNull
+  private final Overflow overflow;
+
+  /**
+   * the overflowed render count.
+   */
+  private final LongAdder overflowed = new LongAdder();
+
+  /**
+   * the executor that the service has created, {@code null} if the executor is given.
+   */
+  @Nullable
+  private final ExecutorService owned;
+
+  /**
+   * the permits of the renders in flight.
+   */
+  @NotNull
+  private final Semaphore permits;
+
+  /**
+   * ctor.
+   *
+   * @param manager the manager.
+   * @param executor the executor.
+   * @param owned the owned.
+   * @param maxInFlight the max in flight.
+   * @param overflow the overflow.
+   */
+  private RenderService(@NotNull final ColorManager manager, @NotNull final Executor executor,
+                        @Nullable final ExecutorService owned, final int maxInFlight,
+                        @NotNull final Overflow overflow) {
+    if (maxInFlight < 1) {
+      throw new IllegalArgumentException("The max in flight must be positive, got " + maxInFlight);
+    }
+    this.manager = manager;
+    this.executor = executor;
+    this.owned = owned;
+    this.maxInFlight = maxInFlight;
+    this.overflow = overflow;
+    this.permits = new Semaphore(maxInFlight);
+  }
+
+  /**
+   * creates a render service that renders on virtual threads if the runtime supports them, or on a daemon thread
+   * pool as large as the available processors otherwise.
+   * <p>
+   * the renders above 1024 in flight run on the calling thread.
+   *
+   * @param manager the manager to create.
+   *
+   * @return a newly created render service.
+   */
+  @NotNull
+  public static RenderService of(@NotNull final ColorManager manager) {
+    return RenderService.of(manager, RenderService.DEFAULT_MAX_IN_FLIGHT, Overflow.CALLER_RUNS);
+  }
+
+  /**
+   * creates a render service that renders on virtual threads if the runtime supports them, or on a daemon thread
+   * pool as large as the available processors otherwise.
+   *
+   * @param manager the manager to create.
+   * @param maxInFlight the max in flight to create.
+   * @param overflow the overflow to create.
+   *
+   * @return a newly created render service.
+   */
+  @NotNull
+  public static RenderService of(@NotNull final ColorManager manager, final int maxInFlight,
+                                 @NotNull final Overflow overflow) {
+    final var executor = RenderService.createExecutor();
+    return new RenderService(manager, executor, executor, maxInFlight, overflow);
+  }
+
+  /**
+   * creates a render service.
+   * <p>
+   * the executor is not shut down when the service is closed.
+   *
+   * @param manager the manager to create.
+   * @param executor the executor to create.
+   * @param maxInFlight the max in flight to create.
+   * @param overflow the overflow to create.
+   *
+   * @return a newly created render service.
+   */
+  @NotNull
+  public static RenderService of(@NotNull final ColorManager manager, @NotNull final Executor executor,
+                                 final int maxInFlight, @NotNull final Overflow overflow) {
+    return new RenderService(manager, executor, null, maxInFlight, overflow);
+  }
+
+  /**
+   * creates the default executor.
+   * <p>
+   * the library targets java 11, so the virtual thread executor of java 21 is looked up reflectively.
+   *
+   * @return a newly created executor.
+   */
+  @NotNull
+  private static ExecutorService createExecutor() {
+    try {
+      return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+    } catch (final NoSuchMethodException | IllegalAccessException | InvocationTargetException ignored) {
+      final var count = new AtomicInteger();
+      return Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), runnable -> {
+        final var thread = new Thread(runnable, "rgb-render-" + count.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+      });
+    }
+  }
+
+  /**
+   * shuts the executor down if the service has created it.
+   */
+  @Override
+  public void close() {
+    if (this.owned != null) {
+      this.owned.shutdown();
+    }
+  }
+
+  /**
+   * obtains the renders that have shared the result of an equal render in flight.
+   *
+   * @return coalesced render count.
+   */
+  public long getCoalesced() {
+    return this.coalesced.sum();
+  }
+
+  /**
+   * obtains the renders in flight.
+   *
+   * @return render count in flight.
+   */
+  public int getInFlight() {
+    return this.maxInFlight - this.permits.availablePermits();
+  }
+
+  /**
+   * obtains the max in flight.
+   *
+   * @return max in flight.
+   */
+  public int getMaxInFlight() {
+    return this.maxInFlight;
+  }
+
+  /**
+   * obtains the overflow.
+   *
+   * @return overflow.
+   */
+  @NotNull
+  public Overflow getOverflow() {
+    return this.overflow;
+  }
+
+  /**
+   * obtains the renders that have been handled by the overflow.
+   *
+   * @return overflowed render count.
+   */
+  public long getOverflowed() {
+    return this.overflowed.sum();
+  }
+
+  /**
+   * renders the text in bukkit format.
+   *
+   * @param text the text to render.
+   * @param rgbSupported the rgb supported to render.
+   *
+   * @return rendered text, same as {@link ColorManager#convertToBukkitFormat(String, boolean)}.
+   */
+  @NotNull
+  public CompletableFuture<String> toBukkitFormat(@NotNull final String text, final boolean rgbSupported) {
+    return this.submit(text, rgbSupported ? RenderService.BUKKIT_FORMAT_RGB : RenderService.BUKKIT_FORMAT,
+      value -> this.manager.convertToBukkitFormat(value, rgbSupported));
+  }
+
+  /**
+   * renders the text as a component.
+   *
+   * @param text the text to render.
+   *
+   * @return rendered frozen component, same as {@link ChatComponent#fromColoredText(String, ColorManager)}.
+   */
+  @NotNull
+  public CompletableFuture<ChatComponent> toComponent(@NotNull final String text) {
+    return this.submit(text, RenderService.COMPONENT,
+      value -> ChatComponent.fromColoredText(value, this.manager).freeze());
+  }
+
+  /**
+   * submits the render of the text.
+   *
+   * @param text the text to submit.
+   * @param kind the kind to submit.
+   * @param render the render to submit.
+   * @param <T> type of the rendered value.
+   *
+   * @return a future of the rendered value which completes independently of the futures of the coalesced renders.
+   */
+  @NotNull
+  private <T> CompletableFuture<T> submit(@NotNull final String text, final int kind,
+                                          @NotNull final Function<String, T> render) {
+    final var key = new Key(text, kind, this.manager.generation());
+    final var existing = this.inFlight.get(key);
+    if (existing != null) {
+      this.coalesced.increment();
+      return RenderService.<T>cast(existing).copy();
+    }
+    if (!this.permits.tryAcquire()) {
+      this.overflowed.increment();
+      if (this.overflow == Overflow.REJECT) {
+        return CompletableFuture.failedFuture(new RejectedExecutionException(
+          "There are already " + this.maxInFlight + " renders in flight"));
+      }
+      try {
+        return CompletableFuture.completedFuture(render.apply(text));
+      } catch (final RuntimeException e) {
+        return CompletableFuture.failedFuture(e);
+      }
+    }
+    final var future = new CompletableFuture<T>();
+    final var previous = this.inFlight.putIfAbsent(key, future);
+    if (previous != null) {
+      this.permits.release();
+      this.coalesced.increment();
+      return RenderService.<T>cast(previous).copy();
+    }
+    try {
+      this.executor.execute(() -> {
+        try {
+          future.complete(render.apply(text));
+        } catch (final Throwable e) {
+          future.completeExceptionally(e);
+        } finally {
+          this.inFlight.remove(key, future);
+          this.permits.release();
+        }
+      });
+    } catch (final RejectedExecutionException e) {
+      this.inFlight.remove(key, future);
+      this.permits.release();
+      future.completeExceptionally(e);
+    }
+    return future.copy();
+  }
+
+  /**
+   * casts the future of a render in flight.
+   *
+   * @param future the future to cast.
+   * @param <T> type of the rendered value.
+   *
+   * @return cast future.
+   */
+  @NotNull
+  @SuppressWarnings("unchecked")
+  private static <T> CompletableFuture<T> cast(@NotNull final CompletableFuture<?> future) {
+    return (CompletableFuture<T>) future;
+  }
+
+  /**
+   * an enum that contains the ways to handle the renders above the max in flight.
+   */
+  public enum Overflow {
+    /**
+     * renders on the calling thread.
+     */
+    CALLER_RUNS,
+    /**
+     * completes the future exceptionally with a {@link RejectedExecutionException}.
+     */
+    REJECT
+  }
+
+  /**
+   * a class that represents keys of the renders in flight.
+   */
+  private static final class Key {
+
+    /**
+     * the generation of the stages of the manager.
+     */
+    @NotNull
+    private final Object generation;
+
+    /**
+     * the hash.
+     */
+    private final int hash;
+
+    /**
+     * the kind.
+     */
+    private final int kind;
+
+    /**
+     * the text.
+     */
+    @NotNull
+    private final String text;
+
+    /**
+     * ctor.
+     *
+     * @param text the text.
+     * @param kind the kind.
+     * @param generation the generation.
+     */
+    private Key(@NotNull final String text, final int kind, @NotNull final Object generation) {
+      this.generation = generation;
+      this.hash = text.hashCode() * 31 + kind;
+      this.kind = kind;
+      this.text = text;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+      if (this == obj) {
+        return true;
+      }
+      if (!(obj instanceof Key)) {
+        return false;
+      }
+      final var key = (Key) obj;
+      return this.hash == key.hash && this.kind == key.kind && this.generation == key.generation &&
+        this.text.equals(key.text);
+    }
+
+    @Override
+    public int hashCode() {
+      return this.hash;
+    }
+  }
+}
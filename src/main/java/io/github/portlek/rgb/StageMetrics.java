@@ -0,0 +1,92 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Hasan Demirtaş
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package io.github.portlek.rgb;
+
+import lombok.Getter;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * a class that represents the metrics of a stage or an operation at a point in time.
+ */
+@Getter
+public final class StageMetrics {
+
+  /**
+   * the input char count.
+   */
+  private final long charsIn;
+
+  /**
+   * the output char count.
+   */
+  private final long charsOut;
+
+  /**
+   * the invocation count.
+   */
+  private final long invocations;
+
+  /**
+   * the count of the invocations that have changed the text.
+   */
+  private final long matches;
+
+  /**
+   * the name.
+   */
+  @NotNull
+  private final String name;
+
+  /**
+   * the cumulative time in nanoseconds.
+   */
+  private final long nanos;
+
+  /**
+   * ctor.
+   *
+   * @param name the name.
+   * @param invocations the invocations.
+   * @param matches the matches.
+   * @param charsIn the chars in.
+   * @param charsOut the chars out.
+   * @param nanos the nanos.
+   */
+  StageMetrics(@NotNull final String name, final long invocations, final long matches, final long charsIn,
+               final long charsOut, final long nanos) {
+    this.charsIn = charsIn;
+    this.charsOut = charsOut;
+    this.invocations = invocations;
+    this.matches = matches;
+    this.name = name;
+    this.nanos = nanos;
+  }
+
+  @Override
+  public String toString() {
+    return "StageMetrics{name=" + this.name + ", invocations=" + this.invocations + ", matches=" + this.matches +
+      ", chars=" + this.charsIn + "->" + this.charsOut + ", nanos=" + this.nanos + "}";
+  }
+}
@@ -0,0 +1,538 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Hasan Demirtaş
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package io.github.portlek.rgb;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * a class that represents the style of chat components.
+ * <p>
+ * the tri-state decorations are packed into a single style word, the low byte tells which decorations are set and the
+ * high byte holds their values. styles are immutable and interned, so comparing, inheriting and rendering them as
+ * legacy codes are integer operations.
+ */
+public final class Style {
+
+  /**
+   * the bold bit.
+   */
+  static final int BOLD = 1;
+
+  /**
+   * the italic bit.
+   */
+  static final int ITALIC = 1 << 1;
+
+  /**
+   * the obfuscated bit.
+   */
+  static final int OBFUSCATED = 1 << 4;
+
+  /**
+   * the strikethrough bit.
+   */
+  static final int STRIKETHROUGH = 1 << 3;
+
+  /**
+   * the underlined bit.
+   */
+  static final int UNDERLINED = 1 << 2;
+
+  /**
+   * the decoration bits.
+   */
+  static final int DECORATIONS = 0x1F;
+
+  /**
+   * the cache mask.
+   */
+  private static final int CACHE_MASK = (1 << 10) - 1;
+
+  /**
+   * the interned styles.
+   * <p>
+   * a direct-mapped table, a colliding style simply replaces the previous entry so the size never grows.
+   */
+  private static final AtomicReferenceArray<Style> CACHE = new AtomicReferenceArray<>(Style.CACHE_MASK + 1);
+
+  /**
+   * the empty style.
+   */
+  public static final Style EMPTY = new Style(null, (short) 0);
+
+  /**
+   * the legacy codes by legacy key.
+   */
+  private static final String[] LEGACY_CODES = new String[(ChatFormat.VALUES.length + 1) * (Style.DECORATIONS + 1)];
+
+  /**
+   * the value shift.
+   */
+  private static final int VALUE_SHIFT = 8;
+
+  /**
+   * the color.
+   */
+  @Nullable
+  private final TextColor color;
+
+  /**
+   * the legacy key.
+   */
+  private final int legacyKey;
+
+  /**
+   * the style word.
+   */
+  private final short word;
+
+  static {
+    final var decorations = new ChatFormat[]{
+      ChatFormat.BOLD, ChatFormat.ITALIC, ChatFormat.UNDERLINE, ChatFormat.STRIKETHROUGH, ChatFormat.OBFUSCATED};
+    for (var color = 0; color <= ChatFormat.VALUES.length; color++) {
+      for (var formats = 0; formats <= Style.DECORATIONS; formats++) {
+        final var builder = new StringBuilder();
+        if (color != 0) {
+          builder.append(ChatFormat.VALUES[color - 1].getChatFormat());
+        }
+        for (var index = 0; index < decorations.length; index++) {
+          if ((formats & 1 << index) != 0) {
+            builder.append(decorations[index].getChatFormat());
+          }
+        }
+        Style.LEGACY_CODES[color * (Style.DECORATIONS + 1) + formats] = builder.toString();
+      }
+    }
+  }
+
+  /**
+   * ctor.
+   *
+   * @param color the color.
+   * @param word the word.
+   */
+  private Style(@Nullable final TextColor color, final short word) {
+    this.color = color;
+    this.word = word;
+    this.legacyKey = Style.colorIndex(color) * (Style.DECORATIONS + 1) + (word >> Style.VALUE_SHIFT & Style.DECORATIONS);
+  }
+
+  /**
+   * obtains the legacy codes of the legacy key.
+   *
+   * @param legacyKey the legacy key to obtain.
+   *
+   * @return legacy codes, a shared string.
+   */
+  @NotNull
+  static String legacyCodes(final int legacyKey) {
+    return Style.LEGACY_CODES[legacyKey];
+  }
+
+  /**
+   * checks if the legacy key without a color has to reset the previous legacy key first.
+   *
+   * @param previousKey the previous key to check.
+   * @param legacyKey the legacy key to check.
+   *
+   * @return {@code true} if the previous key sets a color or a decoration that the legacy key does not.
+   */
+  static boolean needsReset(final int previousKey, final int legacyKey) {
+    return legacyKey <= Style.DECORATIONS &&
+      (previousKey > Style.DECORATIONS || (previousKey & ~legacyKey) != 0);
+  }
+
+  /**
+   * checks if the legacy keys render the same legacy codes.
+   * <p>
+   * the keys are equal for most of such styles, only a color whose legacy code is a decoration renders the same codes
+   * as that decoration without a color when it comes before the other decorations.
+   *
+   * @param previousKey the previous key to check.
+   * @param legacyKey the legacy key to check.
+   *
+   * @return {@code true} if the keys render the same legacy codes.
+   */
+  static boolean sameCodes(final int previousKey, final int legacyKey) {
+    return previousKey == legacyKey || Style.canonical(previousKey) == Style.canonical(legacyKey);
+  }
+
+  /**
+   * obtains the canonical legacy key which renders the same legacy codes.
+   *
+   * @param legacyKey the legacy key to obtain.
+   *
+   * @return the key of the decorations if the color of the key is a decoration that comes before them, otherwise the
+   *   key itself.
+   */
+  private static int canonical(final int legacyKey) {
+    final var index = legacyKey / (Style.DECORATIONS + 1);
+    if (index == 0) {
+      return legacyKey;
+    }
+    final var decorations = legacyKey & Style.DECORATIONS;
+    final int bit;
+    switch (ChatFormat.VALUES[index - 1]) {
+      case BOLD:
+        bit = Style.BOLD;
+        break;
+      case ITALIC:
+        bit = Style.ITALIC;
+        break;
+      case UNDERLINE:
+        bit = Style.UNDERLINED;
+        break;
+      case STRIKETHROUGH:
+        bit = Style.STRIKETHROUGH;
+        break;
+      case OBFUSCATED:
+        bit = Style.OBFUSCATED;
+        break;
+      default:
+        return legacyKey;
+    }
+    return (decorations & (bit << 1) - 1) == 0 ? decorations | bit : legacyKey;
+  }
+
+  /**
+   * obtains the interned style.
+   *
+   * @param color the color to obtain.
+   * @param word the word to obtain.
+   *
+   * @return interned style.
+   */
+  @NotNull
+  static Style of(@Nullable final TextColor color, final int word) {
+    if (color == null && word == 0) {
+      return Style.EMPTY;
+    }
+    final var index = (Objects.hashCode(color) * 31 + word) * 0x9E3779B9 >>> 22 & Style.CACHE_MASK;
+    final var cached = Style.CACHE.get(index);
+    if (cached != null && cached.word == word && Objects.equals(cached.color, color)) {
+      return cached;
+    }
+    final var style = new Style(color, (short) word);
+    Style.CACHE.lazySet(index, style);
+    return style;
+  }
+
+  /**
+   * obtains the mask that covers both the set and the value bits of the decorations.
+   *
+   * @param decorations the decorations to obtain.
+   *
+   * @return mask of the decorations.
+   */
+  private static int mask(final int decorations) {
+    return decorations | decorations << Style.VALUE_SHIFT;
+  }
+
+  /**
+   * obtains the legacy color index of the color.
+   *
+   * @param color the color to obtain.
+   *
+   * @return zero if there is no color, otherwise the ordinal of the legacy color plus one.
+   */
+  private static int colorIndex(@Nullable final TextColor color) {
+    if (color == null) {
+      return 0;
+    }
+    final var legacyColor = color.getLegacyColor();
+    if (legacyColor == ChatFormat.WHITE) {
+      return ChatFormat.RESET.ordinal() + 1;
+    }
+    return legacyColor.ordinal() + 1;
+  }
+
+  @Override
+  public boolean equals(final Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (!(obj instanceof Style)) {
+      return false;
+    }
+    final var style = (Style) obj;
+    return this.word == style.word && Objects.equals(this.color, style.color);
+  }
+
+  /**
+   * obtains the bold.
+   *
+   * @return bold or null.
+   */
+  @Nullable
+  public Boolean getBold() {
+    return this.get(Style.BOLD);
+  }
+
+  /**
+   * obtains the color.
+   *
+   * @return color or null.
+   */
+  @Nullable
+  public TextColor getColor() {
+    return this.color;
+  }
+
+  /**
+   * obtains the italic.
+   *
+   * @return italic or null.
+   */
+  @Nullable
+  public Boolean getItalic() {
+    return this.get(Style.ITALIC);
+  }
+
+  /**
+   * obtains the obfuscated.
+   *
+   * @return obfuscated or null.
+   */
+  @Nullable
+  public Boolean getObfuscated() {
+    return this.get(Style.OBFUSCATED);
+  }
+
+  /**
+   * obtains the strikethrough.
+   *
+   * @return strikethrough or null.
+   */
+  @Nullable
+  public Boolean getStrikethrough() {
+    return this.get(Style.STRIKETHROUGH);
+  }
+
+  /**
+   * obtains the underlined.
+   *
+   * @return underlined or null.
+   */
+  @Nullable
+  public Boolean getUnderlined() {
+    return this.get(Style.UNDERLINED);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hashCode(this.color) * 31 + this.word;
+  }
+
+  /**
+   * merges the style over the parent style.
+   *
+   * @param parent the parent to merge.
+   *
+   * @return a style that takes the fields that are not set from the parent.
+   */
+  @NotNull
+  public Style inherit(@NotNull final Style parent) {
+    if (parent == Style.EMPTY || parent == this) {
+      return this;
+    }
+    if (this == Style.EMPTY) {
+      return parent;
+    }
+    final var kept = parent.word & ~Style.mask(this.word & Style.DECORATIONS);
+    return Style.of(this.color == null ? parent.color : this.color, this.word | kept);
+  }
+
+  /**
+   * checks if none of the fields is set.
+   *
+   * @return {@code true} if the style is empty.
+   */
+  public boolean isEmpty() {
+    return this.color == null && this.word == 0;
+  }
+
+  /**
+   * obtains the legacy key.
+   * <p>
+   * the key is the legacy color index times 32 plus the enabled decoration bits, two styles render the same legacy
+   * codes if their keys are equal, see {@link #sameCodes(int, int)} for the colors whose legacy code is a decoration.
+   *
+   * @return legacy key.
+   */
+  int legacyKey() {
+    return this.legacyKey;
+  }
+
+  @Override
+  public String toString() {
+    return "Style{color=" + this.color +
+      ", bold=" + this.getBold() +
+      ", italic=" + this.getItalic() +
+      ", underlined=" + this.getUnderlined() +
+      ", strikethrough=" + this.getStrikethrough() +
+      ", obfuscated=" + this.getObfuscated() + '}';
+  }
+
+  /**
+   * sets the bold.
+   *
+   * @param bold the bold to set.
+   *
+   * @return a style with the bold.
+   */
+  @NotNull
+  public Style withBold(@Nullable final Boolean bold) {
+    return this.with(Style.BOLD, bold);
+  }
+
+  /**
+   * sets the color.
+   *
+   * @param color the color to set.
+   *
+   * @return a style with the color.
+   */
+  @NotNull
+  public Style withColor(@Nullable final TextColor color) {
+    if (Objects.equals(this.color, color)) {
+      return this;
+    }
+    return Style.of(color, this.word);
+  }
+
+  /**
+   * sets the italic.
+   *
+   * @param italic the italic to set.
+   *
+   * @return a style with the italic.
+   */
+  @NotNull
+  public Style withItalic(@Nullable final Boolean italic) {
+    return this.with(Style.ITALIC, italic);
+  }
+
+  /**
+   * sets the obfuscated.
+   *
+   * @param obfuscated the obfuscated to set.
+   *
+   * @return a style with the obfuscated.
+   */
+  @NotNull
+  public Style withObfuscated(@Nullable final Boolean obfuscated) {
+    return this.with(Style.OBFUSCATED, obfuscated);
+  }
+
+  /**
+   * sets the strikethrough.
+   *
+   * @param strikethrough the strikethrough to set.
+   *
+   * @return a style with the strikethrough.
+   */
+  @NotNull
+  public Style withStrikethrough(@Nullable final Boolean strikethrough) {
+    return this.with(Style.STRIKETHROUGH, strikethrough);
+  }
+
+  /**
+   * sets the underlined.
+   *
+   * @param underlined the underlined to set.
+   *
+   * @return a style with the underlined.
+   */
+  @NotNull
+  public Style withUnderlined(@Nullable final Boolean underlined) {
+    return this.with(Style.UNDERLINED, underlined);
+  }
+
+  /**
+   * removes the fields that are equal to the parent ones.
+   *
+   * @param parent the parent to remove.
+   *
+   * @return a style that only sets the fields which the parent does not already set to the same value.
+   */
+  @NotNull
+  public Style withoutInherited(@NotNull final Style parent) {
+    final var same = parent.word & this.word & ~(parent.word ^ this.word) >> Style.VALUE_SHIFT & Style.DECORATIONS;
+    final var color = parent.color != null && parent.color.equals(this.color) ? null : this.color;
+    return Style.of(color, this.word & ~Style.mask(same));
+  }
+
+  /**
+   * checks if the decoration is enabled.
+   *
+   * @param decoration the decoration to check.
+   *
+   * @return {@code true} if the decoration is set to true.
+   */
+  boolean is(final int decoration) {
+    return (this.word >> Style.VALUE_SHIFT & decoration) != 0;
+  }
+
+  /**
+   * obtains the decoration.
+   *
+   * @param decoration the decoration to obtain.
+   *
+   * @return decoration or null if it is not set.
+   */
+  @Nullable
+  private Boolean get(final int decoration) {
+    if ((this.word & decoration) == 0) {
+      return null;
+    }
+    return this.is(decoration) ? Boolean.TRUE : Boolean.FALSE;
+  }
+
+  /**
+   * sets the decoration.
+   *
+   * @param decoration the decoration to set.
+   * @param value the value to set.
+   *
+   * @return a style with the decoration.
+   */
+  @NotNull
+  private Style with(final int decoration, @Nullable final Boolean value) {
+    var word = this.word & ~Style.mask(decoration);
+    if (value != null) {
+      word |= decoration;
+      if (value) {
+        word |= decoration << Style.VALUE_SHIFT;
+      }
+    }
+    if (word == this.word) {
+      return this;
+    }
+    return Style.of(this.color, word);
+  }
+}
@@ -26,32 +26,44 @@
 package io.github.portlek.rgb;
 
 import java.util.Locale;
-import lombok.Getter;
-import lombok.Setter;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 /**
  * a class that represent text colors.
+ * <p>
+ * colors are backed by a packed 24-bit rgb value and the ones that use the closest legacy color are interned, so
+ * repeated lookups of the same color return the same instance.
  */
-@Getter
 public final class TextColor {
 
   /**
-   * the blue.
+   * the cache mask.
    */
-  private final int blue;
+  private static final int CACHE_MASK = (1 << 12) - 1;
 
   /**
-   * the green.
+   * the interned colors.
+   * <p>
+   * a direct-mapped table, a colliding color simply replaces the previous entry so the size never grows.
    */
-  private final int green;
+  private static final AtomicReferenceArray<TextColor> CACHE = new AtomicReferenceArray<>(TextColor.CACHE_MASK + 1);
 
   /**
-   * the hex code.
+   * the colors of the chat formats.
    */
-  @NotNull
-  private final String hexCode;
+  private static final TextColor[] FORMATS = new TextColor[ChatFormat.VALUES.length];
+
+  /**
+   * the hex digits.
+   */
+  private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+  /**
+   * the json names of the chat formats.
+   */
+  private static final String[] NAMES = new String[ChatFormat.VALUES.length];
 
   /**
    * the legacy color.
@@ -65,34 +77,48 @@ public final class TextColor {
   private final boolean legacyColorForced;
 
   /**
-   * the red.
+   * the packed rgb.
    */
-  private final int red;
+  private final int rgb;
+
+  /**
+   * the shared, {@code true} if the color is interned and so it can not be changed.
+   */
+  private final boolean shared;
+
+  /**
+   * the hex code.
+   */
+  @Nullable
+  private String hexCode;
 
   /**
    * the return legacy.
    */
-  @Setter
   private boolean returnLegacy;
 
+  static {
+    for (final var format : ChatFormat.VALUES) {
+      TextColor.FORMATS[format.ordinal()] = new TextColor(
+        format.getRed() << 16 | format.getGreen() << 8 | format.getBlue(), format, false, true);
+      TextColor.NAMES[format.ordinal()] = format.toString().toLowerCase(Locale.ROOT);
+    }
+  }
+
   /**
    * ctor.
    *
-   * @param red the red.
-   * @param green the green.
-   * @param blue the blue.
-   * @param hexCode the hex code.
+   * @param rgb the rgb.
    * @param legacyColor the legacy color.
    * @param legacyColorForced the legacy color forced.
+   * @param shared the shared.
    */
-  private TextColor(final int red, final int green, final int blue, @NotNull final String hexCode,
-                    @NotNull final ChatFormat legacyColor, final boolean legacyColorForced) {
-    this.blue = blue;
-    this.green = green;
-    this.hexCode = hexCode;
+  private TextColor(final int rgb, @NotNull final ChatFormat legacyColor, final boolean legacyColorForced,
+                    final boolean shared) {
     this.legacyColor = legacyColor;
     this.legacyColorForced = legacyColorForced;
-    this.red = red;
+    this.rgb = rgb;
+    this.shared = shared;
   }
 
   /**
@@ -110,17 +136,47 @@ public final class TextColor {
     return TextColor.of(ChatFormat.valueOf(text.toUpperCase(Locale.ROOT)));
   }
 
+  /**
+   * gets text color by text.
+   *
+   * @param text the text to get.
+   *
+   * @return text color or null if the text is neither a 6 digit hex code nor a chat format name.
+   */
+  @Nullable
+  public static TextColor getByTextOrNull(@Nullable final String text) {
+    if (text == null) {
+      return null;
+    }
+    if (text.startsWith("#")) {
+      if (text.length() != 7) {
+        return null;
+      }
+      for (var index = 1; index < 7; index++) {
+        if (Character.digit(text.charAt(index), 16) < 0) {
+          return null;
+        }
+      }
+      return TextColor.of(text);
+    }
+    for (final var format : ChatFormat.VALUES) {
+      if (format.name().equalsIgnoreCase(text)) {
+        return TextColor.of(format);
+      }
+    }
+    return null;
+  }
+
   /**
    * creates a text color.
    *
    * @param legacyColor the legacy color to create.
    *
-   * @return a newly create text color.
+   * @return a shared text color.
    */
   @NotNull
   public static TextColor of(@NotNull final ChatFormat legacyColor) {
-    return new TextColor(legacyColor.getRed(), legacyColor.getGreen(), legacyColor.getBlue(), legacyColor.getHexCode(),
-      legacyColor, false);
+    return TextColor.FORMATS[legacyColor.ordinal()];
   }
 
   /**
@@ -129,18 +185,27 @@ public final class TextColor {
    * @param hexCode the hex code to create.
    * @param legacyColor the legacy color to create.
    *
-   * @return a newly create text color.
+   * @return a text color.
    */
   @NotNull
   public static TextColor of(@NotNull final String hexCode, @Nullable final ChatFormat legacyColor) {
-    final var hexColor = Integer.parseInt(hexCode.substring(1), 16);
-    final var red = hexColor >> 16 & 0xFF;
-    final var green = hexColor >> 8 & 0xFF;
-    final var blue = hexColor & 0xFF;
-    final var notNullLegacyColor = legacyColor == null
-      ? TextColor.getClosestColor(red, green, blue)
-      : legacyColor;
-    return new TextColor(red, green, blue, hexCode, notNullLegacyColor, true);
+    return TextColor.ofHex(TextColor.parseHex(hexCode), legacyColor);
+  }
+
+  /**
+   * creates a text color from a parsed hex code.
+   *
+   * @param rgb the rgb to create.
+   * @param legacyColor the legacy color to create.
+   *
+   * @return a text color, same as {@link #of(String, ChatFormat)}.
+   */
+  @NotNull
+  static TextColor ofHex(final int rgb, @Nullable final ChatFormat legacyColor) {
+    if (legacyColor == null) {
+      return TextColor.intern(rgb, true);
+    }
+    return new TextColor(rgb, legacyColor, true, false);
   }
 
   /**
@@ -150,12 +215,11 @@ public final class TextColor {
    * @param green the green to create.
    * @param blue the blue to create.
    *
-   * @return a newly create text color.
+   * @return a text color.
    */
   @NotNull
   public static TextColor of(final int red, final int green, final int blue) {
-    return new TextColor(red, green, blue, String.format("#%06X", (red << 16) + (green << 8) + blue),
-      TextColor.getClosestColor(red, green, blue), false);
+    return TextColor.ofRgb((red & 0xFF) << 16 | (green & 0xFF) << 8 | blue & 0xFF);
   }
 
   /**
@@ -163,7 +227,7 @@ public final class TextColor {
    *
    * @param hexCode the hex code to create.
    *
-   * @return a newly create text color.
+   * @return a text color.
    */
   @NotNull
   public static TextColor of(@NotNull final String hexCode) {
@@ -171,55 +235,260 @@ public final class TextColor {
   }
 
   /**
-   * gets closest color.
+   * creates a text color.
    *
-   * @param red the red to get.
-   * @param green the green to get.
-   * @param blue the blue to get.
+   * @param rgb the packed rgb to create, the bits above the lowest 24 are ignored.
    *
-   * @return closest color.
+   * @return a text color.
    */
   @NotNull
-  private static ChatFormat getClosestColor(final int red, final int green, final int blue) {
-    var minMaxDist = 9999.0d;
-    var maxDist = 0.0d;
-    var legacyColor = ChatFormat.WHITE;
-    for (final var color : ChatFormat.VALUES) {
-      var rDiff = color.getRed() - red;
-      var gDiff = color.getGreen() - green;
-      var bDiff = color.getBlue() - blue;
-      if (rDiff < 0) {
-        rDiff = -rDiff;
-      }
-      if (gDiff < 0) {
-        gDiff = -gDiff;
-      }
-      if (bDiff < 0) {
-        bDiff = -bDiff;
-      }
-      maxDist = rDiff;
-      if (gDiff > maxDist) {
-        maxDist = gDiff;
+  public static TextColor ofRgb(final int rgb) {
+    return TextColor.intern(rgb & 0xFFFFFF, false);
+  }
+
+  /**
+   * creates a text color.
+   *
+   * @param rgb the packed rgb to create, the bits above the lowest 24 are ignored.
+   * @param metric the metric to pick the legacy color.
+   *
+   * @return a text color, only the ones created with {@link ColorMetric#CHEBYSHEV} are shared.
+   */
+  @NotNull
+  public static TextColor ofRgb(final int rgb, @NotNull final ColorMetric metric) {
+    if (metric == ColorMetric.CHEBYSHEV) {
+      return TextColor.ofRgb(rgb);
+    }
+    return new TextColor(rgb & 0xFFFFFF, metric.closest(rgb), false, false);
+  }
+
+  /**
+   * obtains the interned color.
+   *
+   * @param rgb the rgb to obtain.
+   * @param legacyColorForced the legacy color forced to obtain.
+   *
+   * @return interned color.
+   */
+  @NotNull
+  private static TextColor intern(final int rgb, final boolean legacyColorForced) {
+    final var key = legacyColorForced ? rgb | 1 << 24 : rgb;
+    final var index = key * 0x9E3779B9 >>> 20 & TextColor.CACHE_MASK;
+    final var cached = TextColor.CACHE.get(index);
+    if (cached != null && cached.rgb == rgb && cached.legacyColorForced == legacyColorForced) {
+      return cached;
+    }
+    final var color = new TextColor(rgb, ColorMetric.CHEBYSHEV.closest(rgb), legacyColorForced, true);
+    TextColor.CACHE.lazySet(index, color);
+    return color;
+  }
+
+  /**
+   * parses the hex code.
+   *
+   * @param hexCode the hex code to parse.
+   *
+   * @return packed rgb.
+   */
+  private static int parseHex(@NotNull final String hexCode) {
+    if (hexCode.length() == 7) {
+      var rgb = 0;
+      for (var i = 1; i < 7; i++) {
+        final var digit = Character.digit(hexCode.charAt(i), 16);
+        if (digit < 0) {
+          rgb = -1;
+          break;
+        }
+        rgb = rgb << 4 | digit;
       }
-      if (bDiff > maxDist) {
-        maxDist = bDiff;
+      if (rgb >= 0) {
+        return rgb;
       }
-      if (maxDist < minMaxDist) {
-        minMaxDist = maxDist;
-        legacyColor = color;
+    }
+    return Integer.parseInt(hexCode.substring(1), 16) & 0xFFFFFF;
+  }
+
+  /**
+   * converts the color into a copy that is serialized as its legacy color.
+   * <p>
+   * colors are shared, so this never changes the current instance.
+   *
+   * @return a legacy color.
+   */
+  @NotNull
+  public TextColor asLegacy() {
+    return this.withReturnLegacy(true);
+  }
+
+  /**
+   * obtains the blue.
+   *
+   * @return blue.
+   */
+  public int getBlue() {
+    return this.rgb & 0xFF;
+  }
+
+  /**
+   * obtains the green.
+   *
+   * @return green.
+   */
+  public int getGreen() {
+    return this.rgb >> 8 & 0xFF;
+  }
+
+  /**
+   * obtains the hex code.
+   *
+   * @return hex code.
+   */
+  @NotNull
+  public String getHexCode() {
+    var hexCode = this.hexCode;
+    if (hexCode == null) {
+      final var chars = new char[7];
+      chars[0] = '#';
+      for (var i = 6; i > 0; i--) {
+        chars[i] = TextColor.HEX[this.rgb >> (6 - i << 2) & 0xF];
       }
+      hexCode = new String(chars);
+      this.hexCode = hexCode;
     }
-    return legacyColor;
+    return hexCode;
+  }
+
+  /**
+   * obtains the legacy color.
+   *
+   * @return legacy color.
+   */
+  @NotNull
+  public ChatFormat getLegacyColor() {
+    return this.legacyColor;
+  }
+
+  /**
+   * obtains the red.
+   *
+   * @return red.
+   */
+  public int getRed() {
+    return this.rgb >> 16 & 0xFF;
+  }
+
+  /**
+   * checks if the legacy color is forced.
+   *
+   * @return {@code true} if the legacy color is forced.
+   */
+  public boolean isLegacyColorForced() {
+    return this.legacyColorForced;
+  }
+
+  /**
+   * checks if the color is serialized as its legacy color.
+   *
+   * @return {@code true} if the color is serialized as its legacy color.
+   */
+  public boolean isReturnLegacy() {
+    return this.returnLegacy;
+  }
+
+  /**
+   * sets the return legacy.
+   * <p>
+   * shared colors are not changed, so a caller can not change the colors of the others.
+   *
+   * @param returnLegacy the return legacy to set.
+   *
+   * @deprecated colors are shared between callers, use {@link #withReturnLegacy(boolean)} instead.
+   */
+  @Deprecated
+  public void setReturnLegacy(final boolean returnLegacy) {
+    if (!this.shared) {
+      this.returnLegacy = returnLegacy;
+    }
+  }
+
+  /**
+   * obtains the packed rgb.
+   *
+   * @return packed rgb.
+   */
+  public int rgb() {
+    return this.rgb;
+  }
+
+  /**
+   * creates a copy of the color with the return legacy.
+   * <p>
+   * colors are shared, so this never changes the current instance.
+   *
+   * @param returnLegacy the return legacy to create.
+   *
+   * @return the current color if it has the same return legacy, otherwise a copy which is not shared.
+   */
+  @NotNull
+  public TextColor withReturnLegacy(final boolean returnLegacy) {
+    if (this.returnLegacy == returnLegacy) {
+      return this;
+    }
+    final var color = new TextColor(this.rgb, this.legacyColor, this.legacyColorForced, false);
+    color.hexCode = this.hexCode;
+    color.returnLegacy = returnLegacy;
+    return color;
+  }
+
+  @Override
+  public boolean equals(final Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (!(obj instanceof TextColor)) {
+      return false;
+    }
+    final var color = (TextColor) obj;
+    return this.rgb == color.rgb &&
+      this.legacyColor == color.legacyColor &&
+      this.legacyColorForced == color.legacyColorForced &&
+      this.returnLegacy == color.returnLegacy;
+  }
+
+  @Override
+  public int hashCode() {
+    var result = this.rgb;
+    result = 31 * result + this.legacyColor.hashCode();
+    return 31 * result + Boolean.hashCode(this.legacyColorForced);
   }
 
   @NotNull
   @Override
   public String toString() {
     if (this.returnLegacy) {
-      return this.getLegacyColor().toString().toLowerCase(Locale.ROOT);
+      return TextColor.NAMES[this.legacyColor.ordinal()];
+    }
+    final var format = ChatFormat.fromRGBExactOrNull(this.rgb);
+    if (format == null) {
+      return this.getHexCode();
+    }
+    return TextColor.NAMES[format.ordinal()];
+  }
+
+  /**
+   * converts the color into its json name for the color depth.
+   * <p>
+   * unlike {@link #asLegacy()}, this creates no color.
+   *
+   * @param depth the depth to convert.
+   *
+   * @return json name of the color, the name of the legacy color for {@link ColorDepth#LEGACY}.
+   */
+  @NotNull
+  public String toString(@NotNull final ColorDepth depth) {
+    if (depth == ColorDepth.LEGACY) {
+      return TextColor.NAMES[this.legacyColor.ordinal()];
     }
-    return ChatFormat.fromRGBExact(this.getRed(), this.getGreen(), this.getBlue())
-      .map(chatFormat -> chatFormat.toString().toLowerCase(Locale.ROOT))
-      .orElse(this.hexCode);
+    return this.toString();
   }
 }
@@ -0,0 +1,192 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Hasan Demirtaş
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package io.github.portlek.rgb;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * a class that represents trigger prescans of formatters and gradients.
+ * <p>
+ * each stage owns a bit of a mask, the formatters come first and the gradients follow them. a single scan of the text
+ * finds the stages whose triggers occur, the stages that declare no trigger are always in the mask. the stages after
+ * the 63rd share the last bit and are always in the mask as well.
+ */
+final class Triggers {
+
+  /**
+   * the last bit.
+   */
+  private static final int LAST = Long.SIZE - 1;
+
+  /**
+   * the stages that are always applied.
+   */
+  private final long always;
+
+  /**
+   * the stages whose triggers start with a character, indexed by the low byte of the character.
+   */
+  private final long[] table = new long[256];
+
+  /**
+   * the triggers of the stages.
+   */
+  @NotNull
+  private final String[][] triggers;
+
+  /**
+   * ctor.
+   *
+   * @param triggers the triggers.
+   */
+  private Triggers(@NotNull final String[][] triggers) {
+    this.triggers = triggers;
+    var always = 0L;
+    for (var index = 0; index < triggers.length; index++) {
+      final var bit = 1L << index;
+      if (index == Triggers.LAST || triggers[index].length == 0) {
+        always |= bit;
+        continue;
+      }
+      for (final var trigger : triggers[index]) {
+        if (trigger.isEmpty()) {
+          always |= bit;
+        } else {
+          this.table[trigger.charAt(0) & 0xFF] |= bit;
+        }
+      }
+    }
+    this.always = always;
+  }
+
+  /**
+   * checks if the mask contains the stage.
+   *
+   * @param mask the mask to check.
+   * @param index the index of the stage to check.
+   *
+   * @return {@code true} if the stage has to be applied.
+   */
+  static boolean contains(final long mask, final int index) {
+    return (mask & 1L << Math.min(index, Triggers.LAST)) != 0L;
+  }
+
+  /**
+   * creates the triggers of the stages.
+   *
+   * @param formatters the formatters to create.
+   * @param gradients the gradients to create.
+   *
+   * @return a newly created triggers.
+   */
+  @NotNull
+  static Triggers of(@NotNull final Formatter[] formatters, @NotNull final Gradient[] gradients) {
+    final var triggers = new String[Math.min(formatters.length + gradients.length, Long.SIZE)][];
+    var index = 0;
+    for (final var formatter : formatters) {
+      if (index < Triggers.LAST) {
+        triggers[index++] = formatter.getTriggers().toArray(String[]::new);
+      }
+    }
+    for (final var gradient : gradients) {
+      if (index < Triggers.LAST) {
+        triggers[index++] = gradient.getTriggers().toArray(String[]::new);
+      }
+    }
+    if (index < triggers.length) {
+      triggers[index] = new String[0];
+    }
+    return new Triggers(triggers);
+  }
+
+  /**
+   * checks if the text contains the trigger at the index.
+   *
+   * @param text the text to check.
+   * @param index the index to check.
+   * @param trigger the trigger to check.
+   *
+   * @return {@code true} if the trigger starts at the index.
+   */
+  private static boolean startsWith(@NotNull final CharSequence text, final int index, @NotNull final String trigger) {
+    final var length = trigger.length();
+    if (index + length > text.length()) {
+      return false;
+    }
+    for (var i = 0; i < length; i++) {
+      if (text.charAt(index + i) != trigger.charAt(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * scans the text for the triggers of the stages starting from the index.
+   *
+   * @param text the text to scan.
+   * @param from the index of the first stage to scan.
+   *
+   * @return mask of the stages from the index that have to be applied, {@code 0} if none of them has to be applied.
+   */
+  long scan(@NotNull final CharSequence text, final int from) {
+    final var wanted = -1L << Math.min(from, Triggers.LAST);
+    var found = this.always & wanted;
+    var remaining = wanted & ~found;
+    final var length = text.length();
+    for (var index = 0; index < length && remaining != 0L; index++) {
+      final var candidates = this.table[text.charAt(index) & 0xFF] & remaining;
+      if (candidates != 0L) {
+        final var matched = this.match(text, index, candidates);
+        found |= matched;
+        remaining &= ~matched;
+      }
+    }
+    return found;
+  }
+
+  /**
+   * finds the candidates whose triggers start at the index.
+   *
+   * @param text the text to match.
+   * @param index the index to match.
+   * @param candidates the candidates to match.
+   *
+   * @return mask of the matched candidates.
+   */
+  private long match(@NotNull final CharSequence text, final int index, final long candidates) {
+    var matched = 0L;
+    for (var bits = candidates; bits != 0L; bits &= bits - 1L) {
+      final var stage = Long.numberOfTrailingZeros(bits);
+      for (final var trigger : this.triggers[stage]) {
+        if (Triggers.startsWith(text, index, trigger)) {
+          matched |= 1L << stage;
+          break;
+        }
+      }
+    }
+    return matched;
+  }
+}
@@ -0,0 +1,248 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Hasan Demirtaş
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package io.github.portlek.rgb;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * a class that represents appendables which encode the chars as utf-8.
+ * <p>
+ * the output is the same as {@link String#getBytes(java.nio.charset.Charset)} with utf-8, so unpaired surrogates are
+ * replaced with {@code '?'}. the bytes are put into the buffer in chunks, so {@link #finish()} has to be called at the
+ * end. without a buffer the bytes are only counted.
+ */
+final class Utf8 implements Appendable {
+
+  /**
+   * the maximum byte count of a var int.
+   */
+  static final int MAX_VAR_INT_SIZE = 5;
+
+  /**
+   * the replacement of the unpaired surrogates.
+   */
+  private static final byte REPLACEMENT = '?';
+
+  /**
+   * the chunk size.
+   */
+  private static final int CHUNK_SIZE = 512;
+
+  /**
+   * the buffer, {@code null} if the bytes are only counted.
+   */
+  @Nullable
+  private final ByteBuffer buffer;
+
+  /**
+   * the bytes which have not been put into the buffer yet.
+   */
+  @Nullable
+  private final byte[] chunk;
+
+  /**
+   * the byte count in the chunk.
+   */
+  private int chunked;
+
+  /**
+   * the byte count.
+   */
+  private int count;
+
+  /**
+   * the high surrogate which waits for its low surrogate, {@code 0} if there is none.
+   */
+  private char high;
+
+  /**
+   * ctor.
+   *
+   * @param buffer the buffer.
+   */
+  Utf8(@Nullable final ByteBuffer buffer) {
+    this.buffer = buffer;
+    this.chunk = buffer == null ? null : new byte[Utf8.CHUNK_SIZE];
+  }
+
+  /**
+   * calculates the length of the text when encoded as utf-8.
+   *
+   * @param text the text to calculate.
+   *
+   * @return utf-8 byte length.
+   */
+  static int length(@NotNull final CharSequence text) {
+    final var utf8 = new Utf8(null);
+    utf8.append(text);
+    return utf8.finish();
+  }
+
+  /**
+   * calculates the byte count of the value when encoded as a var int.
+   *
+   * @param value the value to calculate.
+   *
+   * @return var int byte count.
+   */
+  static int varIntSize(final int value) {
+    var size = 1;
+    for (var remaining = value >>> 7; remaining != 0; remaining >>>= 7) {
+      size++;
+    }
+    return size;
+  }
+
+  /**
+   * writes the value as a var int.
+   *
+   * @param buffer the buffer to write.
+   * @param value the value to write.
+   */
+  static void writeVarInt(@NotNull final ByteBuffer buffer, final int value) {
+    var remaining = value;
+    while ((remaining & ~0x7F) != 0) {
+      buffer.put((byte) (remaining & 0x7F | 0x80));
+      remaining >>>= 7;
+    }
+    buffer.put((byte) remaining);
+  }
+
+  @NotNull
+  @Override
+  public Utf8 append(@Nullable final CharSequence csq) {
+    final var sequence = csq == null ? "null" : csq;
+    return this.append(sequence, 0, sequence.length());
+  }
+
+  @NotNull
+  @Override
+  public Utf8 append(@Nullable final CharSequence csq, final int start, final int end) {
+    final var sequence = csq == null ? "null" : csq;
+    var index = start;
+    if (this.high == 0) {
+      final var chunk = this.chunk;
+      if (chunk == null) {
+        while (index < end && sequence.charAt(index) < 0x80) {
+          index++;
+        }
+      } else {
+        while (index < end) {
+          final var c = sequence.charAt(index);
+          if (c >= 0x80) {
+            break;
+          }
+          if (this.chunked == chunk.length) {
+            this.flush();
+          }
+          chunk[this.chunked++] = (byte) c;
+          index++;
+        }
+      }
+      this.count += index - start;
+    }
+    for (; index < end; index++) {
+      this.append(sequence.charAt(index));
+    }
+    return this;
+  }
+
+  @NotNull
+  @Override
+  public Utf8 append(final char c) {
+    if (this.high != 0) {
+      final var high = this.high;
+      this.high = 0;
+      if (Character.isLowSurrogate(c)) {
+        final var codePoint = Character.toCodePoint(high, c);
+        this.put(0xF0 | codePoint >> 18);
+        this.put(0x80 | codePoint >> 12 & 0x3F);
+        this.put(0x80 | codePoint >> 6 & 0x3F);
+        this.put(0x80 | codePoint & 0x3F);
+        return this;
+      }
+      this.put(Utf8.REPLACEMENT);
+    }
+    if (c < 0x80) {
+      this.put(c);
+    } else if (c < 0x800) {
+      this.put(0xC0 | c >> 6);
+      this.put(0x80 | c & 0x3F);
+    } else if (Character.isHighSurrogate(c)) {
+      this.high = c;
+    } else if (Character.isLowSurrogate(c)) {
+      this.put(Utf8.REPLACEMENT);
+    } else {
+      this.put(0xE0 | c >> 12);
+      this.put(0x80 | c >> 6 & 0x3F);
+      this.put(0x80 | c & 0x3F);
+    }
+    return this;
+  }
+
+  /**
+   * finishes the encoding, an unpaired high surrogate at the end is replaced.
+   *
+   * @return encoded byte count.
+   *
+   * @throws BufferOverflowException if the buffer does not have enough space.
+   */
+  int finish() {
+    if (this.high != 0) {
+      this.high = 0;
+      this.put(Utf8.REPLACEMENT);
+    }
+    this.flush();
+    return this.count;
+  }
+
+  /**
+   * puts the chunked bytes into the buffer.
+   */
+  private void flush() {
+    if (this.buffer != null && this.chunked > 0) {
+      this.buffer.put(this.chunk, 0, this.chunked);
+      this.chunked = 0;
+    }
+  }
+
+  /**
+   * puts the byte.
+   *
+   * @param value the value to put.
+   */
+  private void put(final int value) {
+    if (this.chunk != null) {
+      if (this.chunked == this.chunk.length) {
+        this.flush();
+      }
+      this.chunk[this.chunked++] = (byte) value;
+    }
+    this.count++;
+  }
+}
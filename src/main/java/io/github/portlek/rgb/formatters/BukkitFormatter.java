@@ -26,6 +26,8 @@
 package io.github.portlek.rgb.formatters;
 
 import io.github.portlek.rgb.Formatter;
+import java.util.Collection;
+import java.util.List;
 import java.util.regex.Pattern;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
@@ -51,6 +53,11 @@ public final class BukkitFormatter implements Formatter {
    */
   private static final Pattern PATTERN = Pattern.compile("[§&]x[§&{1}0-9a-fA-F]{12}");
 
+  /**
+   * the triggers.
+   */
+  private static final Collection<String> TRIGGERS = List.of("&x", "\u00a7x");
+
   @NotNull
   @Override
   public String apply(@NotNull final String text) {
@@ -75,4 +82,10 @@ public final class BukkitFormatter implements Formatter {
     }
     return replaced;
   }
+
+  @NotNull
+  @Override
+  public Collection<String> getTriggers() {
+    return BukkitFormatter.TRIGGERS;
+  }
 }
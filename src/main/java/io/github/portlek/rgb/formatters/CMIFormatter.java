@@ -26,6 +26,8 @@
 package io.github.portlek.rgb.formatters;
 
 import io.github.portlek.rgb.Formatter;
+import java.util.Collection;
+import java.util.List;
 import java.util.regex.Pattern;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
@@ -49,6 +51,11 @@ public final class CMIFormatter implements Formatter {
    */
   private static final Pattern PATTERN = Pattern.compile("\\{#[0-9a-fA-F]{6}}");
 
+  /**
+   * the triggers.
+   */
+  private static final Collection<String> TRIGGERS = List.of("{#");
+
   @NotNull
   @Override
   public String apply(@NotNull final String text) {
@@ -64,4 +71,10 @@ public final class CMIFormatter implements Formatter {
     }
     return replaced;
   }
+
+  @NotNull
+  @Override
+  public Collection<String> getTriggers() {
+    return CMIFormatter.TRIGGERS;
+  }
 }
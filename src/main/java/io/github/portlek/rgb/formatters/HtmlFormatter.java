@@ -27,6 +27,8 @@
 package io.github.portlek.rgb.formatters;
 
 import io.github.portlek.rgb.Formatter;
+import java.util.Collection;
+import java.util.List;
 import java.util.regex.Pattern;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
@@ -50,6 +52,11 @@ public final class HtmlFormatter implements Formatter {
    */
   private static final Pattern PATTERN = Pattern.compile("#<[0-9a-fA-F]{6}>");
 
+  /**
+   * the triggers.
+   */
+  private static final Collection<String> TRIGGERS = List.of("#<");
+
   @NotNull
   @Override
   public String apply(@NotNull final String text) {
@@ -65,4 +72,10 @@ public final class HtmlFormatter implements Formatter {
     }
     return replaced;
   }
+
+  @NotNull
+  @Override
+  public Collection<String> getTriggers() {
+    return HtmlFormatter.TRIGGERS;
+  }
 }
@@ -26,6 +26,8 @@
 package io.github.portlek.rgb.formatters;
 
 import io.github.portlek.rgb.Formatter;
+import java.util.Collection;
+import java.util.List;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 import org.jetbrains.annotations.NotNull;
@@ -43,9 +45,20 @@ public final class UnnamedFormatter implements Formatter {
    */
   public static final Formatter INSTANCE = new UnnamedFormatter();
 
+  /**
+   * the triggers.
+   */
+  private static final Collection<String> TRIGGERS = List.of("&#");
+
   @NotNull
   @Override
   public String apply(@NotNull final String text) {
     return text.contains("&#") ? text.replace("&#", "#") : text;
   }
+
+  @NotNull
+  @Override
+  public Collection<String> getTriggers() {
+    return UnnamedFormatter.TRIGGERS;
+  }
 }
@@ -0,0 +1,91 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Hasan Demirtaş
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package io.github.portlek.rgb;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+final class ChatComponentTest {
+
+  private static final String[] TEXTS = {
+    "", "plain", "\u00a7ahello \u00a7lworld", "#ff0000red #00ff00|agreen \u00f6\u4e16\ud83d\ude00",
+    "\u00a7c" + "long text ".repeat(40), "#123456" + "x".repeat(20000)
+  };
+
+  @NotNull
+  private static byte[] expected(@NotNull final ChatComponent component) {
+    final var json = component.toString().getBytes(StandardCharsets.UTF_8);
+    final var prefix = ByteBuffer.allocate(Utf8.MAX_VAR_INT_SIZE);
+    Utf8.writeVarInt(prefix, json.length);
+    final var bytes = new byte[prefix.position() + json.length];
+    System.arraycopy(prefix.array(), 0, bytes, 0, prefix.position());
+    System.arraycopy(json, 0, bytes, prefix.position(), json.length);
+    return bytes;
+  }
+
+  @Test
+  void fromStringDropsEmptyExtra() {
+    final var component = ChatComponent.fromString("{\"extra\":[],\"text\":\"a\"}");
+    assertEquals("{\"text\":\"a\"}", component.toString());
+    assertEquals(component.toString(), ChatComponent.fromString(component.toString()).toString());
+    assertEquals("{\"text\":\"a\"}", new ChatComponent("a").withExtra(new ArrayList<>()).toString());
+  }
+
+  @Test
+  void toLegacyTextSkipsSameCodes() {
+    assertEquals("k\u00a7labb", ChatComponent.fromColoredText("k&lab#abcdef|lb").toLegacyText());
+    assertEquals("\u00a73g\u00a7lb", ChatComponent.fromColoredText("&3g#abcdef|lb").toLegacyText());
+    assertEquals("\u00a7la\u00a7o\u00a7lb", ChatComponent.fromColoredText("&la#abcdef|o&lb").toLegacyText());
+  }
+
+  @Test
+  void toUtf8FitsUtf8Length() {
+    for (final var text : ChatComponentTest.TEXTS) {
+      for (final var frozen : new boolean[]{false, true}) {
+        final var component = ChatComponent.fromColoredText(text);
+        if (frozen) {
+          component.freeze();
+        }
+        final var expected = ChatComponentTest.expected(component);
+        final var size = component.utf8Length(true);
+        assertEquals(expected.length, size, text);
+        for (final var buffer : new ByteBuffer[]{ByteBuffer.allocate(size), ByteBuffer.allocateDirect(size)}) {
+          assertEquals(size, component.toUtf8(buffer, true), text);
+          assertEquals(size, buffer.position(), text);
+          final var bytes = new byte[size];
+          buffer.flip().get(bytes);
+          assertArrayEquals(expected, bytes, text);
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,115 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Hasan Demirtaş
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package io.github.portlek.rgb;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+final class CompiledMessageTest {
+
+  private static final ColorManager MANAGER = ColorManager.getDefault();
+
+  private static final String[] TEMPLATES = {
+    "{#ff0000>}Welcome %player%{#00ff00<}",
+    "&aHello %player%, &lyou have %coins% coins &7(%coins%)",
+    "<gradient:#ff0000:#0000ff>Rank</gradient> &8| %player% <#ff0000>says %msg%</#00ff00> end &#abcdef%x%",
+    "no placeholders {#123456}here",
+    "50% off %item% for 20% less",
+    "&x&f&f&0&0&0&0%p% {#ff0000>}a%p%b{#00ff00<} <$#ff00ff>%q%<$#00ff00> tail %p%",
+    "&l<#ff0000>%a%</#00ff00>x",
+    "<#ff0000>abc%a%def</#00ff00>",
+    "<#ff0000>%a%</#00ff00>&l%b%<#00ff00>%c%</#0000ff>z",
+    "&c%a%&l%b%&r%c%",
+    "&a%a%&b",
+    "%a%%b%",
+    "\uE001 Welcome %player%",
+    "<#ff0000>\uE000\uE001%a%</#00ff00>",
+    "\uE000",
+    ""
+  };
+
+  private static void assertSameAsDirect(@NotNull final CompiledMessage message,
+                                         @NotNull final Map<String, String> values) {
+    var text = message.getText();
+    for (final var entry : values.entrySet()) {
+      text = text.replace('%' + entry.getKey() + '%', entry.getValue());
+    }
+    assertEquals(CompiledMessageTest.MANAGER.convertToBukkitFormat(text, true), message.toBukkitText(values), text);
+    assertEquals(CompiledMessageTest.MANAGER.convertToBukkitFormat(text, false), message.toLegacyText(values), text);
+    assertEquals(ChatComponent.fromColoredText(text, CompiledMessageTest.MANAGER).toString(),
+      message.toComponent(values).toString(), text);
+  }
+
+  @Test
+  void rendersCharactersOfThePrivateUseAreaAsTheyAre() {
+    assertEquals("\uE001 Welcome Steve",
+      CompiledMessageTest.MANAGER.compile("\uE001 Welcome %player%").toBukkitText("Steve"));
+    assertEquals("\uE000", CompiledMessageTest.MANAGER.compile("\uE000").toBukkitText());
+  }
+
+  @Test
+  void rendersEmptyValuesTheSameAsTheDirectPath() {
+    for (final var template : CompiledMessageTest.TEMPLATES) {
+      final var message = CompiledMessageTest.MANAGER.compile(template);
+      final var values = new HashMap<String, String>();
+      for (final var slot : message.getSlots()) {
+        values.put(slot, "");
+      }
+      CompiledMessageTest.assertSameAsDirect(message, values);
+    }
+  }
+
+  @Test
+  void rendersTheSameAsTheDirectPath() {
+    final var random = new Random(1);
+    for (final var template : CompiledMessageTest.TEMPLATES) {
+      final var message = CompiledMessageTest.MANAGER.compile(template);
+      for (var index = 0; index < 50; index++) {
+        final var values = new HashMap<String, String>();
+        for (final var slot : message.getSlots()) {
+          final var value = new StringBuilder();
+          for (var length = random.nextInt(6); length > 0; length--) {
+            value.append(random.nextInt(8) == 0 ? '\uE000' : (char) ('g' + random.nextInt(20)));
+          }
+          values.put(slot, value.toString());
+        }
+        CompiledMessageTest.assertSameAsDirect(message, values);
+      }
+    }
+  }
+
+  @Test
+  void rendersValuesInGradientsInTheFormattingOfThePrefix() {
+    final var message = CompiledMessageTest.MANAGER.compile("&l<#ff0000>%a%</#00ff00>x");
+    assertEquals(CompiledMessageTest.MANAGER.convertToBukkitFormat("&l<#ff0000>Steve</#00ff00>x", false),
+      message.toLegacyText("Steve"));
+  }
+}
@@ -0,0 +1,175 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Hasan Demirtaş
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package io.github.portlek.rgb;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+final class ComponentParserTest {
+
+  private static final String[] PIECES = {
+    "\u00a7", "#", "|", "4", "c", "C", "L", "l", "+", "-", "f", "0", "a", "\uff11", "x", "r", "R", " ", "#ff00aa",
+    "#FF00AA|4", "#-12345", "#+abcde", "\u00a7x", "&c", "#12345", "|z", "k"
+  };
+
+  @NotNull
+  private static ChatComponent baseline(@NotNull final CharSequence text, @NotNull final ChatComponent style,
+                                        @NotNull final List<ChatComponent> components) {
+    var builder = new StringBuilder();
+    var component = style;
+    for (var i = 0; i < text.length(); i++) {
+      var c = text.charAt(i);
+      if (c == '\u00a7') {
+        i++;
+        if (i >= text.length()) {
+          break;
+        }
+        c = text.charAt(i);
+        if (c >= 'A' && c <= 'Z') {
+          c = (char) (c + ' ');
+        }
+        final var format = ChatFormat.getByCharOrNull(c);
+        if (format != null) {
+          if (builder.length() > 0) {
+            component.withText(builder.toString());
+            components.add(component);
+            component = component.copyFormatting();
+            builder = new StringBuilder();
+          }
+          switch (format) {
+            case BOLD:
+              component.withBold(true);
+              break;
+            case ITALIC:
+              component.withItalic(true);
+              break;
+            case UNDERLINE:
+              component.withUnderlined(true);
+              break;
+            case STRIKETHROUGH:
+              component.withStrikethrough(true);
+              break;
+            case OBFUSCATED:
+              component.withObfuscated(true);
+              break;
+            case RESET:
+              component = new ChatComponent();
+              component.withColor(TextColor.of(ChatFormat.WHITE));
+              break;
+            default:
+              component = new ChatComponent();
+              component.withColor(TextColor.of(format));
+              break;
+          }
+        }
+      } else if (c == '#') {
+        try {
+          final var hex = text.subSequence(i, i + 7).toString();
+          Integer.parseInt(hex.substring(1), 16);
+          final TextColor color;
+          if (ColorManager.containsLegacyCode(text, i)) {
+            color = TextColor.of(hex, ChatFormat.getByCharOrNull(text.charAt(i + 8)));
+            i += 8;
+          } else {
+            color = TextColor.of(hex);
+            i += 6;
+          }
+          if (builder.length() > 0) {
+            component.withText(builder.toString());
+            components.add(component);
+            builder = new StringBuilder();
+          }
+          component = new ChatComponent();
+          component.withColor(color);
+        } catch (final Exception e) {
+          builder.append(c);
+        }
+      } else {
+        builder.append(c);
+      }
+    }
+    component.withText(builder.toString());
+    components.add(component);
+    return component;
+  }
+
+  @NotNull
+  private static String next(@NotNull final Random random) {
+    final var builder = new StringBuilder();
+    for (var length = random.nextInt(20); length > 0; length--) {
+      builder.append(ComponentParserTest.PIECES[random.nextInt(ComponentParserTest.PIECES.length)]);
+    }
+    return builder.toString();
+  }
+
+  @Test
+  void parsesTheSameAsTheBaselineAtOnce() {
+    final var random = new Random(1);
+    for (var index = 0; index < 20000; index++) {
+      final var text = ComponentParserTest.next(random);
+      final var expected = new ArrayList<ChatComponent>();
+      final var expectedLast = ComponentParserTest.baseline(text, new ChatComponent(), expected);
+      final var actual = new ArrayList<ChatComponent>();
+      final var actualLast = ChatComponent.parse(text, new ChatComponent(), actual);
+      assertEquals(new ChatComponent("").withExtra(expected).toString(),
+        new ChatComponent("").withExtra(actual).toString(), text);
+      assertEquals(expectedLast.toString(), actualLast.toString(), text);
+    }
+  }
+
+  @Test
+  void parsesTheSameAsTheBaselineInPieces() {
+    final var random = new Random(2);
+    for (var index = 0; index < 20000; index++) {
+      final var text = ComponentParserTest.next(random);
+      final var expected = new ArrayList<ChatComponent>();
+      final var expectedLast = ComponentParserTest.baseline(text, new ChatComponent(), expected);
+      final var actual = new ArrayList<ChatComponent>();
+      final var parser = new ComponentParser(new ChatComponent(), actual);
+      var from = 0;
+      while (from < text.length()) {
+        final var to = Math.min(text.length(), from + 1 + random.nextInt(4));
+        if (random.nextBoolean()) {
+          parser.push(text, from, to);
+        } else {
+          for (var at = from; at < to; at++) {
+            parser.push(text.charAt(at));
+          }
+        }
+        from = to;
+      }
+      final var actualLast = parser.finish();
+      assertEquals(new ChatComponent("").withExtra(expected).toString(),
+        new ChatComponent("").withExtra(actual).toString(), text);
+      assertEquals(expectedLast.toString(), actualLast.toString(), text);
+    }
+  }
+}
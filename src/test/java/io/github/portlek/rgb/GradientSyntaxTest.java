@@ -0,0 +1,96 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Hasan Demirtaş
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package io.github.portlek.rgb;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.junit.jupiter.api.Test;
+
+final class GradientSyntaxTest {
+
+  private static final GradientSyntax HTML = GradientSyntax.of("<#RRGGBB>", "</#RRGGBB>");
+
+  private static final GradientSyntax IRIDESCENT = GradientSyntax.of("<$#RRGGBB>", "<$#RRGGBB>");
+
+  private static final String TAG = "<#ff0000>abc</#00ff00>";
+
+  private static final String GRADIENT = GradientSyntaxTest.HTML.apply(GradientSyntaxTest.TAG, false);
+
+  @Test
+  void closesSharedTagsWithTheNextTag() {
+    assertEquals(GradientSyntaxTest.GRADIENT, GradientSyntaxTest.IRIDESCENT.apply("<$#ff0000>abc<$#00ff00>", false));
+  }
+
+  @Test
+  void colorsNestedBodiesAroundTheirMarkup() {
+    final var inner = GradientSyntaxTest.HTML.apply("<#00ff00>b</#0000ff>", false);
+    assertEquals(GradientSyntaxTest.HTML.apply("<#ff0000>a" + inner + "c</#ffffff>", false),
+      GradientSyntaxTest.HTML.apply("<#ff0000>a<#00ff00>b</#0000ff>c</#ffffff>", false));
+  }
+
+  @Test
+  void keepsBackslashesThatAreNotBeforeTags() {
+    final var text = "a\\\\b ";
+    assertSame(text, GradientSyntaxTest.HTML.apply(text, false));
+    assertEquals(text + GradientSyntaxTest.GRADIENT, GradientSyntaxTest.HTML.apply(text + GradientSyntaxTest.TAG,
+      false));
+  }
+
+  @Test
+  void keepsEscapedCloseTagsOutsideBodies() {
+    final var text = "\\</#00ff00> \\\\</#00ff00> <#ff0000>";
+    assertEquals(text, GradientSyntaxTest.HTML.apply(text, false));
+  }
+
+  @Test
+  void keepsOpenTagsWithoutCloseTags() {
+    final var text = "<#ff0000>abc";
+    assertSame(text, GradientSyntaxTest.HTML.apply(text, false));
+  }
+
+  @Test
+  void readsEscapedBackslashesBeforeCloseTagsInBodies() {
+    final var colored = GradientSyntaxTest.HTML.apply("<#ff0000>axy</#00ff00>c", false);
+    assertEquals(colored.replace('x', '\\').replace('y', '\\'),
+      GradientSyntaxTest.HTML.apply("<#ff0000>a\\\\\\\\</#00ff00>c", false));
+  }
+
+  @Test
+  void readsEscapedBackslashesBeforeOpenTags() {
+    assertEquals("\\" + GradientSyntaxTest.GRADIENT, GradientSyntaxTest.HTML.apply("\\\\" + GradientSyntaxTest.TAG,
+      false));
+    assertEquals("\\\\" + GradientSyntaxTest.GRADIENT,
+      GradientSyntaxTest.HTML.apply("\\\\\\\\" + GradientSyntaxTest.TAG, false));
+  }
+
+  @Test
+  void readsEscapedOpenTags() {
+    assertEquals(GradientSyntaxTest.TAG, GradientSyntaxTest.HTML.apply("\\" + GradientSyntaxTest.TAG, false));
+    assertEquals("\\" + GradientSyntaxTest.TAG,
+      GradientSyntaxTest.HTML.apply("\\\\\\" + GradientSyntaxTest.TAG, false));
+  }
+}
@@ -0,0 +1,99 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Hasan Demirtaş
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package io.github.portlek.rgb;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import io.github.portlek.rgb.formatters.BukkitFormatter;
+import io.github.portlek.rgb.formatters.CMIFormatter;
+import io.github.portlek.rgb.formatters.HtmlFormatter;
+import io.github.portlek.rgb.formatters.UnnamedFormatter;
+import io.github.portlek.rgb.gradients.CMIGradient;
+import io.github.portlek.rgb.gradients.HtmlGradient;
+import io.github.portlek.rgb.gradients.IridescentGradient;
+import io.github.portlek.rgb.gradients.KyoriGradient;
+import java.util.List;
+import java.util.Objects;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+final class LexerTest {
+
+  private static final List<Formatter> FORMATTERS = List.of(BukkitFormatter.INSTANCE, CMIFormatter.INSTANCE,
+    HtmlFormatter.INSTANCE, UnnamedFormatter.INSTANCE);
+
+  private static final List<Gradient> GRADIENTS = List.of(CMIGradient.INSTANCE, HtmlGradient.INSTANCE,
+    IridescentGradient.INSTANCE, KyoriGradient.INSTANCE);
+
+  private static final Lexer LEXER = Objects.requireNonNull(Lexer.of(LexerTest.FORMATTERS, LexerTest.GRADIENTS));
+
+  @NotNull
+  private static String sequential(@NotNull final String text, final boolean ignorePlaceholders) {
+    var replaced = text;
+    for (final var formatter : LexerTest.FORMATTERS) {
+      replaced = formatter.apply(replaced);
+    }
+    for (final var gradient : LexerTest.GRADIENTS) {
+      replaced = gradient.apply(replaced, ignorePlaceholders);
+    }
+    return replaced;
+  }
+
+  @Test
+  void appendsTheSameAsApplyingTheStagesInSequence() {
+    final var markup = new RandomMarkup(2);
+    for (var index = 0; index < 5000; index++) {
+      final var text = markup.next(30);
+      final var ignorePlaceholders = markup.nextBoolean();
+      final var builder = new StringBuilder("prefix");
+      LexerTest.LEXER.apply(text, ignorePlaceholders, builder);
+      assertEquals("prefix" + LexerTest.sequential(text, ignorePlaceholders), builder.toString(), text);
+    }
+  }
+
+  @Test
+  void appliesTheSameAsApplyingTheStagesInSequence() {
+    final var markup = new RandomMarkup(1);
+    for (var index = 0; index < 20000; index++) {
+      final var text = markup.next(30);
+      final var ignorePlaceholders = markup.nextBoolean();
+      assertEquals(LexerTest.sequential(text, ignorePlaceholders), LexerTest.LEXER.apply(text, ignorePlaceholders),
+        text);
+    }
+  }
+
+  @Test
+  void leavesTextsWithoutTriggersAsTheyAre() {
+    final var text = "plain text without any syntax";
+    assertEquals(text, LexerTest.LEXER.apply(text, false));
+  }
+
+  @Test
+  void refusesCustomStages() {
+    assertNull(Lexer.of(List.of(text -> text), LexerTest.GRADIENTS));
+  }
+}
@@ -0,0 +1,98 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Hasan Demirtaş
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package io.github.portlek.rgb;
+
+import java.util.Random;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * a class that generates random texts out of the pieces of every built-in syntax.
+ */
+final class RandomMarkup {
+
+  /**
+   * the pieces.
+   */
+  private static final String[] PIECES = {
+    "&", "\u00a7", "x", "#", "{", "}", "<", ">", "/", "$", ":", "%", "|", "\\", "a", "F", "0", "9", "z", " ", "\n",
+    "l", "k", "r", "ff", "abcdef", "gradient", "&l", "&c", "&r", "\u00a7o", "&X", "&#", "&#a1b2c3", "#ff00aa|4",
+    "&x&f&f&0&0&a&a", "\u00a7x\u00a71\u00a72\u00a73\u00a74\u00a75\u00a76", "{#abcdef}", "#<abcdef>",
+    "<gradient:#ff0000:#00FF00>", "</gradient>", "{#ff0000>}", "{#00ff00<}", "<#123456>", "</#abcdef>", "<$#ff00ff>",
+    "\\<#123456>", "\\</#abcdef>", "\\\\", "%player%", "\ue001"
+  };
+
+  /**
+   * the random.
+   */
+  @NotNull
+  private final Random random;
+
+  /**
+   * ctor.
+   *
+   * @param seed the seed.
+   */
+  RandomMarkup(final long seed) {
+    this.random = new Random(seed);
+  }
+
+  /**
+   * creates a random text.
+   *
+   * @param pieces the maximum piece count.
+   *
+   * @return a newly created text.
+   */
+  @NotNull
+  String next(final int pieces) {
+    final var builder = new StringBuilder();
+    final var count = this.random.nextInt(pieces + 1);
+    for (var index = 0; index < count; index++) {
+      builder.append(RandomMarkup.PIECES[this.random.nextInt(RandomMarkup.PIECES.length)]);
+    }
+    return builder.toString();
+  }
+
+  /**
+   * obtains the next boolean.
+   *
+   * @return a random boolean.
+   */
+  boolean nextBoolean() {
+    return this.random.nextBoolean();
+  }
+
+  /**
+   * obtains the next int.
+   *
+   * @param bound the bound.
+   *
+   * @return a random int between zero and the bound.
+   */
+  int nextInt(final int bound) {
+    return this.random.nextInt(bound);
+  }
+}